@@ -0,0 +1,78 @@
+package uk.gov.companieshouse.accounts.user.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import uk.gov.companieshouse.accounts.user.interceptor.AdminUserRolePermissionInterceptor;
+import uk.gov.companieshouse.accounts.user.interceptor.EricAuthorisedKeyPrivilegesInterceptor;
+import uk.gov.companieshouse.accounts.user.util.StaticPropertyUtil;
+
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class InterceptorBenchmark {
+
+    private EricAuthorisedKeyPrivilegesInterceptor ericAuthorisedKeyPrivilegesInterceptor;
+    private AdminUserRolePermissionInterceptor adminUserRolePermissionInterceptor;
+
+    private MockHttpServletRequest apiKeyRequest;
+    private MockHttpServletRequest oauth2AdminRequest;
+    private MockHttpServletRequest adminSearchRequest;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setup() {
+        StaticPropertyUtil.APPLICATION_NAMESPACE = "accounts-user-api";
+
+        ericAuthorisedKeyPrivilegesInterceptor = new EricAuthorisedKeyPrivilegesInterceptor();
+        adminUserRolePermissionInterceptor = new AdminUserRolePermissionInterceptor();
+
+        apiKeyRequest = new MockHttpServletRequest( "GET", "/users/333" );
+        apiKeyRequest.addHeader( "ERIC-Identity", "api-key-id" );
+        apiKeyRequest.addHeader( "ERIC-Identity-Type", "key" );
+        apiKeyRequest.addHeader( "ERIC-Authorised-Key-Roles", "*" );
+        apiKeyRequest.addHeader( "ERIC-Authorised-Key-Privileges", "internal-app,user-data" );
+
+        oauth2AdminRequest = new MockHttpServletRequest( "GET", "/users/333/roles" );
+        oauth2AdminRequest.addHeader( "ERIC-Identity", "111" );
+        oauth2AdminRequest.addHeader( "ERIC-Identity-Type", "oauth2" );
+        oauth2AdminRequest.addHeader( "ERIC-Authorised-Roles", "/admin/user/search /admin/user/roles" );
+
+        adminSearchRequest = new MockHttpServletRequest( "GET", "/internal/admin/users/333" );
+        adminSearchRequest.addHeader( "ERIC-Identity", "111" );
+        adminSearchRequest.addHeader( "ERIC-Identity-Type", "oauth2" );
+        adminSearchRequest.addHeader( "ERIC-Authorised-Roles", "/admin/user/search /admin/user/unlinkonelogin" );
+
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public boolean ericAuthorisedKeyPrivilegesWithApiKey() throws IOException {
+        return ericAuthorisedKeyPrivilegesInterceptor.preHandle( apiKeyRequest, response, null );
+    }
+
+    @Benchmark
+    public boolean ericAuthorisedKeyPrivilegesWithOauth2Admin() throws IOException {
+        return ericAuthorisedKeyPrivilegesInterceptor.preHandle( oauth2AdminRequest, response, null );
+    }
+
+    @Benchmark
+    public boolean adminUserRolePermission() throws IOException {
+        return adminUserRolePermissionInterceptor.preHandle( adminSearchRequest, response, null );
+    }
+
+}
@@ -0,0 +1,82 @@
+package uk.gov.companieshouse.accounts.user.benchmark;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import uk.gov.companieshouse.accounts.user.mapper.DateTimeMapper;
+import uk.gov.companieshouse.accounts.user.mapper.DateTimeMapperImpl;
+import uk.gov.companieshouse.accounts.user.mapper.UsersDtoDaoMapper;
+import uk.gov.companieshouse.accounts.user.mapper.UsersDtoDaoMapperImpl;
+import uk.gov.companieshouse.accounts.user.models.OneLoginDataDao;
+import uk.gov.companieshouse.accounts.user.models.Users;
+import uk.gov.companieshouse.api.accounts.user.model.User;
+
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class MapperBenchmark {
+
+    private UsersDtoDaoMapper usersDtoDaoMapper;
+    private DateTimeMapper dateTimeMapper;
+
+    private Users harleyQuinn;
+    private LocalDateTime localDateTime;
+    private OffsetDateTime offsetDateTime;
+
+    @Setup
+    public void setup() {
+        dateTimeMapper = new DateTimeMapperImpl();
+        usersDtoDaoMapper = new UsersDtoDaoMapperImpl();
+        ReflectionTestUtils.setField( usersDtoDaoMapper, "dateTimeMapper", dateTimeMapper );
+
+        final var oneLoginData = new OneLoginDataDao();
+        oneLoginData.setOneLoginUserId( "OL333" );
+
+        harleyQuinn = new Users();
+        harleyQuinn.setId( "333" );
+        harleyQuinn.setLocale( "GB_en" );
+        harleyQuinn.setForename( "Harleen" );
+        harleyQuinn.setSurname( "Quinzel" );
+        harleyQuinn.setDisplayName( "Harley Quinn" );
+        harleyQuinn.setEmail( "harley.quinn@gotham.city" );
+        harleyQuinn.setRoles( List.of( "appeals_team", "supervisor", "restricted_word" ) );
+        harleyQuinn.setCreated( LocalDateTime.of( 2024, 1, 1, 12, 0 ) );
+        harleyQuinn.setUpdated( LocalDateTime.of( 2024, 6, 1, 12, 0 ) );
+        harleyQuinn.setOneLoginData( oneLoginData );
+
+        localDateTime = LocalDateTime.of( 2024, 1, 1, 12, 0 );
+        offsetDateTime = localDateTime.atOffset( ZoneOffset.UTC );
+    }
+
+    @Benchmark
+    public User usersDaoToDto() {
+        return usersDtoDaoMapper.daoToDto( harleyQuinn );
+    }
+
+    @Benchmark
+    public OffsetDateTime localDateTimeToOffsetDateTime() {
+        return dateTimeMapper.localDateTimeToOffsetDateTime( localDateTime );
+    }
+
+    @Benchmark
+    public LocalDateTime offsetDateTimeToDateTime() {
+        return dateTimeMapper.offsetDateTimeToDateTime( offsetDateTime );
+    }
+
+}
@@ -0,0 +1,67 @@
+package uk.gov.companieshouse.accounts.user.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.companieshouse.api.accounts.user.model.RolesList;
+import uk.gov.companieshouse.api.accounts.user.model.User;
+import uk.gov.companieshouse.api.accounts.user.model.UsersList;
+
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class SerialisationBenchmark {
+
+    // 50 is the default database.limit, so the largest page a search returns.
+    @Param( { "1", "50" } )
+    public int users;
+
+    private ObjectMapper objectMapper;
+    private UsersList usersList;
+
+    @Setup
+    public void setup() {
+        objectMapper = new ObjectMapper().registerModule( new JavaTimeModule() );
+
+        usersList = new UsersList();
+        IntStream.range( 0, users ).forEach( index -> {
+            final var roles = new RolesList();
+            roles.addAll( List.of( "appeals_team", "supervisor" ) );
+            usersList.add( new User()
+                    .userId( "user" + index )
+                    .forename( "Harleen" )
+                    .surname( "Quinzel" )
+                    .displayName( "Harley Quinn" )
+                    .email( String.format( "harley.quinn.%d@gotham.city", index ) )
+                    .roles( roles )
+                    .created( OffsetDateTime.of( 2024, 1, 1, 12, 0, 0, 0, ZoneOffset.UTC ) )
+                    .hasLinkedOneLogin( true )
+                    .isPrivateBetaUser( false ) );
+        } );
+    }
+
+    @Benchmark
+    public byte[] serialiseUsersList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes( usersList );
+    }
+
+}
@@ -0,0 +1,71 @@
+package uk.gov.companieshouse.accounts.user.benchmark;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import uk.gov.companieshouse.accounts.user.controller.GetUserRecordController;
+import uk.gov.companieshouse.accounts.user.service.UsersService;
+import uk.gov.companieshouse.accounts.user.util.StaticPropertyUtil;
+import uk.gov.companieshouse.api.accounts.user.model.User;
+
+/**
+ * Builds the user profile map, including the ERIC token permission parsing, for a user that is
+ * already in memory so that only the per-request work in the controller is measured.
+ */
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class UserProfileBenchmark {
+
+    private GetUserRecordController getUserRecordController;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setup() {
+        StaticPropertyUtil.APPLICATION_NAMESPACE = "accounts-user-api";
+
+        final var harleyQuinn = new User()
+                .userId( "333" )
+                .forename( "Harleen" )
+                .surname( "Quinzel" )
+                .displayName( "Harley Quinn" )
+                .email( "harley.quinn@gotham.city" )
+                .hasLinkedOneLogin( true )
+                .isPrivateBetaUser( false );
+
+        final var usersService = new UsersService( null, null, null, null, null, null, null ) {
+            @Override
+            public Optional<User> fetchUser( final String userId ) {
+                return Optional.of( harleyQuinn );
+            }
+        };
+        getUserRecordController = new GetUserRecordController( usersService );
+
+        request = new MockHttpServletRequest( "GET", "/user/profile" );
+        request.addHeader( "ERIC-Identity", "333" );
+        request.addHeader( "ERIC-Identity-Type", "oauth2" );
+        request.addHeader( "ERIC-Authorised-Roles", "/admin/user/search /admin/user/unlinkonelogin /admin/roles" );
+        request.addHeader( "eric-authorised-scope", "https://identity.company-information.service.gov.uk/user/profile.read" );
+        request.addHeader( "eric-authorised-token-permissions", "user_profile=read company_number=00000000 acsp_members=read" );
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> getUserProfile() {
+        return getUserRecordController.getUserProfile( request, "theId123" );
+    }
+
+}
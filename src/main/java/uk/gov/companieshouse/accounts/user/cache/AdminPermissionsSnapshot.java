@@ -0,0 +1,67 @@
+package uk.gov.companieshouse.accounts.user.cache;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import uk.gov.companieshouse.accounts.user.models.AdminPermissions;
+
+/**
+ * Immutable view of the admin permissions collection at one point in time, with the permissions
+ * of each group keyed by its Entra group id so that an admin's groups can be resolved without a
+ * query per group. The {@link AdminPermissions} documents are shared between readers and must not
+ * be modified.
+ */
+public final class AdminPermissionsSnapshot {
+
+    private final long version;
+    private final Instant loadedAt;
+    private final List<AdminPermissions> groups;
+    private final Map<String, Set<String>> permissionsByEntraGroupId;
+
+    public AdminPermissionsSnapshot( final long version, final Instant loadedAt, final List<AdminPermissions> groups ) {
+        this.version = version;
+        this.loadedAt = loadedAt;
+        this.groups = List.copyOf( groups );
+
+        // Entra group ids are only kept unique by the service, so permissions of any duplicates are merged.
+        final var permissions = new HashMap<String, Set<String>>();
+        this.groups.stream()
+                .filter( group -> Objects.nonNull( group.getEntraGroupId() ) )
+                .forEach( group -> permissions.computeIfAbsent( group.getEntraGroupId(), unused -> new LinkedHashSet<>() )
+                        .addAll( Objects.requireNonNullElse( group.getPermissions(), List.of() ) ) );
+        permissions.replaceAll( ( entraGroupId, groupPermissions ) -> Collections.unmodifiableSet( groupPermissions ) );
+        this.permissionsByEntraGroupId = Collections.unmodifiableMap( permissions );
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public Instant loadedAt() {
+        return loadedAt;
+    }
+
+    public List<AdminPermissions> groups() {
+        return groups;
+    }
+
+    public boolean exists( final String entraGroupId ) {
+        return permissionsByEntraGroupId.containsKey( entraGroupId );
+    }
+
+    /**
+     * @return the union of the permissions granted by {@code entraGroupIds}. Unknown groups grant nothing.
+     */
+    public Set<String> permissionsFor( final Collection<String> entraGroupIds ) {
+        final var permissions = new LinkedHashSet<String>();
+        entraGroupIds.forEach( entraGroupId -> permissions.addAll( permissionsByEntraGroupId.getOrDefault( entraGroupId, Set.of() ) ) );
+        return Collections.unmodifiableSet( permissions );
+    }
+
+}
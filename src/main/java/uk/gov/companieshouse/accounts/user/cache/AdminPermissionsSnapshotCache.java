@@ -0,0 +1,67 @@
+package uk.gov.companieshouse.accounts.user.cache;
+
+import static uk.gov.companieshouse.accounts.user.cache.CollectionChangedEvent.ADMIN_PERMISSIONS_COLLECTION;
+import static uk.gov.companieshouse.accounts.user.util.StaticPropertyUtil.APPLICATION_NAMESPACE;
+
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.accounts.user.repositories.AdminPermissionsRepository;
+import uk.gov.companieshouse.logging.Logger;
+import uk.gov.companieshouse.logging.LoggerFactory;
+
+/**
+ * Holds the current {@link AdminPermissionsSnapshot}, kept up to date in the same way as
+ * {@link RolesSnapshotCache}: it is swapped for a new snapshot whenever admin permission groups are
+ * written through this service, a change notification arrives for the admin permissions
+ * collection, or the scheduled refresh runs, and a snapshot older than
+ * {@code cache.admin-permissions.max-age} is reloaded before it is read.
+ */
+@Component
+public class AdminPermissionsSnapshotCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger( APPLICATION_NAMESPACE );
+
+    private final SnapshotHolder<AdminPermissionsSnapshot> snapshots;
+
+    public AdminPermissionsSnapshotCache( final AdminPermissionsRepository adminPermissionsRepository,
+                                          @Value( "${cache.admin-permissions.max-age:PT10M}" ) final Duration maxAge ) {
+        this.snapshots = new SnapshotHolder<>( ( version, loadedAt ) -> new AdminPermissionsSnapshot( version, loadedAt, adminPermissionsRepository.findAll() ),
+                AdminPermissionsSnapshot::loadedAt, maxAge );
+    }
+
+    public AdminPermissionsSnapshot current() {
+        return snapshots.current();
+    }
+
+    public AdminPermissionsSnapshot refresh() {
+        return snapshots.refresh();
+    }
+
+    @Scheduled( initialDelayString = "${cache.admin-permissions.refresh-interval:PT5M}", fixedDelayString = "${cache.admin-permissions.refresh-interval:PT5M}" )
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch ( RuntimeException exception ) {
+            LOG.error( String.format( "Failed to refresh admin permissions snapshot: %s", exception.getMessage() ) );
+        }
+    }
+
+    @EventListener
+    public void onCollectionChanged( final CollectionChangedEvent event ) {
+        if ( !event.isFor( ADMIN_PERMISSIONS_COLLECTION ) ) {
+            return;
+        }
+
+        try {
+            refresh();
+        } catch ( RuntimeException exception ) {
+            // Drop the stale snapshot so the next read loads the admin permissions again.
+            snapshots.clear();
+            LOG.error( String.format( "Failed to refresh admin permissions snapshot after a change to group %s: %s", event.documentId(), exception.getMessage() ) );
+        }
+    }
+
+}
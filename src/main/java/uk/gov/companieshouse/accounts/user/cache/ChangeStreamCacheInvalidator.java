@@ -0,0 +1,198 @@
+package uk.gov.companieshouse.accounts.user.cache;
+
+import static uk.gov.companieshouse.accounts.user.cache.CollectionChangedEvent.ADMIN_PERMISSIONS_COLLECTION;
+import static uk.gov.companieshouse.accounts.user.cache.CollectionChangedEvent.ROLES_COLLECTION;
+import static uk.gov.companieshouse.accounts.user.cache.CollectionChangedEvent.USERS_COLLECTION;
+import static uk.gov.companieshouse.accounts.user.util.StaticPropertyUtil.APPLICATION_NAMESPACE;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.accounts.user.cache.CollectionChangedEvent.DocumentChange;
+import uk.gov.companieshouse.logging.Logger;
+import uk.gov.companieshouse.logging.LoggerFactory;
+
+/**
+ * Tails a change stream over the users, roles and admin_permissions collections so that
+ * every replica of this service drops cached documents as soon as any replica (or any other
+ * writer) changes them. The stream resumes from the last change seen after a reconnect. The
+ * resume token is only kept in memory: each replica's caches start out empty, so after a restart
+ * the stream starts from now and everything cached is evicted. While the stream is down, caches
+ * rely on their TTL.
+ */
+@Component
+@ConditionalOnProperty( name = "cache.change-stream.enabled", havingValue = "true", matchIfMissing = true )
+public class ChangeStreamCacheInvalidator implements SmartLifecycle {
+
+    private static final Logger LOG = LoggerFactory.getLogger( APPLICATION_NAMESPACE );
+
+    static final List<String> WATCHED_COLLECTIONS = List.of( USERS_COLLECTION, ROLES_COLLECTION, ADMIN_PERMISSIONS_COLLECTION );
+
+    private static final Set<Integer> UNRESUMABLE_ERROR_CODES = Set.of( 260, 280, 286 );
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration retryInterval;
+
+    private volatile boolean running;
+    private volatile boolean connected;
+    private Thread watcher;
+    private volatile BsonDocument resumeToken;
+
+    public ChangeStreamCacheInvalidator( final MongoTemplate mongoTemplate,
+                                         final ApplicationEventPublisher eventPublisher,
+                                         final MeterRegistry meterRegistry,
+                                         @Value( "${cache.change-stream.retry-interval:10s}" ) final Duration retryInterval ) {
+        this.mongoTemplate = mongoTemplate;
+        this.eventPublisher = eventPublisher;
+        this.retryInterval = retryInterval;
+
+        Gauge.builder( "cache.change.stream.connected", this, invalidator -> invalidator.connected ? 1 : 0 )
+                .description( "1 while cache invalidations are being received from the Mongo change stream, 0 while caches fall back to TTL expiry" )
+                .register( meterRegistry );
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        watcher = Thread.ofVirtual().name( "cache-change-stream" ).start( this::watch );
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if ( Objects.nonNull( watcher ) ) {
+            watcher.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    private void watch() {
+        while ( running ) {
+            try {
+                tail();
+            } catch ( MongoException exception ) {
+                connected = false;
+                LOG.error( String.format( "Cache invalidation change stream failed, falling back to TTL expiry: %s", exception.getMessage() ) );
+                if ( UNRESUMABLE_ERROR_CODES.contains( exception.getCode() ) ) {
+                    LOG.info( "Discarding change stream resume token that can no longer be resumed from" );
+                    resumeToken = null;
+                }
+                pauseBeforeRetry();
+            } catch ( RuntimeException exception ) {
+                connected = false;
+                LOG.error( String.format( "Unexpected error in cache invalidation change stream: %s", exception.getMessage() ) );
+                pauseBeforeRetry();
+            }
+        }
+        connected = false;
+    }
+
+    private void tail() {
+        var changeStream = mongoTemplate.getDb()
+                .watch( List.of( Aggregates.match( Filters.in( "ns.coll", WATCHED_COLLECTIONS ) ) ) )
+                .maxAwaitTime( 1, TimeUnit.SECONDS );
+
+        if ( Objects.nonNull( resumeToken ) ) {
+            changeStream = changeStream.resumeAfter( resumeToken );
+        }
+
+        try ( final var cursor = changeStream.cursor() ) {
+            if ( Objects.isNull( resumeToken ) ) {
+                // Changes made while we were not listening cannot be replayed, so start from a clean slate.
+                WATCHED_COLLECTIONS.forEach( collection -> eventPublisher.publishEvent( new CollectionChangedEvent( collection, null ) ) );
+            }
+
+            connected = true;
+            LOG.info( "Listening for cache invalidations on the Mongo change stream" );
+
+            while ( running ) {
+                final var change = cursor.tryNext();
+                if ( Objects.nonNull( change ) ) {
+                    publish( change );
+                    resumeToken = change.getResumeToken();
+                } else if ( Objects.nonNull( cursor.getResumeToken() ) ) {
+                    resumeToken = cursor.getResumeToken();
+                }
+            }
+        }
+    }
+
+    void publish( final ChangeStreamDocument<Document> change ) {
+        final var collection = Objects.nonNull( change.getNamespace() ) ? change.getNamespace().getCollectionName() : null;
+        final var operationType = change.getOperationType();
+
+        if ( operationType == OperationType.DROP || operationType == OperationType.DROP_DATABASE
+                || operationType == OperationType.RENAME || operationType == OperationType.INVALIDATE ) {
+            WATCHED_COLLECTIONS.stream()
+                    .filter( watched -> Objects.isNull( collection ) || watched.equals( collection ) )
+                    .forEach( watched -> eventPublisher.publishEvent( new CollectionChangedEvent( watched, null ) ) );
+            return;
+        }
+
+        if ( Objects.isNull( collection ) || Objects.isNull( change.getDocumentKey() ) ) {
+            return;
+        }
+
+        eventPublisher.publishEvent( new CollectionChangedEvent( collection, idOf( change.getDocumentKey().get( "_id" ) ), documentChange( change ) ) );
+    }
+
+    /**
+     * Inserts and replaces always carry the full document, and updates the fields they set and
+     * removed, so listeners can see what changed without reading the document again.
+     */
+    private static DocumentChange documentChange( final ChangeStreamDocument<Document> change ) {
+        final var updateDescription = change.getUpdateDescription();
+        return switch ( change.getOperationType() ) {
+            case INSERT, REPLACE -> Objects.nonNull( change.getFullDocument() ) ? new DocumentChange( change.getFullDocument().toBsonDocument(), true, Set.of() ) : null;
+            case UPDATE -> Objects.nonNull( updateDescription ) ? new DocumentChange(
+                    Objects.requireNonNullElseGet( updateDescription.getUpdatedFields(), BsonDocument::new ), false,
+                    Set.copyOf( Objects.requireNonNullElse( updateDescription.getRemovedFields(), List.of() ) ) ) : null;
+            case DELETE -> DocumentChange.deleted();
+            default -> null;
+        };
+    }
+
+    private static String idOf( final BsonValue id ) {
+        if ( Objects.isNull( id ) ) {
+            return null;
+        }
+        return id.isString() ? id.asString().getValue() : id.toString();
+    }
+
+    private void pauseBeforeRetry() {
+        try {
+            Thread.sleep( retryInterval );
+        } catch ( InterruptedException exception ) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+}
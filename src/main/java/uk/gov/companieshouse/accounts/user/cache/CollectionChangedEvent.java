@@ -0,0 +1,58 @@
+package uk.gov.companieshouse.accounts.user.cache;
+
+import java.util.Optional;
+import java.util.Set;
+import org.bson.BsonDocument;
+
+/**
+ * Published whenever a document in one of the watched collections changes on any node.
+ * A {@code null} documentId means individual changes may have been missed and everything
+ * cached from the collection should be discarded. A {@code null} change means the event does
+ * not say what changed in the document, and listeners that care should read it again.
+ */
+public record CollectionChangedEvent( String collection, String documentId, DocumentChange change ) {
+
+    public static final String USERS_COLLECTION = "users";
+    public static final String ROLES_COLLECTION = "roles";
+    public static final String ADMIN_PERMISSIONS_COLLECTION = "admin_permissions";
+
+    public CollectionChangedEvent( final String collection, final String documentId ) {
+        this( collection, documentId, null );
+    }
+
+    public boolean isFor( final String collectionName ){
+        return collectionName.equals( collection );
+    }
+
+    public boolean invalidatesEverything(){
+        return documentId == null;
+    }
+
+    /**
+     * What a change did to the document, as reported by the change stream: the whole document
+     * after an insert or replace, or the fields an update set and removed. A delete is reported
+     * as a replacement with an empty document.
+     */
+    public record DocumentChange( BsonDocument fields, boolean replaced, Set<String> removedFields ) {
+
+        public static DocumentChange deleted(){
+            return new DocumentChange( new BsonDocument(), true, Set.of() );
+        }
+
+        /**
+         * @return whether the change may have set or removed {@code field}.
+         */
+        public boolean touches( final String field ){
+            return replaced || fields.containsKey( field ) || removedFields.contains( field );
+        }
+
+        /**
+         * @return the value of {@code field} after the change, or an empty Optional if the change
+         * removed it or did not set it to a string.
+         */
+        public Optional<String> stringValue( final String field ){
+            return fields.isString( field ) ? Optional.of( fields.getString( field ).getValue() ) : Optional.empty();
+        }
+    }
+
+}
@@ -0,0 +1,80 @@
+package uk.gov.companieshouse.accounts.user.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Single-flight execution of identical reads. While a load for an operation and key is in
+ * flight, concurrent callers for the same operation and key wait for it and share its result
+ * (or its exception) instead of issuing their own query. Nothing is kept once the load has
+ * finished, so this never serves stale data. Caching is left to the caches.
+ */
+@Component
+public class RequestCoalescer {
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<InFlightKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counter> executedCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> coalescedCounters = new ConcurrentHashMap<>();
+
+    public RequestCoalescer( final MeterRegistry meterRegistry ) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @SuppressWarnings( "unchecked" )
+    public <T> T execute( final String operation, final Object key, final Supplier<T> loader ) {
+        final var inFlightKey = new InFlightKey( operation, key );
+        final var load = new CompletableFuture<Object>();
+
+        final var existing = inFlight.putIfAbsent( inFlightKey, load );
+        if ( Objects.nonNull( existing ) ) {
+            counter( coalescedCounters, "coalesced", operation ).increment();
+            return (T) await( existing );
+        }
+
+        counter( executedCounters, "executed", operation ).increment();
+        try {
+            final var result = loader.get();
+            load.complete( result );
+            return result;
+        } catch ( RuntimeException | Error exception ) {
+            load.completeExceptionally( exception );
+            throw exception;
+        } finally {
+            inFlight.remove( inFlightKey, load );
+        }
+    }
+
+    private static Object await( final CompletableFuture<Object> load ) {
+        try {
+            return load.join();
+        } catch ( CompletionException exception ) {
+            if ( exception.getCause() instanceof RuntimeException cause ) {
+                throw cause;
+            }
+            if ( exception.getCause() instanceof Error cause ) {
+                throw cause;
+            }
+            throw exception;
+        }
+    }
+
+    private Counter counter( final Map<String, Counter> counters, final String result, final String operation ) {
+        return counters.computeIfAbsent( operation, name -> Counter.builder( "requests.coalescer" )
+                .description( "Reads that ran a query (executed) or shared the result of an identical in-flight read (coalesced)" )
+                .tag( "operation", name )
+                .tag( "result", result )
+                .register( meterRegistry ) );
+    }
+
+    private record InFlightKey( String operation, Object key ) {}
+
+}
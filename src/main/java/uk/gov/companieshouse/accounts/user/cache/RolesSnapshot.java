@@ -0,0 +1,105 @@
+package uk.gov.companieshouse.accounts.user.cache;
+
+import java.time.Instant;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import uk.gov.companieshouse.accounts.user.models.UserRole;
+
+/**
+ * Immutable view of the roles collection at one point in time. Each refresh builds a new
+ * snapshot with a higher version, so readers always see one consistent set of roles and
+ * permissions and never a half-applied refresh. The {@link UserRole} documents are shared
+ * between readers and must not be modified.
+ *
+ * <p>Every permission granted by a role is also given a dense id, and each role's permissions are
+ * held as a {@link BitSet} of those ids, so a set of roles can be combined into one bit set and
+ * asked about a single permission without any string comparisons. Ids are only meaningful within
+ * the snapshot that assigned them.
+ */
+public final class RolesSnapshot {
+
+    private final long version;
+    private final Instant loadedAt;
+    private final List<UserRole> roles;
+    private final Map<String, List<String>> permissionsByRole;
+    private final Map<String, Integer> permissionIds;
+    private final Map<String, BitSet> permissionBitsByRole;
+
+    public RolesSnapshot( final long version, final Instant loadedAt, final List<UserRole> roles ) {
+        this.version = version;
+        this.loadedAt = loadedAt;
+        this.roles = List.copyOf( roles );
+
+        final var permissions = new LinkedHashMap<String, List<String>>();
+        this.roles.forEach( role -> permissions.put( role.getId(), List.copyOf( Objects.requireNonNullElse( role.getPermissions(), List.of() ) ) ) );
+        this.permissionsByRole = Collections.unmodifiableMap( permissions );
+
+        final var ids = new HashMap<String, Integer>();
+        final var bitsByRole = new HashMap<String, BitSet>();
+        permissionsByRole.forEach( ( roleId, rolePermissions ) -> {
+            final var bits = new BitSet();
+            rolePermissions.forEach( permission -> bits.set( ids.computeIfAbsent( permission, unused -> ids.size() ) ) );
+            bitsByRole.put( roleId, bits );
+        } );
+        this.permissionIds = Collections.unmodifiableMap( ids );
+        this.permissionBitsByRole = Collections.unmodifiableMap( bitsByRole );
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public Instant loadedAt() {
+        return loadedAt;
+    }
+
+    public List<UserRole> roles() {
+        return roles;
+    }
+
+    public boolean exists( final String roleId ) {
+        return permissionsByRole.containsKey( roleId );
+    }
+
+    /**
+     * @return the union of the permissions granted by {@code roleIds}. Unknown roles grant nothing.
+     */
+    public Set<String> permissionsFor( final Collection<String> roleIds ) {
+        final var permissions = new LinkedHashSet<String>();
+        roleIds.forEach( roleId -> permissions.addAll( permissionsByRole.getOrDefault( roleId, List.of() ) ) );
+        return Collections.unmodifiableSet( permissions );
+    }
+
+    /**
+     * @return the ids of the permissions granted by {@code roleIds}, as a new bit set that the
+     * caller may keep. Unknown roles grant nothing.
+     */
+    public BitSet permissionBitsFor( final Collection<String> roleIds ) {
+        final var bits = new BitSet( permissionIds.size() );
+        roleIds.forEach( roleId -> {
+            final var roleBits = permissionBitsByRole.get( roleId );
+            if ( Objects.nonNull( roleBits ) ) {
+                bits.or( roleBits );
+            }
+        } );
+        return bits;
+    }
+
+    /**
+     * @return whether {@code permissionBits}, from {@link #permissionBitsFor(Collection)} on this
+     * snapshot, includes {@code permission}. A permission that no role grants is never included.
+     */
+    public boolean grants( final BitSet permissionBits, final String permission ) {
+        final var id = Objects.isNull( permission ) ? null : permissionIds.get( permission );
+        return Objects.nonNull( id ) && permissionBits.get( id );
+    }
+
+}
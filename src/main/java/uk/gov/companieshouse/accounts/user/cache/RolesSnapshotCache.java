@@ -0,0 +1,70 @@
+package uk.gov.companieshouse.accounts.user.cache;
+
+import static uk.gov.companieshouse.accounts.user.cache.CollectionChangedEvent.ROLES_COLLECTION;
+import static uk.gov.companieshouse.accounts.user.util.StaticPropertyUtil.APPLICATION_NAMESPACE;
+
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.accounts.user.repositories.RolesRepository;
+import uk.gov.companieshouse.logging.Logger;
+import uk.gov.companieshouse.logging.LoggerFactory;
+
+/**
+ * Holds the current {@link RolesSnapshot}. The roles collection is tiny and read-mostly, so it is
+ * loaded in one query on first use and then swapped for a new snapshot whenever roles are written
+ * through this service, a change notification arrives for the roles collection, or the scheduled
+ * refresh runs. A snapshot older than {@code cache.roles.max-age} is reloaded before it is read,
+ * which bounds staleness if change notifications are not being received.
+ */
+@Component
+public class RolesSnapshotCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger( APPLICATION_NAMESPACE );
+
+    private final SnapshotHolder<RolesSnapshot> snapshots;
+
+    public RolesSnapshotCache( final RolesRepository rolesRepository,
+                               @Value( "${cache.roles.max-age:PT10M}" ) final Duration maxAge ) {
+        this.snapshots = new SnapshotHolder<>( ( version, loadedAt ) -> new RolesSnapshot( version, loadedAt, rolesRepository.findAll() ),
+                RolesSnapshot::loadedAt, maxAge );
+    }
+
+    public RolesSnapshot current() {
+        return snapshots.current();
+    }
+
+    /**
+     * Loads the roles collection and publishes it as the current snapshot.
+     */
+    public RolesSnapshot refresh() {
+        return snapshots.refresh();
+    }
+
+    @Scheduled( initialDelayString = "${cache.roles.refresh-interval:PT5M}", fixedDelayString = "${cache.roles.refresh-interval:PT5M}" )
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch ( RuntimeException exception ) {
+            LOG.error( String.format( "Failed to refresh roles snapshot: %s", exception.getMessage() ) );
+        }
+    }
+
+    @EventListener
+    public void onCollectionChanged( final CollectionChangedEvent event ) {
+        if ( !event.isFor( ROLES_COLLECTION ) ) {
+            return;
+        }
+
+        try {
+            refresh();
+        } catch ( RuntimeException exception ) {
+            // Drop the stale snapshot so the next read loads the roles again.
+            snapshots.clear();
+            LOG.error( String.format( "Failed to refresh roles snapshot after a change to role %s: %s", event.documentId(), exception.getMessage() ) );
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+package uk.gov.companieshouse.accounts.user.cache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Holds the current snapshot of a small, read-mostly collection, for {@link RolesSnapshotCache} and
+ * {@link AdminPermissionsSnapshotCache}. Each load is given the next version, and a snapshot older
+ * than {@code maxAge} is reloaded before it is read.
+ */
+final class SnapshotHolder<T> {
+
+    /**
+     * Loads a snapshot carrying {@code version} and {@code loadedAt}.
+     */
+    @FunctionalInterface
+    interface Loader<T> {
+        T load( long version, Instant loadedAt );
+    }
+
+    private final Loader<T> loader;
+    private final Function<T, Instant> loadedAt;
+    private final Duration maxAge;
+
+    private final AtomicReference<T> snapshot = new AtomicReference<>();
+    private final AtomicLong versions = new AtomicLong();
+
+    SnapshotHolder( final Loader<T> loader, final Function<T, Instant> loadedAt, final Duration maxAge ) {
+        this.loader = loader;
+        this.loadedAt = loadedAt;
+        this.maxAge = maxAge;
+    }
+
+    T current() {
+        final var current = snapshot.get();
+        return isStale( current ) ? refreshIfStale() : current;
+    }
+
+    /**
+     * Loads a new snapshot and publishes it as the current one. Refreshes are serialised so that a
+     * slow load can never overwrite the snapshot of a later one.
+     */
+    synchronized T refresh() {
+        final var refreshed = loader.load( versions.incrementAndGet(), Instant.now() );
+        snapshot.set( refreshed );
+        return refreshed;
+    }
+
+    /**
+     * Drops the current snapshot, so that the next read loads a new one.
+     */
+    void clear() {
+        snapshot.set( null );
+    }
+
+    /**
+     * Reloads the snapshot unless another reader already did so while this one waited for the
+     * lock, so that readers arriving together after max-age run one load between them.
+     */
+    private synchronized T refreshIfStale() {
+        final var current = snapshot.get();
+        return isStale( current ) ? refresh() : current;
+    }
+
+    private boolean isStale( final T current ) {
+        return Objects.isNull( current ) || Duration.between( loadedAt.apply( current ), Instant.now() ).compareTo( maxAge ) >= 0;
+    }
+
+}
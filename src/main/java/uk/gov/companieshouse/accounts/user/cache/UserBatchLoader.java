@@ -0,0 +1,207 @@
+package uk.gov.companieshouse.accounts.user.cache;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.accounts.user.models.Users;
+import uk.gov.companieshouse.accounts.user.repositories.UsersRepository;
+
+/**
+ * Merges single-user reads from concurrent requests into one {@code $in} query on _id. The first
+ * read opens a batch which is sent after {@code batch.users.window}, or as soon as it holds
+ * {@code batch.users.max-size} distinct users, and each caller then gets its own user back from
+ * the shared result. Under low load a read waits at most one window before its query is sent.
+ * Existence checks are batched separately and only read _id. Once the loader has been shut down,
+ * reads go straight to Mongo.
+ */
+@Component
+public class UserBatchLoader {
+
+    private final UsersRepository usersRepository;
+    private final boolean enabled;
+    private final Duration window;
+    private final int maxBatchSize;
+    private final DistributionSummary batchSizes;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name( "user-batch-loader" ).daemon( true ).factory() );
+
+    private final Object lock = new Object();
+    private final Batcher loads;
+    private final Batcher existenceChecks;
+    private boolean shutDown;
+
+    public UserBatchLoader( final UsersRepository usersRepository,
+                            final MeterRegistry meterRegistry,
+                            @Value( "${batch.users.enabled:true}" ) final boolean enabled,
+                            @Value( "${batch.users.window:2ms}" ) final Duration window,
+                            @Value( "${batch.users.max-size:100}" ) final int maxBatchSize ) {
+        this.usersRepository = usersRepository;
+        this.enabled = enabled;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.batchSizes = DistributionSummary.builder( "users.batch.size" )
+                .description( "Number of single-user reads merged into each batched query" )
+                .publishPercentileHistogram()
+                .minimumExpectedValue( 1.0 )
+                .maximumExpectedValue( (double) maxBatchSize )
+                .register( meterRegistry );
+        this.loads = new Batcher( usersRepository::findAllById );
+        this.existenceChecks = new Batcher( userIds -> usersRepository.findUsersWithFields( where( "id" ).in( userIds ), List.of( "_id" ), 0 ) );
+    }
+
+    public Optional<Users> load( final String userId ) {
+        if ( Objects.isNull( userId ) ) {
+            return Optional.empty();
+        }
+
+        final var result = enabled ? loads.submit( userId ) : null;
+        return Objects.nonNull( result ) ? await( result ) : usersRepository.findUsersById( userId );
+    }
+
+    public boolean exists( final String userId ) {
+        if ( Objects.isNull( userId ) ) {
+            return false;
+        }
+
+        final var result = enabled ? existenceChecks.submit( userId ) : null;
+        return Objects.nonNull( result ) ? await( result ).isPresent() : usersRepository.existsById( userId );
+    }
+
+    private static Optional<Users> await( final CompletableFuture<Optional<Users>> result ) {
+        try {
+            return result.join();
+        } catch ( CompletionException exception ) {
+            if ( exception.getCause() instanceof RuntimeException cause ) {
+                throw cause;
+            }
+            if ( exception.getCause() instanceof Error cause ) {
+                throw cause;
+            }
+            throw exception;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        final Batch unsentLoads;
+        final Batch unsentExistenceChecks;
+        synchronized ( lock ) {
+            shutDown = true;
+            unsentLoads = loads.drain();
+            unsentExistenceChecks = existenceChecks.drain();
+        }
+        scheduler.shutdownNow();
+
+        // Their scheduled flushes have just been cancelled, so the reads still waiting are sent now.
+        loads.dispatch( unsentLoads );
+        existenceChecks.dispatch( unsentExistenceChecks );
+    }
+
+    /**
+     * The reads waiting to be sent in one query. Reads of the same user share one result, so the
+     * batch fills up by distinct user ids, while {@code reads} counts every read merged into it.
+     */
+    private static final class Batch {
+        private final Map<String, CompletableFuture<Optional<Users>>> results = new LinkedHashMap<>();
+        private int reads;
+    }
+
+    /**
+     * Batches one kind of read, sending each batch with {@code query}.
+     */
+    private final class Batcher {
+
+        private final Function<Set<String>, List<Users>> query;
+        private Batch pending = new Batch();
+
+        private Batcher( final Function<Set<String>, List<Users>> query ) {
+            this.query = query;
+        }
+
+        /**
+         * @return the result of the read, or null if the loader has been shut down and the read
+         * has to be made directly.
+         */
+        private CompletableFuture<Optional<Users>> submit( final String userId ) {
+            final CompletableFuture<Optional<Users>> result;
+            Batch fullBatch = null;
+            synchronized ( lock ) {
+                if ( shutDown ) {
+                    return null;
+                }
+
+                final var batch = pending;
+                if ( batch.results.isEmpty() ) {
+                    scheduler.schedule( () -> flush( batch ), window.toNanos(), TimeUnit.NANOSECONDS );
+                }
+                batch.reads++;
+                result = batch.results.computeIfAbsent( userId, id -> new CompletableFuture<>() );
+                if ( batch.results.size() >= maxBatchSize ) {
+                    fullBatch = batch;
+                    pending = new Batch();
+                }
+            }
+
+            if ( Objects.nonNull( fullBatch ) ) {
+                dispatch( fullBatch );
+            }
+            return result;
+        }
+
+        private void flush( final Batch batch ) {
+            synchronized ( lock ) {
+                // The batch may already have been sent because it filled up before the window closed.
+                if ( pending != batch ) {
+                    return;
+                }
+                pending = new Batch();
+            }
+            Thread.ofVirtual().name( "user-batch-loader-dispatch" ).start( () -> dispatch( batch ) );
+        }
+
+        /**
+         * Takes the batch that is still open, if any. Must be called holding the lock.
+         */
+        private Batch drain() {
+            final var batch = pending;
+            pending = new Batch();
+            return batch;
+        }
+
+        private void dispatch( final Batch batch ) {
+            if ( batch.results.isEmpty() ) {
+                return;
+            }
+
+            batchSizes.record( batch.reads );
+            try {
+                final Map<String, Users> usersById = query.apply( batch.results.keySet() )
+                        .stream()
+                        .collect( Collectors.toMap( Users::getId, Function.identity(), ( first, second ) -> first ) );
+                batch.results.forEach( ( userId, result ) -> result.complete( Optional.ofNullable( usersById.get( userId ) ) ) );
+            } catch ( RuntimeException | Error exception ) {
+                batch.results.values().forEach( result -> result.completeExceptionally( exception ) );
+            }
+        }
+    }
+
+}
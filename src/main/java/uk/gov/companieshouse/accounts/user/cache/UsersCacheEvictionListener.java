@@ -0,0 +1,42 @@
+package uk.gov.companieshouse.accounts.user.cache;
+
+import static uk.gov.companieshouse.accounts.user.cache.CollectionChangedEvent.USERS_COLLECTION;
+import static uk.gov.companieshouse.accounts.user.configuration.CacheConfig.USERS_CACHE;
+import static uk.gov.companieshouse.accounts.user.configuration.CacheConfig.USER_PERMISSIONS_CACHE;
+
+import java.util.List;
+import java.util.Objects;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UsersCacheEvictionListener {
+
+    private final CacheManager cacheManager;
+
+    public UsersCacheEvictionListener( final CacheManager cacheManager ) {
+        this.cacheManager = cacheManager;
+    }
+
+    @EventListener
+    public void onCollectionChanged( final CollectionChangedEvent event ){
+        if ( !event.isFor( USERS_COLLECTION ) ){
+            return;
+        }
+
+        for ( final String cacheName: List.of( USERS_CACHE, USER_PERMISSIONS_CACHE ) ){
+            final var cache = cacheManager.getCache( cacheName );
+            if ( Objects.isNull( cache ) ){
+                continue;
+            }
+
+            if ( event.invalidatesEverything() ){
+                cache.clear();
+            } else {
+                cache.evict( event.documentId() );
+            }
+        }
+    }
+
+}
@@ -0,0 +1,42 @@
+package uk.gov.companieshouse.accounts.user.configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String USERS_CACHE = "users";
+    public static final String USER_PERMISSIONS_CACHE = "user_permissions";
+
+    /**
+     * Caffeine caches are bounded with W-TinyLFU admission, so rarely requested users
+     * cannot push the hot working set out. Stats are recorded so that hit, miss and
+     * eviction counts are published under the actuator cache metrics. The permissions resolved
+     * for each user are cached alongside the users, with the same bounds.
+     */
+    @Bean
+    public CacheManager cacheManager( @Value( "${cache.users.maximum-size:10000}" ) final long usersMaximumSize,
+                                      @Value( "${cache.users.expire-after-write:60s}" ) final Duration usersExpireAfterWrite ) {
+        final var cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache( USERS_CACHE, Caffeine.newBuilder()
+                .maximumSize( usersMaximumSize )
+                .expireAfterWrite( usersExpireAfterWrite )
+                .recordStats()
+                .build() );
+        cacheManager.registerCustomCache( USER_PERMISSIONS_CACHE, Caffeine.newBuilder()
+                .maximumSize( usersMaximumSize )
+                .expireAfterWrite( usersExpireAfterWrite )
+                .recordStats()
+                .build() );
+        return cacheManager;
+    }
+
+}
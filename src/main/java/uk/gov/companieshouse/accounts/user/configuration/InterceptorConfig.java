@@ -9,6 +9,7 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import static uk.gov.companieshouse.accounts.user.util.StaticPropertyUtil.APPLICATION_NAMESPACE;
 
 import uk.gov.companieshouse.accounts.user.interceptor.AdminUserRolePermissionInterceptor;
+import uk.gov.companieshouse.accounts.user.interceptor.ConditionalGetInterceptor;
 import uk.gov.companieshouse.accounts.user.interceptor.EricAuthorisedKeyPrivilegesInterceptor;
 import uk.gov.companieshouse.accounts.user.interceptor.LoggingInterceptor;
 import uk.gov.companieshouse.api.interceptor.RolePermissionInterceptor;
@@ -20,19 +21,27 @@ public class InterceptorConfig implements WebMvcConfigurer {
 
     private final LoggingInterceptor loggingInterceptor;
     private final TokenPermissionsInterceptor tokenPermissionsInterceptor;
+    private final ConditionalGetInterceptor conditionalGetInterceptor;
     public static final String USER_PROFILE = "/user/profile";
 
     private static final String USERS_ENDPOINTS = "/users/**";
+    private static final String USER_RECORD_ENDPOINT = "/users/*";
+    private static final String USER_ROLES_ENDPOINT = "/users/*/roles";
+    private static final String USERS_SEARCH_ENDPOINT = "/users/search";
+    private static final String USERS_CHANGES_ENDPOINT = "/users/changes";
     private static final String INTERNAL_USERS_ENDPOINTS = "/internal/users/**";
+    private static final String INTERNAL_USERS_EXPORT_ENDPOINT = "/internal/users/export";
     private static final String ADMIN_ROLE_ENDPOINTS = "/internal/admin/roles/**";
     private static final String ADMIN_PERMISSION_ENDPOINTS = "/internal/admin/permissions/**";
     private static final String INTERNAL_ADMIN_USERS_ENDPOINTS = "/internal/admin/users/**";
     private static final String ADMIN_USER_SEARCH_PERMISSION = "/admin/user/search";
+    private static final String ADMIN_USER_EXPORT_PERMISSION = "/admin/user/export";
 
     private static final String WILDCARD = "/**";
-    public InterceptorConfig( final LoggingInterceptor loggingInterceptor, final TokenPermissionsInterceptor tokenPermissionsInterceptor) {
+    public InterceptorConfig( final LoggingInterceptor loggingInterceptor, final TokenPermissionsInterceptor tokenPermissionsInterceptor, final ConditionalGetInterceptor conditionalGetInterceptor) {
         this.loggingInterceptor = loggingInterceptor;
         this.tokenPermissionsInterceptor = tokenPermissionsInterceptor;
+        this.conditionalGetInterceptor = conditionalGetInterceptor;
     }
 
     /**
@@ -45,11 +54,14 @@ public class InterceptorConfig implements WebMvcConfigurer {
     public void addInterceptors(@NonNull final InterceptorRegistry registry) {
         addLoggingInterceptor(registry);
         addEricInterceptors(registry);
-        addRolePermissionInterceptor(registry, INTERNAL_USERS_ENDPOINTS, ADMIN_USER_SEARCH_PERMISSION);
+        addRolePermissionInterceptor(registry, INTERNAL_USERS_ENDPOINTS, ADMIN_USER_SEARCH_PERMISSION, INTERNAL_USERS_EXPORT_ENDPOINT);
+        // Exporting every user is gated separately from searching for users
+        addRolePermissionInterceptor(registry, INTERNAL_USERS_EXPORT_ENDPOINT, ADMIN_USER_EXPORT_PERMISSION);
         // Add role permission interceptor for admin role management endpoints
         addRolePermissionInterceptor(registry, ADMIN_ROLE_ENDPOINTS, "/admin/roles");
         addRolePermissionInterceptor(registry, ADMIN_PERMISSION_ENDPOINTS, "/admin/permissions");
         addTokenPermissionsInterceptor(registry);
+        addConditionalGetInterceptor(registry);
     }
 
     /**
@@ -62,9 +74,10 @@ public class InterceptorConfig implements WebMvcConfigurer {
         .addPathPatterns(WILDCARD);
     }
 
-    private void addRolePermissionInterceptor(final InterceptorRegistry registry, final String path, final String permission){
+    private void addRolePermissionInterceptor(final InterceptorRegistry registry, final String path, final String permission, final String... excludedPaths){
         registry.addInterceptor(new RolePermissionInterceptor(APPLICATION_NAMESPACE, permission))
-        .addPathPatterns(path);
+        .addPathPatterns(path)
+        .excludePathPatterns(excludedPaths);
     }
 
     private void addEricInterceptors( final InterceptorRegistry registry){
@@ -79,4 +92,16 @@ public class InterceptorConfig implements WebMvcConfigurer {
     private void addTokenPermissionsInterceptor(InterceptorRegistry registry) {
         registry.addInterceptor(tokenPermissionsInterceptor).addPathPatterns(USER_PROFILE);
     }
+
+    /**
+     * Interceptor that answers conditional GET requests for a user record with a 304 when the
+     * caller already has the current version. It runs last so that the caller is authorised first.
+     *
+     * @param registry The spring interceptor registry
+     */
+    private void addConditionalGetInterceptor(InterceptorRegistry registry) {
+        registry.addInterceptor(conditionalGetInterceptor)
+        .addPathPatterns(USER_RECORD_ENDPOINT, USER_ROLES_ENDPOINT)
+        .excludePathPatterns(USERS_SEARCH_ENDPOINT, USERS_CHANGES_ENDPOINT);
+    }
 }
@@ -2,8 +2,12 @@ package uk.gov.companieshouse.accounts.user.controller;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Pattern;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import uk.gov.companieshouse.accounts.user.exceptions.BadRequestRuntimeException;
 import uk.gov.companieshouse.accounts.user.service.AdminPermissionsService;
@@ -13,8 +17,11 @@ import uk.gov.companieshouse.api.accounts.user.model.AdminPermissionsGroups;
 import uk.gov.companieshouse.api.accounts.user.model.PermissionsList;
 import uk.gov.companieshouse.logging.Logger;
 import uk.gov.companieshouse.logging.LoggerFactory;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
+import static uk.gov.companieshouse.accounts.user.controller.ControllerAdvice.X_REQUEST_ID;
 import static uk.gov.companieshouse.accounts.user.util.StaticPropertyUtil.APPLICATION_NAMESPACE;
 
 
@@ -27,6 +34,9 @@ public class AdminPermissionsController implements AdminPermissionsInterface {
 
     public static final String PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN = "Please check the request and try again";
 
+    @Value( "${database.bulk-limit:100}" )
+    private int bulkLimit;
+
     public AdminPermissionsController(AdminPermissionsService adminPermissionsService) {
         this.adminPermissionsService = adminPermissionsService;
     }
@@ -52,7 +62,26 @@ public class AdminPermissionsController implements AdminPermissionsInterface {
         }
     }
 
-@Override
+    @GetMapping( "/internal/admin/permissions/resolve" )
+    public ResponseEntity<Set<String>> resolveAdminPermissions(
+            @RequestParam( value = "entra_group_id", required = false ) final List<String> entraGroupIds,
+            @RequestHeader( value = X_REQUEST_ID, required = false ) final String xRequestId ) {
+
+        if ( Objects.isNull( entraGroupIds ) || entraGroupIds.isEmpty() || entraGroupIds.size() > bulkLimit || entraGroupIds.stream().anyMatch( entraGroupId -> Objects.isNull( entraGroupId ) || entraGroupId.isBlank() ) ){
+            LOG.error( String.format( "%s: Between 1 and %d Entra group ids, none of them blank, must be provided.", xRequestId, bulkLimit ) );
+            throw new BadRequestRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN );
+        }
+
+        LOG.debug( String.format( "%s: Resolving the admin permissions of Entra groups %s ...", xRequestId, entraGroupIds ) );
+
+        final var permissions = adminPermissionsService.resolvePermissions( entraGroupIds );
+
+        LOG.debug( String.format( "%s: Successfully resolved %d admin permissions for %d Entra groups", xRequestId, permissions.size(), entraGroupIds.size() ) );
+
+        return new ResponseEntity<>( permissions, HttpStatus.OK );
+    }
+
+    @Override
     public ResponseEntity<AdminPermissionsGroup> addAdminPermission(@Valid AdminPermissionsGroup adminPermissionsGroup, @Pattern(regexp = "[0-9A-Za-z-_]{8,32}") final String xRequestId) {
 
         LOG.info(String.format("%s: Attempting to add the new role '%s'", xRequestId, adminPermissionsGroup.getEntraGroupId()));
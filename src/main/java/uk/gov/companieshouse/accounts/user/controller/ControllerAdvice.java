@@ -17,6 +17,7 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 import uk.gov.companieshouse.accounts.user.exceptions.BadRequestRuntimeException;
 import uk.gov.companieshouse.accounts.user.exceptions.InternalServerErrorRuntimeException;
 import uk.gov.companieshouse.accounts.user.exceptions.NotFoundRuntimeException;
+import uk.gov.companieshouse.accounts.user.exceptions.TooManyRequestsRuntimeException;
 import uk.gov.companieshouse.logging.Logger;
 import uk.gov.companieshouse.logging.LoggerFactory;
 import uk.gov.companieshouse.service.rest.err.Err;
@@ -93,6 +94,23 @@ public class ControllerAdvice extends ResponseEntityExceptionHandler {
         return errors;
     }
 
+    @ExceptionHandler(TooManyRequestsRuntimeException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    @ResponseBody
+    public Errors onTooManyRequestsRuntimeException(TooManyRequestsRuntimeException e, HttpServletRequest request) {
+        String requestId = request.getHeader(X_REQUEST_ID);
+
+        Map<String, Object> contextMap = new HashMap<>();
+        contextMap.put("url", request.getRequestURL().toString());
+        contextMap.put(QUERY_PARAMETERS, request.getQueryString() != null ? "?" + request.getQueryString() : "");
+
+        LOG.errorContext(requestId, e.getMessage(), null, contextMap);
+
+        Errors errors = new Errors();
+        errors.addError(Err.invalidBodyBuilderWithLocation(ACCOUNTS_USER_API).withError(e.getMessage()).build());
+        return errors;
+    }
+
     @ExceptionHandler(ConstraintViolationException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ResponseBody
@@ -0,0 +1,140 @@
+package uk.gov.companieshouse.accounts.user.controller;
+
+import static uk.gov.companieshouse.accounts.user.controller.ControllerAdvice.X_REQUEST_ID;
+import static uk.gov.companieshouse.accounts.user.util.StaticPropertyUtil.APPLICATION_NAMESPACE;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import uk.gov.companieshouse.accounts.user.dto.UsersExportFilter;
+import uk.gov.companieshouse.accounts.user.exceptions.BadRequestRuntimeException;
+import uk.gov.companieshouse.accounts.user.exceptions.TooManyRequestsRuntimeException;
+import uk.gov.companieshouse.accounts.user.service.UsersExportService;
+import uk.gov.companieshouse.accounts.user.util.NdjsonWriter;
+import uk.gov.companieshouse.logging.Logger;
+import uk.gov.companieshouse.logging.LoggerFactory;
+
+@RestController
+public class ExportUsersController {
+
+    private static final Logger LOG = LoggerFactory.getLogger( APPLICATION_NAMESPACE );
+
+    private static final String GZIP = "gzip";
+
+    private final UsersExportService usersExportService;
+    private final ObjectWriter objectWriter;
+    private final Semaphore runningExports;
+    private final ThreadPoolTaskExecutor exportExecutor;
+
+    @Value( "${export.users.batch-size:500}" )
+    private int batchSize;
+
+    @Value( "${export.users.timeout:PT6H}" )
+    private Duration timeout;
+
+    public ExportUsersController( final UsersExportService usersExportService, final ObjectMapper objectMapper,
+                                  @Value( "${export.users.max-concurrent:2}" ) final int maxConcurrentExports ) {
+        this.usersExportService = usersExportService;
+        this.objectWriter = objectMapper.writer();
+        this.runningExports = new Semaphore( maxConcurrentExports );
+
+        // A worker can outlive its export's permit for a moment after a timeout, so the queue leaves room for that.
+        this.exportExecutor = new ThreadPoolTaskExecutor();
+        exportExecutor.setCorePoolSize( maxConcurrentExports );
+        exportExecutor.setMaxPoolSize( maxConcurrentExports );
+        exportExecutor.setQueueCapacity( maxConcurrentExports );
+        exportExecutor.setThreadNamePrefix( "users-export-" );
+        exportExecutor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        exportExecutor.shutdown();
+    }
+
+    /**
+     * Streams the export from an async task with its own timeout, on a small pool of its own.
+     * Exports are paced by the rate limit, so a large one runs for far longer than the container's
+     * default async request timeout, and would otherwise hold one of the threads shared by every
+     * other async endpoint. Once {@code export.users.max-concurrent} exports are running, further
+     * exports are turned away with a 429.
+     */
+    @GetMapping( value = "/internal/users/export", produces = MediaType.APPLICATION_NDJSON_VALUE )
+    public WebAsyncTask<Void> exportUsers(
+            @RequestHeader( value = X_REQUEST_ID, required = false ) final String xRequestId,
+            @RequestHeader( value = HttpHeaders.ACCEPT_ENCODING, required = false ) final String acceptEncoding,
+            @RequestParam( value = "role", required = false ) final String role,
+            @RequestParam( value = "created_from", required = false ) final String createdFrom,
+            @RequestParam( value = "created_to", required = false ) final String createdTo,
+            @RequestParam( value = "private_beta_user", required = false ) final Boolean privateBetaUser,
+            @RequestParam( value = "after", required = false ) final String after,
+            final HttpServletResponse response ) {
+
+        final var filter = new UsersExportFilter( role, parseDateTime( xRequestId, createdFrom ), parseDateTime( xRequestId, createdTo ), privateBetaUser, after );
+        final var gzip = Objects.nonNull( acceptEncoding ) && acceptEncoding.toLowerCase( Locale.ROOT ).contains( GZIP );
+
+        LOG.debug( String.format( "%s: Attempting to export users matching %s%s", xRequestId, filter, gzip ? " with gzip" : "" ) );
+
+        if ( !runningExports.tryAcquire() ) {
+            LOG.error( String.format( "%s: Too many exports are already running", xRequestId ) );
+            throw new TooManyRequestsRuntimeException( "Too many exports are running, please try again later" );
+        }
+        final var released = new AtomicBoolean();
+        final Runnable release = () -> {
+            if ( released.compareAndSet( false, true ) ) {
+                runningExports.release();
+            }
+        };
+
+        final var body = NdjsonWriter.body( objectWriter, batchSize, gzip, writer -> usersExportService.exportUsers( filter, writer::accept ) );
+
+        response.setStatus( HttpServletResponse.SC_OK );
+        response.setContentType( MediaType.APPLICATION_NDJSON_VALUE );
+        response.setHeader( HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING );
+        if ( gzip ) {
+            response.setHeader( HttpHeaders.CONTENT_ENCODING, GZIP );
+        }
+        final var task = new WebAsyncTask<Void>( timeout.toMillis(), exportExecutor, () -> {
+            try {
+                body.writeTo( response.getOutputStream() );
+                return null;
+            } finally {
+                release.run();
+            }
+        } );
+        // Also covers an export that timed out or failed before its worker started.
+        task.onCompletion( release );
+        return task;
+    }
+
+    private static LocalDateTime parseDateTime( final String xRequestId, final String dateTime ) {
+        if ( Objects.isNull( dateTime ) ) {
+            return null;
+        }
+
+        try {
+            return LocalDateTime.parse( dateTime );
+        } catch ( DateTimeParseException exception ) {
+            LOG.error( String.format( "%s: %s is not an ISO-8601 date-time.", xRequestId, dateTime ) );
+            throw new BadRequestRuntimeException( "Please check the request and try again" );
+        }
+    }
+
+}
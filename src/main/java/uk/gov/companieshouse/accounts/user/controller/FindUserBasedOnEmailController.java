@@ -1,18 +1,30 @@
 package uk.gov.companieshouse.accounts.user.controller;
 
+import static uk.gov.companieshouse.accounts.user.controller.ControllerAdvice.X_REQUEST_ID;
 import static uk.gov.companieshouse.accounts.user.util.StaticPropertyUtil.APPLICATION_NAMESPACE;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import uk.gov.companieshouse.accounts.user.exceptions.BadRequestRuntimeException;
 import uk.gov.companieshouse.accounts.user.service.UsersService;
+import uk.gov.companieshouse.accounts.user.util.NdjsonWriter;
+import uk.gov.companieshouse.accounts.user.util.UserFields;
 import uk.gov.companieshouse.api.accounts.user.api.FindUserBasedOnEmailInterface;
 import uk.gov.companieshouse.api.accounts.user.model.UsersList;
 import uk.gov.companieshouse.logging.Logger;
 import uk.gov.companieshouse.logging.LoggerFactory;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 @RestController
@@ -22,35 +34,87 @@ public class FindUserBasedOnEmailController implements FindUserBasedOnEmailInter
 
     private static final Logger LOG = LoggerFactory.getLogger(APPLICATION_NAMESPACE);
 
-    public FindUserBasedOnEmailController(UsersService usersService) {
+    @Value("${database.email-limit:5000}")
+    private int emailLimit;
+
+    @Value("${database.stream-batch-size:100}")
+    private int streamBatchSize;
+
+    private final ObjectWriter objectWriter;
+
+    public FindUserBasedOnEmailController(UsersService usersService, ObjectMapper objectMapper) {
         this.usersService = usersService;
+        this.objectWriter = objectMapper.writer();
     }
 
     @Override
     public ResponseEntity<UsersList> searchUserDetails( final String xRequestId, final List<String> emails ) {
 
+        validateEmails( xRequestId, emails );
+
+        LOG.debug( String.format( "%s: Attempting to search for the details of %d users", xRequestId, emails.size() ) );
+
+        final var users = new UsersList();
+        users.addAll( usersService.fetchUsers( emails ) );
+
+        if ( users.isEmpty() ) {
+            LOG.debug( String.format( "%s: Unable to find any of the %d users", xRequestId, emails.size() ) );
+            return new ResponseEntity<>( users, HttpStatus.NO_CONTENT);
+        }
+
+        LOG.debug( String.format( "%s: Successfully fetched %d users for %d emails", xRequestId, users.size(), emails.size() ) );
+
+        return new ResponseEntity<>( users, HttpStatus.OK );
+    }
+
+    private void validateEmails( final String xRequestId, final List<String> emails ) {
         if(Objects.isNull(emails) || emails.isEmpty()){
             LOG.error(String.format("%s: No emails were provided.", xRequestId));
             throw new BadRequestRuntimeException("Please check the request and try again");
         }
 
-        LOG.debug( String.format( "%s: Attempting to search for the details of these users: %s",
-                xRequestId, String.join(", ", emails) ) );
+        if ( emails.size() > emailLimit ) {
+            LOG.error( String.format( "%s: %d emails were provided, which is more than the limit of %d.", xRequestId, emails.size(), emailLimit ) );
+            throw new BadRequestRuntimeException( String.format( "No more than %d emails can be searched for at once", emailLimit ) );
+        }
+    }
 
-        final var users = new UsersList();
-        users.addAll( usersService.fetchUsers( emails ) );
+    @GetMapping(value = "/users/search", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> searchUserDetailsFields(
+            @RequestHeader(value = X_REQUEST_ID, required = false) final String xRequestId,
+            @RequestParam(value = "user_email", required = false) final List<String> emails,
+            @RequestParam("fields") final String fields) {
+
+        validateEmails( xRequestId, emails );
+
+        final var userFields = UserFields.parse(fields);
+
+        LOG.debug( String.format( "%s: Attempting to search for the %s of %d users", xRequestId, fields, emails.size() ) );
+
+        final var users = usersService.fetchUsersFields( emails, userFields );
 
         if ( users.isEmpty() ) {
-            LOG.debug( String.format( "%s: Unable to find any of these users: %s",
-                    xRequestId, String.join(", ", emails) ) );
+            LOG.debug( String.format( "%s: Unable to find any of the %d users", xRequestId, emails.size() ) );
             return new ResponseEntity<>( users, HttpStatus.NO_CONTENT);
         }
 
-        LOG.debug( String.format( "%s: Successfully fetched users: %s",
-                xRequestId, String.join(", ", emails) ) );
-
+        LOG.debug( String.format( "%s: Successfully fetched the %s of %d users for %d emails", xRequestId, fields, users.size(), emails.size() ) );
 
         return new ResponseEntity<>( users, HttpStatus.OK );
     }
 
+    @GetMapping(value = "/users/search/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUserDetails(
+            @RequestHeader(value = X_REQUEST_ID, required = false) final String xRequestId,
+            @RequestParam(value = "user_email", required = false) final List<String> emails) {
+
+        validateEmails( xRequestId, emails );
+
+        LOG.debug( String.format( "%s: Attempting to stream the details of %d users", xRequestId, emails.size() ) );
+
+        final var body = NdjsonWriter.body( objectWriter, streamBatchSize, writer -> usersService.streamUsers( emails, writer::accept ) );
+
+        return ResponseEntity.ok().contentType( MediaType.APPLICATION_NDJSON ).body( body );
+    }
+
 }
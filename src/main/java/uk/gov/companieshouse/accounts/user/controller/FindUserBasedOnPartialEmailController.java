@@ -1,16 +1,30 @@
 package uk.gov.companieshouse.accounts.user.controller;
 
+import static uk.gov.companieshouse.accounts.user.controller.ControllerAdvice.X_REQUEST_ID;
 import static uk.gov.companieshouse.accounts.user.util.StaticPropertyUtil.APPLICATION_NAMESPACE;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import uk.gov.companieshouse.accounts.user.dto.UsersPage;
 import uk.gov.companieshouse.accounts.user.exceptions.BadRequestRuntimeException;
 import uk.gov.companieshouse.accounts.user.service.UsersService;
+import uk.gov.companieshouse.accounts.user.util.NdjsonWriter;
+import uk.gov.companieshouse.accounts.user.util.UserFields;
 import uk.gov.companieshouse.api.accounts.user.api.FindUsersBasedOnAPartialEmailInterface;
 import uk.gov.companieshouse.api.accounts.user.model.User;
 import uk.gov.companieshouse.api.accounts.user.model.UsersList;
@@ -24,8 +38,20 @@ public class FindUserBasedOnPartialEmailController implements FindUsersBasedOnAP
 
     private static final Logger LOG = LoggerFactory.getLogger(APPLICATION_NAMESPACE);
 
-    public FindUserBasedOnPartialEmailController(UsersService usersService) {
+    @Value("${database.limit:50}")
+    private int defaultPageSize;
+
+    @Value("${database.max-page-size:500}")
+    private int maxPageSize;
+
+    @Value("${database.stream-batch-size:100}")
+    private int streamBatchSize;
+
+    private final ObjectWriter objectWriter;
+
+    public FindUserBasedOnPartialEmailController(UsersService usersService, ObjectMapper objectMapper) {
         this.usersService = usersService;
+        this.objectWriter = objectMapper.writer();
     }
 
     @Override
@@ -59,4 +85,78 @@ public class FindUserBasedOnPartialEmailController implements FindUsersBasedOnAP
 
         return response;
     }
+
+    @GetMapping(value = "/internal/users/search", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> searchUsersDetailsFieldsUsingPartialEmail(
+            @RequestHeader(value = X_REQUEST_ID, required = false) final String xRequestId,
+            @RequestParam(value = "partial_email", required = false) final String partialEmail,
+            @RequestParam("fields") final String fields) {
+
+        if (Objects.isNull(partialEmail) || partialEmail.isEmpty()) {
+            LOG.error(String.format("%s: No partial email was provided.", xRequestId));
+            throw new BadRequestRuntimeException("Please check the request and try again");
+        }
+
+        final var userFields = UserFields.parse(fields);
+
+        LOG.debug(String.format("%s: Attempting to search for the %s of users with an email address containing: %s", xRequestId, fields, partialEmail));
+
+        final var users = usersService.fetchUsersFieldsUsingPartialEmail(partialEmail, userFields);
+
+        if (users.isEmpty()) {
+            LOG.debug(String.format("%s: Unable to find any of these users containing: %s", xRequestId, partialEmail));
+            return new ResponseEntity<>(users, HttpStatus.NO_CONTENT);
+        }
+
+        LOG.debug(String.format("%s: Successfully fetched the %s of %d users containing: %s", xRequestId, fields, users.size(), partialEmail));
+        return new ResponseEntity<>(users, HttpStatus.OK);
+    }
+
+    @GetMapping("/internal/users/search/page")
+    public ResponseEntity<UsersPage> searchUsersDetailsPageUsingPartialEmail(
+            @RequestHeader(value = X_REQUEST_ID, required = false) final String xRequestId,
+            @RequestParam(value = "partial_email", required = false) final String partialEmail,
+            @RequestParam(value = "page_size", required = false) final Integer pageSize,
+            @RequestParam(value = "cursor", required = false) final String cursor) {
+
+        if (Objects.isNull(partialEmail) || partialEmail.isEmpty()) {
+            LOG.error(String.format("%s: No partial email was provided.", xRequestId));
+            throw new BadRequestRuntimeException("Please check the request and try again");
+        }
+
+        final var size = Objects.requireNonNullElse(pageSize, defaultPageSize);
+        if (size < 1 || size > maxPageSize) {
+            LOG.error(String.format("%s: Page size %d is outside of the range 1 to %d.", xRequestId, size, maxPageSize));
+            throw new BadRequestRuntimeException("Please check the request and try again");
+        }
+
+        LOG.debug(String.format("%s: Attempting to fetch a page of %d users with an email address containing: %s", xRequestId, size, partialEmail));
+
+        final var page = usersService.fetchUsersPageUsingPartialEmail(partialEmail, size, cursor);
+
+        if (page.items().isEmpty()) {
+            LOG.debug(String.format("%s: Unable to find any more users containing: %s", xRequestId, partialEmail));
+            return new ResponseEntity<>(page, HttpStatus.NO_CONTENT);
+        }
+
+        LOG.debug(String.format("%s: Successfully fetched a page of %d users containing: %s", xRequestId, page.items().size(), partialEmail));
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/internal/users/search/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsersDetailsUsingPartialEmail(
+            @RequestHeader(value = X_REQUEST_ID, required = false) final String xRequestId,
+            @RequestParam(value = "partial_email", required = false) final String partialEmail) {
+
+        if (Objects.isNull(partialEmail) || partialEmail.isEmpty()) {
+            LOG.error(String.format("%s: No partial email was provided.", xRequestId));
+            throw new BadRequestRuntimeException("Please check the request and try again");
+        }
+
+        LOG.debug(String.format("%s: Attempting to stream users with an email address containing: %s", xRequestId, partialEmail));
+
+        final var body = NdjsonWriter.body(objectWriter, streamBatchSize, writer -> usersService.streamUsersUsingPartialEmail(partialEmail, writer::accept));
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
 }
@@ -2,21 +2,34 @@ package uk.gov.companieshouse.accounts.user.controller;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import uk.gov.companieshouse.accounts.user.dto.UserChangesPage;
+import uk.gov.companieshouse.accounts.user.dto.UserLookup;
+import uk.gov.companieshouse.accounts.user.exceptions.BadRequestRuntimeException;
 import uk.gov.companieshouse.accounts.user.exceptions.InternalServerErrorRuntimeException;
 import uk.gov.companieshouse.accounts.user.service.UsersService;
+import uk.gov.companieshouse.accounts.user.util.UserFields;
 import uk.gov.companieshouse.api.accounts.user.api.GetUserRecordInterface;
 import uk.gov.companieshouse.api.accounts.user.model.User;
 import uk.gov.companieshouse.api.util.security.AuthorisationUtil;
 import uk.gov.companieshouse.logging.Logger;
 import uk.gov.companieshouse.logging.LoggerFactory;
 
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 import static uk.gov.companieshouse.accounts.user.controller.ControllerAdvice.X_REQUEST_ID;
 import static uk.gov.companieshouse.accounts.user.util.StaticPropertyUtil.APPLICATION_NAMESPACE;
@@ -41,6 +54,15 @@ public class GetUserRecordController implements GetUserRecordInterface {
     private static final String ACCOUNT_TYPE = "account_type";
     private static final String ERROR = "error";
 
+    @Value("${database.bulk-limit:100}")
+    private int bulkLimit;
+
+    @Value("${database.limit:50}")
+    private int defaultPageSize;
+
+    @Value("${database.max-page-size:500}")
+    private int maxPageSize;
+
     public GetUserRecordController(UsersService usersService) {
         this.usersService = usersService;
     }
@@ -50,7 +72,7 @@ public class GetUserRecordController implements GetUserRecordInterface {
 
         LOG.debug( String.format( "%s: Attempting to search for the details of user: %s", xRequestId, userId ) );
 
-        final var userOptional = usersService.fetchUser( userId );
+        final var userOptional = usersService.fetchVersionedUser( userId );
 
         if ( userOptional.isEmpty() ){
             LOG.debug( String.format( "%s: Could not find user: %s", xRequestId, userId ) );
@@ -61,7 +83,96 @@ public class GetUserRecordController implements GetUserRecordInterface {
 
         LOG.debug( String.format( "%s: Successfully fetched user: %s", xRequestId, userId ) );
 
-        return new ResponseEntity<>( user, HttpStatus.OK );
+        return user.ok( user.user() );
+    }
+
+    @GetMapping(value = "/users/{user_id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getUserDetailsFields(
+            @PathVariable("user_id") final String userId,
+            @RequestParam("fields") final String fields,
+            @RequestHeader(value = X_REQUEST_ID, required = false) final String xRequestId) {
+
+        final var userFields = UserFields.parse(fields);
+
+        LOG.debug(String.format("%s: Attempting to search for the %s of user: %s", xRequestId, fields, userId));
+
+        final var userOptional = usersService.fetchUserFields(userId, userFields);
+
+        if (userOptional.isEmpty()) {
+            LOG.debug(String.format("%s: Could not find user: %s", xRequestId, userId));
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+
+        LOG.debug(String.format("%s: Successfully fetched the %s of user: %s", xRequestId, fields, userId));
+
+        return new ResponseEntity<>(userOptional.get(), HttpStatus.OK);
+    }
+
+    @GetMapping("/internal/users/bulk")
+    public ResponseEntity<List<UserLookup>> getUsersDetails(
+            @RequestHeader(value = X_REQUEST_ID, required = false) final String xRequestId,
+            @RequestParam(value = "user_id", required = false) final List<String> userIds) {
+
+        if (Objects.isNull(userIds) || userIds.isEmpty() || userIds.stream().anyMatch(userId -> Objects.isNull(userId) || userId.isBlank())) {
+            LOG.error(String.format("%s: No user ids, or a blank user id, were provided.", xRequestId));
+            throw new BadRequestRuntimeException("Please check the request and try again");
+        }
+
+        if (userIds.size() > bulkLimit) {
+            LOG.error(String.format("%s: %d user ids were provided, which is more than the limit of %d.", xRequestId, userIds.size(), bulkLimit));
+            throw new BadRequestRuntimeException("Please check the request and try again");
+        }
+
+        LOG.debug(String.format("%s: Attempting to search for the details of %d users", xRequestId, userIds.size()));
+
+        final var users = usersService.fetchUsersById(userIds);
+
+        LOG.debug(String.format("%s: Successfully fetched %d of %d users", xRequestId, users.stream().filter(UserLookup::found).count(), userIds.size()));
+
+        return new ResponseEntity<>(users, HttpStatus.OK);
+    }
+
+    @GetMapping("/users/changes")
+    public ResponseEntity<UserChangesPage> getUserChanges(
+            @RequestHeader(value = X_REQUEST_ID, required = false) final String xRequestId,
+            @RequestParam(value = "since", required = false) final String since,
+            @RequestParam(value = "page_size", required = false) final Integer pageSize,
+            @RequestParam(value = "cursor", required = false) final String cursor) {
+
+        final var size = Objects.requireNonNullElse(pageSize, defaultPageSize);
+        if (size < 1 || size > maxPageSize) {
+            LOG.error(String.format("%s: Page size %d is outside of the range 1 to %d.", xRequestId, size, maxPageSize));
+            throw new BadRequestRuntimeException("Please check the request and try again");
+        }
+
+        LOG.debug(String.format("%s: Attempting to fetch a page of %d users changed since %s", xRequestId, size, Objects.isNull(cursor) ? since : "the cursor"));
+
+        final var page = usersService.fetchUserChanges(parseSince(xRequestId, since), size, cursor);
+
+        LOG.debug(String.format("%s: Successfully fetched %d changed users", xRequestId, page.items().size()));
+
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
+    /**
+     * Reads {@code since} as an instant with an offset, such as 2024-01-01T12:00:00Z, or as a date-time without one,
+     * which is taken to be UTC like the rest of the stored timestamps.
+     */
+    private static LocalDateTime parseSince(final String xRequestId, final String since) {
+        if (Objects.isNull(since)) {
+            return null;
+        }
+
+        try {
+            return OffsetDateTime.parse(since).withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime();
+        } catch (DateTimeParseException withoutOffset) {
+            try {
+                return LocalDateTime.parse(since);
+            } catch (DateTimeParseException exception) {
+                LOG.error(String.format("%s: %s is not an ISO-8601 date-time.", xRequestId, since));
+                throw new BadRequestRuntimeException("Please check the request and try again");
+            }
+        }
     }
 
     @GetMapping("/user/profile")
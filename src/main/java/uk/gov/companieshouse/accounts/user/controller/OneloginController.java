@@ -3,6 +3,7 @@ package uk.gov.companieshouse.accounts.user.controller;
 import static uk.gov.companieshouse.accounts.user.util.StaticPropertyUtil.APPLICATION_NAMESPACE;
 
 import java.util.Objects;
+import java.util.Optional;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
@@ -42,17 +43,16 @@ public class OneloginController implements OneloginInterface {
             throw new NotFoundRuntimeException( APPLICATION_NAMESPACE, PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN );
         }
 
-        var targetUser =
-        usersService.fetchUser( targetUserId )
+        // The unlink only matches users that are still linked, so an already unlinked user is read back unchanged.
+        final var unlinkedUser = unlinkOneLogin.getUnlinkOneLogin() ? usersService.unlinkOnelogin( targetUserId, requestingUserId ) : Optional.<User>empty();
+
+        final var targetUser =
+        unlinkedUser.or( () -> usersService.fetchUser( targetUserId ) )
                 .orElseThrow( () -> {
                     LOG.errorContext( xRequestId, new NullPointerException( String.format( "%s user does not exist", targetUserId ) ), null );
                     return new NotFoundRuntimeException( APPLICATION_NAMESPACE, PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN );
                 } );
 
-        if ( unlinkOneLogin.getUnlinkOneLogin() && targetUser.getHasLinkedOneLogin() ){
-            targetUser = usersService.unlinkOnelogin( targetUserId, requestingUserId );
-        }
-
         return new ResponseEntity<>( targetUser, HttpStatus.OK );
     }
 
@@ -1,18 +1,26 @@
 package uk.gov.companieshouse.accounts.user.controller;
 
+import static uk.gov.companieshouse.accounts.user.controller.ControllerAdvice.X_REQUEST_ID;
 import static uk.gov.companieshouse.accounts.user.util.StaticPropertyUtil.APPLICATION_NAMESPACE;
 
 import java.util.Objects;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Pattern;
+import uk.gov.companieshouse.accounts.user.dto.RoleMembersPage;
 import uk.gov.companieshouse.accounts.user.exceptions.BadRequestRuntimeException;
 import uk.gov.companieshouse.accounts.user.service.RolesService;
 import uk.gov.companieshouse.accounts.user.service.UsersService;
+import uk.gov.companieshouse.accounts.user.util.UserFields;
 import uk.gov.companieshouse.api.accounts.user.api.RolesInterface;
 import uk.gov.companieshouse.api.accounts.user.model.PermissionsList;
 import uk.gov.companieshouse.api.accounts.user.model.Role;
@@ -31,6 +39,12 @@ public class RolesController implements RolesInterface {
 
     public static final String PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN = "Please check the request and try again";
 
+    @Value( "${database.limit:50}" )
+    private int defaultPageSize;
+
+    @Value( "${database.max-page-size:500}" )
+    private int maxPageSize;
+
     public RolesController(RolesService rolesService, UsersService usersService) {
         this.rolesService = rolesService;
         this.usersService = usersService;
@@ -138,4 +152,31 @@ public class RolesController implements RolesInterface {
         LOG.debug( String.format( "%s: Successfully fetched user: %s", xRequestId, userId ) );
         return new ResponseEntity<>( user, HttpStatus.OK );
     }
+
+    @GetMapping( "/internal/admin/roles/{role_id}/users" )
+    public ResponseEntity<RoleMembersPage> getRoleMembers(
+            @PathVariable( "role_id" ) final String roleId,
+            @RequestHeader( value = X_REQUEST_ID, required = false ) final String xRequestId,
+            @RequestParam( value = "fields", required = false ) final String fields,
+            @RequestParam( value = "page_size", required = false ) final Integer pageSize,
+            @RequestParam( value = "cursor", required = false ) final String cursor,
+            @RequestParam( value = "include_count", defaultValue = "false" ) final boolean includeCount ) {
+
+        final var size = Objects.requireNonNullElse( pageSize, defaultPageSize );
+        if ( size < 1 || size > maxPageSize ) {
+            LOG.error( String.format( "%s: Page size %d is outside of the range 1 to %d.", xRequestId, size, maxPageSize ) );
+            throw new BadRequestRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN );
+        }
+
+        final var userFields = UserFields.parse( Objects.requireNonNullElse( fields, UserFields.Field.USER_ID.getName() ) );
+
+        LOG.debug( String.format( "%s: Attempting to fetch a page of %d users with the role '%s'", xRequestId, size, roleId ) );
+
+        final var page = usersService.fetchRoleMembers( roleId, userFields, size, cursor, includeCount );
+
+        LOG.debug( String.format( "%s: Successfully fetched %d users with the role '%s'", xRequestId, page.items().size(), roleId ) );
+
+        return new ResponseEntity<>( page, HttpStatus.OK );
+    }
+
 }
@@ -1,20 +1,37 @@
 package uk.gov.companieshouse.accounts.user.controller;
 
+import static uk.gov.companieshouse.accounts.user.controller.ControllerAdvice.X_REQUEST_ID;
 import static uk.gov.companieshouse.accounts.user.util.StaticPropertyUtil.APPLICATION_NAMESPACE;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import uk.gov.companieshouse.accounts.user.dto.PermissionCheck;
+import uk.gov.companieshouse.accounts.user.dto.RolesPatch;
+import uk.gov.companieshouse.accounts.user.dto.UserRolesOperation;
+import uk.gov.companieshouse.accounts.user.dto.UserRolesResult;
 import uk.gov.companieshouse.accounts.user.exceptions.BadRequestRuntimeException;
 import uk.gov.companieshouse.accounts.user.exceptions.NotFoundRuntimeException;
 import uk.gov.companieshouse.accounts.user.service.UsersService;
 import uk.gov.companieshouse.api.accounts.user.api.UserRolesInterface;
 import uk.gov.companieshouse.api.accounts.user.model.RolesList;
-import uk.gov.companieshouse.api.accounts.user.model.User;
 import uk.gov.companieshouse.logging.Logger;
 import uk.gov.companieshouse.logging.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 @RestController
 public class UserRolesController implements UserRolesInterface {
@@ -24,6 +41,12 @@ public class UserRolesController implements UserRolesInterface {
 
     private static final Logger LOG = LoggerFactory.getLogger(APPLICATION_NAMESPACE);
 
+    @Value( "${database.roles-bulk-limit:1000}" )
+    private int rolesBulkLimit;
+
+    @Value( "${database.bulk-limit:100}" )
+    private int bulkLimit;
+
     public UserRolesController(UsersService usersService) {
         this.usersService = usersService;
     }
@@ -36,15 +59,15 @@ public class UserRolesController implements UserRolesInterface {
             LOG.error(String.format("%s: No userId was provided.", requestId));
             throw new BadRequestRuntimeException(PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN);
         }
-        final var userRolesOptional = usersService.fetchUser(userId).map(User::getRoles);
-        if (userRolesOptional.isEmpty()) {
+        final var userOptional = usersService.fetchVersionedUser(userId);
+        if (userOptional.isEmpty() || Objects.isNull(userOptional.get().user().getRoles())) {
             LOG.debug(String.format("%s: Unable to find roles for the userId: %s", requestId, userId));
             return new ResponseEntity<>(new RolesList(), HttpStatus.NO_CONTENT);
         }
-        final var userRoles= userRolesOptional.get();
+        final var user = userOptional.get();
         LOG.debug(String.format("%s: Successfully retrieved roles for the userId: %s", requestId, userId));
 
-        return new ResponseEntity<>( userRoles, HttpStatus.OK);
+        return user.ok( user.user().getRoles() );
     }
 
 
@@ -59,18 +82,131 @@ public class UserRolesController implements UserRolesInterface {
         LOG.debug( String.format( "%s: attempting to set the status of %s to %s",
                 xRequestId, userId, roles) );
 
-        if ( !usersService.userExists( userId )){
+        // The update reports the users it matched, so it doubles as the check that the user exists.
+        final var numUpdatedUsers = usersService.setRoles( userId, roles );
+        LOG.trace( String.format( "%s: Ran update query for userId %s, resulted in %d record%s being updated.", xRequestId, userId, numUpdatedUsers, numUpdatedUsers == 1 ? "" : "s"  ) );
+
+        if ( numUpdatedUsers == 0 ){
             LOG.debug( String.format( "%s: Unable to find user: %s", xRequestId, userId ) );
             throw new NotFoundRuntimeException( "accounts-user-api", PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN);
         }
 
-        final var numUpdatedUsers = usersService.setRoles( userId, roles );
-        LOG.trace( String.format( "%s: Ran update query for userId %s, resulted in %d record%s being updated.", xRequestId, userId, numUpdatedUsers, numUpdatedUsers == 1 ? "" : "s"  ) );
-
 
         LOG.debug( String.format( "%s: Successfully set status of %s to %s", xRequestId, userId,  roles) );
 
         return new ResponseEntity<>(HttpStatus.OK );
     }
 
+    @GetMapping( "/users/{user_id}/permissions" )
+    public ResponseEntity<Set<String>> getUserPermissions(
+            @PathVariable( "user_id" ) final String userId,
+            @RequestHeader( value = X_REQUEST_ID, required = false ) final String xRequestId ) {
+
+        LOG.debug( String.format( "%s: Resolving the permissions of user (%s) ...", xRequestId, userId ) );
+
+        final var permissions = usersService.fetchUserPermissions( userId );
+        if ( permissions.isEmpty() ){
+            LOG.debug( String.format( "%s: Unable to find user: %s", xRequestId, userId ) );
+            throw new NotFoundRuntimeException( "accounts-user-api", PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN );
+        }
+
+        LOG.debug( String.format( "%s: Successfully resolved %d permissions for user: %s", xRequestId, permissions.get().size(), userId ) );
+
+        return new ResponseEntity<>( permissions.get(), HttpStatus.OK );
+    }
+
+    @GetMapping( "/users/{user_id}/permissions/check" )
+    public ResponseEntity<List<PermissionCheck>> checkUserPermissions(
+            @PathVariable( "user_id" ) final String userId,
+            @RequestParam( value = "permission", required = false ) final List<String> permissions,
+            @RequestHeader( value = X_REQUEST_ID, required = false ) final String xRequestId ) {
+
+        if ( Objects.isNull( permissions ) || permissions.isEmpty() || permissions.size() > bulkLimit || permissions.stream().anyMatch( permission -> Objects.isNull( permission ) || permission.isBlank() ) ){
+            LOG.error( String.format( "%s: Between 1 and %d permissions, none of them blank, must be provided.", xRequestId, bulkLimit ) );
+            throw new BadRequestRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN );
+        }
+
+        LOG.debug( String.format( "%s: Checking whether user (%s) has %s ...", xRequestId, userId, permissions ) );
+
+        final var checks = usersService.checkUserPermissions( userId, permissions );
+        if ( checks.isEmpty() ){
+            LOG.debug( String.format( "%s: Unable to find user: %s", xRequestId, userId ) );
+            throw new NotFoundRuntimeException( "accounts-user-api", PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN );
+        }
+
+        return new ResponseEntity<>( checks.get(), HttpStatus.OK );
+    }
+
+    @PatchMapping( value = "/users/{user_id}/roles", consumes = MediaType.APPLICATION_JSON_VALUE )
+    public ResponseEntity<Void> patchUserRoles(
+            @PathVariable( "user_id" ) final String userId,
+            @RequestBody final RolesPatch rolesPatch,
+            @RequestHeader( value = X_REQUEST_ID, required = false ) final String xRequestId ) {
+
+        final var rolesToAdd = rolesIn( rolesPatch.add() );
+        final var rolesToRemove = rolesIn( rolesPatch.remove() );
+
+        if ( !isValidRolesChange( rolesToAdd, rolesToRemove ) ){
+            LOG.error( String.format( "%s: No roles, a null role, or the same role to both add and remove were provided.", xRequestId ) );
+            throw new BadRequestRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN );
+        }
+
+        LOG.debug( String.format( "%s: attempting to add %s to and remove %s from the roles of %s", xRequestId, rolesToAdd, rolesToRemove, userId ) );
+
+        final var numUpdatedUsers = usersService.patchRoles( userId, rolesToAdd, rolesToRemove );
+        if ( numUpdatedUsers == 0 ){
+            LOG.debug( String.format( "%s: Unable to find user: %s", xRequestId, userId ) );
+            throw new NotFoundRuntimeException( "accounts-user-api", PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN );
+        }
+
+        LOG.debug( String.format( "%s: Successfully added %s to and removed %s from the roles of %s", xRequestId, rolesToAdd, rolesToRemove, userId ) );
+
+        return new ResponseEntity<>( HttpStatus.OK );
+    }
+
+
+    @PostMapping( value = "/users/roles/bulk", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE )
+    public ResponseEntity<List<UserRolesResult>> patchUsersRoles(
+            @RequestBody final List<UserRolesOperation> operations,
+            @RequestHeader( value = X_REQUEST_ID, required = false ) final String xRequestId ) {
+
+        if ( Objects.isNull( operations ) || operations.isEmpty() || operations.size() > rolesBulkLimit ){
+            LOG.error( String.format( "%s: Between 1 and %d operations must be provided.", xRequestId, rolesBulkLimit ) );
+            throw new BadRequestRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN );
+        }
+
+        final var userIds = new HashSet<String>();
+        final var normalisedOperations = new ArrayList<UserRolesOperation>( operations.size() );
+        for ( final UserRolesOperation operation: operations ){
+            final var rolesToAdd = rolesIn( Objects.isNull( operation ) ? null : operation.add() );
+            final var rolesToRemove = rolesIn( Objects.isNull( operation ) ? null : operation.remove() );
+
+            // Operations for the same user could be applied in either order, so each user may only appear once.
+            if ( Objects.isNull( operation ) || Objects.isNull( operation.userId() ) || !userIds.add( operation.userId() ) || !isValidRolesChange( rolesToAdd, rolesToRemove ) ){
+                LOG.error( String.format( "%s: Operation %s is missing a user, repeats a user, or has invalid roles.", xRequestId, operation ) );
+                throw new BadRequestRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN );
+            }
+            normalisedOperations.add( new UserRolesOperation( operation.userId(), List.copyOf( rolesToAdd ), List.copyOf( rolesToRemove ) ) );
+        }
+
+        LOG.debug( String.format( "%s: attempting to change the roles of %d users", xRequestId, normalisedOperations.size() ) );
+
+        final var results = usersService.patchRolesInBulk( normalisedOperations );
+
+        LOG.debug( String.format( "%s: Changed the roles of %d of %d users", xRequestId,
+                results.stream().filter( result -> result.status() == UserRolesResult.Status.UPDATED ).count(), results.size() ) );
+
+        return new ResponseEntity<>( results, HttpStatus.OK );
+    }
+
+    private static Set<String> rolesIn( final List<String> roles ){
+        return new HashSet<>( Objects.requireNonNullElse( roles, List.of() ) );
+    }
+
+    private static boolean isValidRolesChange( final Set<String> rolesToAdd, final Set<String> rolesToRemove ){
+        return !( rolesToAdd.isEmpty() && rolesToRemove.isEmpty() )
+                && !rolesToAdd.contains( null ) && !rolesToRemove.contains( null )
+                && rolesToAdd.stream().noneMatch( rolesToRemove::contains );
+    }
+
 }
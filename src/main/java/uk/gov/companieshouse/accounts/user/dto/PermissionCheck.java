@@ -0,0 +1,6 @@
+package uk.gov.companieshouse.accounts.user.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record PermissionCheck( @JsonProperty( "permission" ) String permission,
+                               @JsonProperty( "granted" ) boolean granted ) {}
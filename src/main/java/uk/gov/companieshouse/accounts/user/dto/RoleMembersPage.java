@@ -0,0 +1,14 @@
+package uk.gov.companieshouse.accounts.user.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A page of the users with a role, holding only the fields that were asked for. {@code total} is
+ * only set when the count was asked for.
+ */
+public record RoleMembersPage( @JsonProperty( "items" ) List<Map<String, Object>> items,
+                               @JsonProperty( "next_cursor" ) String nextCursor,
+                               @JsonProperty( "total" ) @JsonInclude( JsonInclude.Include.NON_NULL ) Long total ) {}
@@ -0,0 +1,7 @@
+package uk.gov.companieshouse.accounts.user.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+
+public record RolesPatch( @JsonProperty( "add" ) List<String> add,
+                          @JsonProperty( "remove" ) List<String> remove ) {}
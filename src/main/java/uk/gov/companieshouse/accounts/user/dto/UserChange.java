@@ -0,0 +1,10 @@
+package uk.gov.companieshouse.accounts.user.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.OffsetDateTime;
+import uk.gov.companieshouse.api.accounts.user.model.User;
+
+public record UserChange( @JsonProperty( "user" ) User user,
+                          @JsonProperty( "updated" ) OffsetDateTime updated,
+                          @JsonProperty( "one_login_link_removed_at" ) OffsetDateTime oneLoginLinkRemovedAt,
+                          @JsonProperty( "one_login_link_removed_by" ) String oneLoginLinkRemovedBy ) {}
@@ -0,0 +1,12 @@
+package uk.gov.companieshouse.accounts.user.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+
+/**
+ * A page of the change feed. {@code nextCursor} is always set, even when the page is empty, so
+ * that a consumer that has caught up can keep polling from where it stopped.
+ */
+public record UserChangesPage( @JsonProperty( "items" ) List<UserChange> items,
+                               @JsonProperty( "next_cursor" ) String nextCursor,
+                               @JsonProperty( "has_more" ) boolean hasMore ) {}
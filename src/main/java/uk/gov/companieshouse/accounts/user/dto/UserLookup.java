@@ -0,0 +1,20 @@
+package uk.gov.companieshouse.accounts.user.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import uk.gov.companieshouse.api.accounts.user.model.User;
+
+@JsonInclude( JsonInclude.Include.NON_NULL )
+public record UserLookup( @JsonProperty( "user_id" ) String userId,
+                          @JsonProperty( "found" ) boolean found,
+                          @JsonProperty( "user" ) User user ) {
+
+    public static UserLookup found( final String userId, final User user ) {
+        return new UserLookup( userId, true, user );
+    }
+
+    public static UserLookup notFound( final String userId ) {
+        return new UserLookup( userId, false, null );
+    }
+
+}
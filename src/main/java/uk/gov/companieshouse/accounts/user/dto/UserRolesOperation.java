@@ -0,0 +1,8 @@
+package uk.gov.companieshouse.accounts.user.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+
+public record UserRolesOperation( @JsonProperty( "user_id" ) String userId,
+                                  @JsonProperty( "add" ) List<String> add,
+                                  @JsonProperty( "remove" ) List<String> remove ) {}
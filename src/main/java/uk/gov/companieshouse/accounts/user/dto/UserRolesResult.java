@@ -0,0 +1,14 @@
+package uk.gov.companieshouse.accounts.user.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record UserRolesResult( @JsonProperty( "user_id" ) String userId,
+                               @JsonProperty( "status" ) Status status ) {
+
+    public enum Status {
+        @JsonProperty( "updated" ) UPDATED,
+        @JsonProperty( "not_found" ) NOT_FOUND,
+        @JsonProperty( "failed" ) FAILED
+    }
+
+}
@@ -0,0 +1,14 @@
+package uk.gov.companieshouse.accounts.user.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Narrows a users export. Every component is optional. {@code createdFrom} is inclusive and
+ * {@code createdTo} is exclusive. {@code afterUserId} resumes an export after the last user that
+ * was received.
+ */
+public record UsersExportFilter( String role,
+                                 LocalDateTime createdFrom,
+                                 LocalDateTime createdTo,
+                                 Boolean privateBetaUser,
+                                 String afterUserId ) {}
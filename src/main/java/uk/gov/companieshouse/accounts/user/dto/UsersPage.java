@@ -0,0 +1,8 @@
+package uk.gov.companieshouse.accounts.user.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+import uk.gov.companieshouse.api.accounts.user.model.User;
+
+public record UsersPage( @JsonProperty( "items" ) List<User> items,
+                         @JsonProperty( "next_cursor" ) String nextCursor ) {}
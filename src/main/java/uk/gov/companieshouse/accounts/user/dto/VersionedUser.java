@@ -0,0 +1,34 @@
+package uk.gov.companieshouse.accounts.user.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Objects;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import uk.gov.companieshouse.api.accounts.user.model.User;
+
+/**
+ * A user together with the updated timestamp of the document it was mapped from. The users cache
+ * holds these, so the ETag and Last-Modified sent with a user always describe the copy of the user
+ * that is sent, however old that copy is.
+ */
+public record VersionedUser( User user, LocalDateTime updated ) {
+
+    public static String eTag( final String userId, final LocalDateTime updated ) {
+        return String.format( "\"%s\"", DigestUtils.md5DigestAsHex( String.format( "%s:%s", userId, updated ).getBytes( StandardCharsets.UTF_8 ) ) );
+    }
+
+    /**
+     * @return a 200 response with {@code body}, and an ETag and Last-Modified for this version of
+     * the user. Users that have never been updated have no version, so they are sent without either.
+     */
+    public <T> ResponseEntity<T> ok( final T body ) {
+        final var response = ResponseEntity.ok();
+        if ( Objects.nonNull( updated ) ) {
+            response.eTag( eTag( user.getUserId(), updated ) ).lastModified( updated.toInstant( ZoneOffset.UTC ) );
+        }
+        return response.body( body );
+    }
+
+}
@@ -0,0 +1,8 @@
+package uk.gov.companieshouse.accounts.user.exceptions;
+
+public class TooManyRequestsRuntimeException extends RuntimeException {
+
+    public TooManyRequestsRuntimeException(String message) {
+        super(message);
+    }
+}
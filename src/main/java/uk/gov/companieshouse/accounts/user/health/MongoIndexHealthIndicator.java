@@ -0,0 +1,192 @@
+package uk.gov.companieshouse.accounts.user.health;
+
+import static uk.gov.companieshouse.accounts.user.util.StaticPropertyUtil.APPLICATION_NAMESPACE;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import org.bson.Document;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.accounts.user.models.AdminPermissions;
+import uk.gov.companieshouse.accounts.user.models.UserRole;
+import uk.gov.companieshouse.accounts.user.models.Users;
+import uk.gov.companieshouse.logging.Logger;
+import uk.gov.companieshouse.logging.LoggerFactory;
+
+/**
+ * Compares the indexes declared on the documents with the indexes that exist in Mongo. Indexes are
+ * matched on their keys and on the options that change which queries they can serve: unique,
+ * sparse, partialFilterExpression, expireAfterSeconds and collation. A declared index that is
+ * missing means a repository query has fallen back to a collection scan,
+ * so the indicator reports DOWN and takes the instance out of the readiness group. It is left out
+ * of the root health check by {@link ReadinessOnlyHealthEndpointGroupsPostProcessor}. Live indexes
+ * that are not declared are reported but do not affect the status.
+ */
+@Component( MongoIndexHealthIndicator.NAME )
+public class MongoIndexHealthIndicator implements HealthIndicator {
+
+    public static final String NAME = "mongoIndexes";
+
+    private static final Logger LOG = LoggerFactory.getLogger( APPLICATION_NAMESPACE );
+
+    static final List<Class<?>> DOCUMENTS = List.of( Users.class, UserRole.class, AdminPermissions.class );
+
+    private static final String ID_INDEX = "_id_";
+
+    private final MongoTemplate mongoTemplate;
+    private final IndexResolver indexResolver;
+
+    public MongoIndexHealthIndicator( final MongoTemplate mongoTemplate, final MongoMappingContext mappingContext ) {
+        this.mongoTemplate = mongoTemplate;
+        this.indexResolver = IndexResolver.create( mappingContext );
+    }
+
+    @Override
+    public Health health() {
+        try {
+            final var drift = findDrift();
+            final var anyMissing = drift.values().stream().anyMatch( IndexDrift::hasMissing );
+            return ( anyMissing ? Health.down() : Health.up() ).withDetails( drift ).build();
+        } catch ( RuntimeException exception ) {
+            return Health.down( exception ).build();
+        }
+    }
+
+    @EventListener( ApplicationReadyEvent.class )
+    public void verifyOnStartup() {
+        Thread.ofVirtual().name( "mongo-index-verifier" ).start( () -> {
+            try {
+                findDrift().forEach( ( collection, drift ) -> {
+                    if ( drift.hasMissing() ) {
+                        LOG.error( String.format( "Collection %s is missing declared indexes %s", collection, drift.missing() ) );
+                    }
+                    if ( !drift.unexpected().isEmpty() ) {
+                        LOG.info( String.format( "Collection %s has undeclared indexes %s", collection, drift.unexpected() ) );
+                    }
+                } );
+            } catch ( RuntimeException exception ) {
+                LOG.error( String.format( "Unable to verify Mongo indexes: %s", exception.getMessage() ) );
+            }
+        } );
+    }
+
+    Map<String, IndexDrift> findDrift() {
+        final var drift = new LinkedHashMap<String, IndexDrift>();
+        for ( final Class<?> document: DOCUMENTS ) {
+            final var collection = mongoTemplate.getCollectionName( document );
+
+            final Map<String, String> declared = new LinkedHashMap<>();
+            for ( final IndexDefinition definition: indexResolver.resolveIndexFor( document ) ) {
+                declared.put( signatureOf( definition ), definition.getIndexOptions().getString( "name" ) );
+            }
+
+            final Map<String, String> live = mongoTemplate.indexOps( collection )
+                    .getIndexInfo()
+                    .stream()
+                    .filter( index -> !ID_INDEX.equals( index.getName() ) )
+                    .collect( Collectors.toMap( MongoIndexHealthIndicator::signatureOf, IndexInfo::getName, ( first, second ) -> first, LinkedHashMap::new ) );
+
+            final var missing = declared.entrySet().stream()
+                    .filter( index -> !live.containsKey( index.getKey() ) )
+                    .map( index -> Objects.requireNonNullElse( index.getValue(), index.getKey() ) )
+                    .toList();
+
+            final var unexpected = live.entrySet().stream()
+                    .filter( index -> !declared.containsKey( index.getKey() ) )
+                    .map( Map.Entry::getValue )
+                    .toList();
+
+            drift.put( collection, new IndexDrift( missing, unexpected ) );
+        }
+        return drift;
+    }
+
+    private static String signatureOf( final IndexDefinition definition ) {
+        final var options = definition.getIndexOptions();
+        final var partialFilterExpression = options.get( "partialFilterExpression" ) instanceof Document filter ? filter.toJson() : null;
+        final var expireAfterSeconds = options.get( "expireAfterSeconds" ) instanceof Number seconds ? seconds.longValue() : null;
+        final var collation = options.get( "collation" ) instanceof Document document ? document : null;
+        return signatureOf( keysOf( definition.getIndexKeys() ), options.getBoolean( "unique", false ), options.getBoolean( "sparse", false ),
+                partialFilterExpression, expireAfterSeconds, collation );
+    }
+
+    private static String signatureOf( final IndexInfo index ) {
+        return signatureOf( keysOf( index ), index.isUnique(), index.isSparse(), index.getPartialFilterExpression(),
+                index.getExpireAfter().map( Duration::toSeconds ).orElse( null ), index.getCollation().orElse( null ) );
+    }
+
+    private static String signatureOf( final String keys, final boolean unique, final boolean sparse, final String partialFilterExpression,
+                                       final Long expireAfterSeconds, final Document collation ) {
+        return String.format( "%s unique=%s sparse=%s partialFilterExpression=%s expireAfterSeconds=%s collation=%s",
+                keys, unique, sparse, partialFilterExpression, expireAfterSeconds, collationOf( collation ) );
+    }
+
+    /**
+     * Mongo lists an index's collation with every setting filled in, while a declared collation
+     * usually only sets a few, so unset settings are compared as their defaults.
+     */
+    private static String collationOf( final Document collation ) {
+        final var locale = Objects.isNull( collation ) ? "simple" : collation.get( "locale", "simple" );
+        if ( "simple".equals( locale ) ) {
+            return locale;
+        }
+        return String.format( "%s strength=%s caseLevel=%s caseFirst=%s numericOrdering=%s alternate=%s maxVariable=%s normalization=%s backwards=%s",
+                locale,
+                collation.get( "strength", 3 ),
+                collation.get( "caseLevel", false ),
+                collation.get( "caseFirst", "off" ),
+                collation.get( "numericOrdering", false ),
+                collation.get( "alternate", "non-ignorable" ),
+                collation.get( "maxVariable", "punct" ),
+                collation.get( "normalization", false ),
+                collation.get( "backwards", false ) );
+    }
+
+    // Key order matters for compound indexes, so keys are compared as an ordered "field:direction" list.
+    private static String keysOf( final Document keys ) {
+        return keys.entrySet()
+                .stream()
+                .map( key -> key.getKey() + ":" + ( key.getValue() instanceof Number direction ? String.valueOf( direction.intValue() ) : String.valueOf( key.getValue() ) ) )
+                .collect( Collectors.joining( "," ) );
+    }
+
+    private static String keysOf( final IndexInfo index ) {
+        return index.getIndexFields()
+                .stream()
+                .map( field -> field.getKey() + ":" + directionOf( field ) )
+                .collect( Collectors.joining( "," ) );
+    }
+
+    private static String directionOf( final IndexField field ) {
+        if ( field.isText() ) {
+            return "text";
+        }
+        if ( field.isGeo() ) {
+            return "geo";
+        }
+        return field.getDirection() == Direction.DESC ? "-1" : "1";
+    }
+
+    public record IndexDrift( List<String> missing, List<String> unexpected ) {
+
+        boolean hasMissing() {
+            return !missing.isEmpty();
+        }
+
+    }
+
+}
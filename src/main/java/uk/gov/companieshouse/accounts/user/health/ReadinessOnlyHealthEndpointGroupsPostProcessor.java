@@ -0,0 +1,68 @@
+package uk.gov.companieshouse.accounts.user.health;
+
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.boot.actuate.endpoint.SecurityContext;
+import org.springframework.boot.actuate.health.AdditionalHealthEndpointPath;
+import org.springframework.boot.actuate.health.HealthEndpointGroup;
+import org.springframework.boot.actuate.health.HealthEndpointGroups;
+import org.springframework.boot.actuate.health.HealthEndpointGroupsPostProcessor;
+import org.springframework.boot.actuate.health.HttpCodeStatusMapper;
+import org.springframework.boot.actuate.health.StatusAggregator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps readiness-only indicators out of the root health check. Every health indicator is part of
+ * the root check, and ECS replaces any task that fails it, so an index that is missing or still
+ * building after a deploy would otherwise get every task replaced. These indicators are still
+ * reported by the groups that include them, such as readiness.
+ */
+@Component
+public class ReadinessOnlyHealthEndpointGroupsPostProcessor implements HealthEndpointGroupsPostProcessor {
+
+    static final Set<String> READINESS_ONLY = Set.of( MongoIndexHealthIndicator.NAME );
+
+    @Override
+    public HealthEndpointGroups postProcessHealthEndpointGroups( final HealthEndpointGroups groups ) {
+        final var additional = groups.getNames()
+                .stream()
+                .collect( Collectors.toMap( Function.identity(), groups::get ) );
+        return HealthEndpointGroups.of( new ExcludingHealthEndpointGroup( groups.getPrimary() ), additional );
+    }
+
+    private record ExcludingHealthEndpointGroup( HealthEndpointGroup delegate ) implements HealthEndpointGroup {
+
+        @Override
+        public boolean isMember( final String name ) {
+            return !READINESS_ONLY.contains( name ) && delegate.isMember( name );
+        }
+
+        @Override
+        public boolean showComponents( final SecurityContext securityContext ) {
+            return delegate.showComponents( securityContext );
+        }
+
+        @Override
+        public boolean showDetails( final SecurityContext securityContext ) {
+            return delegate.showDetails( securityContext );
+        }
+
+        @Override
+        public StatusAggregator getStatusAggregator() {
+            return delegate.getStatusAggregator();
+        }
+
+        @Override
+        public HttpCodeStatusMapper getHttpCodeStatusMapper() {
+            return delegate.getHttpCodeStatusMapper();
+        }
+
+        @Override
+        public AdditionalHealthEndpointPath getAdditionalPath() {
+            return delegate.getAdditionalPath();
+        }
+
+    }
+
+}
@@ -0,0 +1,100 @@
+package uk.gov.companieshouse.accounts.user.interceptor;
+
+import static uk.gov.companieshouse.accounts.user.controller.ControllerAdvice.X_REQUEST_ID;
+import static uk.gov.companieshouse.accounts.user.util.StaticPropertyUtil.APPLICATION_NAMESPACE;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Objects;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import uk.gov.companieshouse.accounts.user.dto.VersionedUser;
+import uk.gov.companieshouse.accounts.user.service.UsersService;
+import uk.gov.companieshouse.logging.Logger;
+import uk.gov.companieshouse.logging.LoggerFactory;
+
+/**
+ * Answers conditional GET requests for a user record with a 304 from the id_updated index alone,
+ * without calling the controller, when the request's If-None-Match or If-Modified-Since header
+ * shows the caller already has the current version. Requests without either header are left to
+ * the controller, which sends the ETag and Last-Modified of the cached copy of the user it serves.
+ * Requests for a projection of the user, with a {@code fields} parameter, are also left to the
+ * controller, because the validators here are for the whole user record.
+ */
+@Component
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    private static final Logger LOG = LoggerFactory.getLogger( APPLICATION_NAMESPACE );
+
+    private static final String FIELDS_PARAMETER = "fields";
+
+    private final UsersService usersService;
+
+    public ConditionalGetInterceptor( final UsersService usersService ) {
+        this.usersService = usersService;
+    }
+
+    @Override
+    public boolean preHandle( @NonNull final HttpServletRequest request, @NonNull final HttpServletResponse response, @NonNull final Object handler ) {
+        if ( !HttpMethod.GET.matches( request.getMethod() ) ) {
+            return true;
+        }
+
+        if ( Objects.isNull( request.getHeader( HttpHeaders.IF_NONE_MATCH ) ) && Objects.isNull( request.getHeader( HttpHeaders.IF_MODIFIED_SINCE ) ) ) {
+            return true;
+        }
+
+        if ( Objects.nonNull( request.getParameter( FIELDS_PARAMETER ) ) ) {
+            return true;
+        }
+
+        final var userId = userId( request );
+        if ( Objects.isNull( userId ) ) {
+            return true;
+        }
+
+        final LocalDateTime updated;
+        try {
+            updated = usersService.fetchUserLastUpdated( userId ).orElse( null );
+        } catch ( DataAccessException exception ) {
+            // For example when the id_updated index is missing. The controller can still answer the request in full.
+            LOG.errorContext( request.getHeader( X_REQUEST_ID ), exception, null );
+            return true;
+        }
+
+        // Users that have never been updated have no version to compare, so they are always sent in full.
+        if ( Objects.isNull( updated ) ) {
+            return true;
+        }
+
+        // The check is made without the response, so that a user that has been modified gets the
+        // ETag of the copy the controller sends rather than one for the version read here.
+        final var eTag = VersionedUser.eTag( userId, updated );
+        final var lastModified = updated.toInstant( ZoneOffset.UTC ).toEpochMilli();
+        if ( !new ServletWebRequest( request ).checkNotModified( eTag, lastModified ) ) {
+            return true;
+        }
+
+        response.setStatus( HttpServletResponse.SC_NOT_MODIFIED );
+        response.setHeader( HttpHeaders.ETAG, eTag );
+        response.setDateHeader( HttpHeaders.LAST_MODIFIED, lastModified );
+        LOG.debug( String.format( "%s: User %s has not been modified, responding with %d", request.getHeader( X_REQUEST_ID ), userId, response.getStatus() ) );
+        return false;
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private static String userId( final HttpServletRequest request ) {
+        final var uriTemplateVariables = (Map<String, String>) request.getAttribute( HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE );
+        return Objects.isNull( uriTemplateVariables ) ? null : uriTemplateVariables.get( "user_id" );
+    }
+
+}
@@ -1,6 +1,7 @@
 package uk.gov.companieshouse.accounts.user.models;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -13,6 +14,7 @@ public class AdminPermissions {
     private String id;
 
     @Field("entra_group_id")
+    @Indexed(name = "entra_group_id")
     private String entraGroupId;
 
     @Field("group_name")
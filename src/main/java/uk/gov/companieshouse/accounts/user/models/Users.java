@@ -2,6 +2,7 @@ package uk.gov.companieshouse.accounts.user.models;
 
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -11,11 +12,22 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Document(collection = "users")
+@CompoundIndex(name = "email_id", def = "{ 'email': 1, '_id': 1 }")
+@CompoundIndex(name = "id_updated", def = "{ '_id': 1, 'updated': 1 }")
+@CompoundIndex(name = "updated_id", def = "{ 'updated': 1, '_id': 1 }")
+@CompoundIndex(name = "email_case_insensitive", def = "{ 'email': 1 }", collation = Users.EMAIL_COLLATION)
+@CompoundIndex(name = "roles_id", def = "{ 'roles': 1, '_id': 1 }")
 public class Users implements Serializable {
 
     @Serial
     private static final long serialVersionUID = 1234567L;
 
+    /**
+     * Compares emails ignoring case. Queries must use this collation to be served by the
+     * email_case_insensitive index.
+     */
+    public static final String EMAIL_COLLATION = "{ 'locale': 'en', 'strength': 2 }";
+
     @Id
     private String id;
 
@@ -1,10 +1,14 @@
 package uk.gov.companieshouse.accounts.user.repositories;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.repository.Hint;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -12,19 +16,46 @@ import org.springframework.stereotype.Repository;
 import uk.gov.companieshouse.accounts.user.models.Users;
 
 @Repository
-public interface UsersRepository extends MongoRepository<Users, String> {
+public interface UsersRepository extends MongoRepository<Users, String>, UsersRepositoryCustom {
 
-    @Query( "{ 'email': { $in: ?0 } }" )
+    @Query( value = "{ 'email': { $in: ?0 } }", collation = Users.EMAIL_COLLATION )
     List<Users> fetchUsers( List<String> emails );
 
     Optional<Users> findUsersById( String userId );
 
-    List<Users> findUsersByEmailLike(String email, Limit limit);
+    List<Users> findUsersByEmailLike(String email, Sort sort, Limit limit);
+
+    @Query( "{ 'email': { $regex: ?0 }, $or: [ { 'email': { $gt: ?1 } }, { 'email': ?1, 'id': { $gt: ?2 } } ] }" )
+    List<Users> findUsersByEmailMatchingAfter( String emailRegex, String lastEmail, String lastUserId, Sort sort, Limit limit );
 
     @Query( "{ 'id': ?0 }" )
     int updateUser( String userId, Update update );
 
     List<Users> findUsersByRolesContaining(String role);
+
+    /**
+     * Counts the users with {@code role} exactly. Served by the roles_id index, so only the index
+     * entries for the role are scanned.
+     */
+    @Query( value = "{ 'roles': ?0 }", count = true )
+    long countUsersWithRole( String role );
+
+    @Query( value = "{}", fields = "{ 'email': 1 }" )
+    Stream<Users> streamAllEmails();
+
+    @Query( value = "{ 'id': ?0 }", fields = "{ 'email': 1 }" )
+    Optional<Users> findEmailById( String userId );
+
+    /**
+     * Finds the users updated after {@code lastUpdated}, or at {@code lastUpdated} with an id after
+     * {@code lastUserId}, and no later than {@code updatedBefore}. Served by the updated_id index.
+     */
+    @Query( "{ 'updated': { $lte: ?2 }, $or: [ { 'updated': { $gt: ?0 } }, { 'updated': ?0, 'id': { $gt: ?1 } } ] }" )
+    List<Users> findUsersUpdatedAfter( LocalDateTime lastUpdated, String lastUserId, LocalDateTime updatedBefore, Sort sort, Limit limit );
+
+    @Hint( "id_updated" )
+    @Query( value = "{ 'id': ?0 }", fields = "{ 'updated': 1 }" )
+    Optional<Users> findUpdatedById( String userId );
 }
 
 
@@ -0,0 +1,84 @@
+package uk.gov.companieshouse.accounts.user.repositories;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.data.util.Pair;
+import uk.gov.companieshouse.accounts.user.models.Users;
+
+public interface UsersRepositoryCustom {
+
+    /**
+     * The outcome of {@link #updateUsersInBulk(List)}: the number of users matched across every
+     * update, and the positions of the updates that failed.
+     */
+    record BulkUpdateResult( int matchedCount, Set<Integer> failedIndexes ) {}
+
+    /**
+     * Applies {@code update} to the user in a single findAndModify, but only if the user is still
+     * linked to a OneLogin account.
+     *
+     * @return the user as it is after the update, or an empty Optional if the user does not exist
+     * or is not linked to a OneLogin account.
+     */
+    Optional<Users> updateUserIfLinkedToOneLogin( String userId, Update update );
+
+    /**
+     * Applies {@code update} to the user.
+     *
+     * @return the number of users matched, 1 or 0, whether or not the update changed any values.
+     * Unlike {@link UsersRepository#updateUser(String, Update)}, which counts modified users, a
+     * result of 0 always means the user does not exist.
+     */
+    int updateUserCountingMatches( String userId, UpdateDefinition update );
+
+    /**
+     * Applies each update to the user whose id it is paired with, in a single unordered bulkWrite.
+     * The updates may be applied in any order, and one failing does not stop the others.
+     */
+    BulkUpdateResult updateUsersInBulk( List<Pair<String, UpdateDefinition>> updates );
+
+    /**
+     * Finds at most {@code limit} users matching {@code criteria}, reading only {@code fields} (and
+     * _id) from each document. When an index holds every field read, Mongo can answer the query
+     * from the index alone.
+     */
+    List<Users> findUsersWithFields( Criteria criteria, Collection<String> fields, int limit );
+
+    /**
+     * As {@link #findUsersWithFields(Criteria, Collection, int)}, returning the users in _id order so
+     * that the next page can start after the last _id read.
+     */
+    List<Users> findUsersWithFieldsOrderedById( Criteria criteria, Collection<String> fields, int limit );
+
+    /**
+     * Finds the users with any of {@code emails}, ignoring case, reading only {@code fields} (and _id)
+     * from each document.
+     */
+    List<Users> fetchUsersWithFields( Collection<String> emails, Collection<String> fields );
+
+    /**
+     * Streams the users with any of {@code emails}, ignoring case, from a cursor that fetches
+     * {@code batchSize} documents at a time. The stream must be closed to release the cursor.
+     */
+    Stream<Users> streamUsersByEmails( Collection<String> emails, int batchSize );
+
+    /**
+     * Streams at most {@code limit} users matching {@code criteria} in _id order from a cursor that
+     * fetches {@code batchSize} documents at a time. The stream must be closed to release the cursor.
+     */
+    Stream<Users> streamUsers( Criteria criteria, int limit, int batchSize );
+
+    /**
+     * Streams every user matching {@code criteria} in _id order from a cursor that fetches
+     * {@code batchSize} documents at a time, so a reader can resume after the last _id it saw. The
+     * stream must be closed to release the cursor.
+     */
+    Stream<Users> streamUsersOrderedById( Criteria criteria, int batchSize );
+
+}
@@ -0,0 +1,93 @@
+package uk.gov.companieshouse.accounts.user.repositories;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.mongodb.bulk.BulkWriteError;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.data.util.Pair;
+import uk.gov.companieshouse.accounts.user.models.Users;
+
+class UsersRepositoryCustomImpl implements UsersRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    UsersRepositoryCustomImpl( final MongoTemplate mongoTemplate ) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Optional<Users> updateUserIfLinkedToOneLogin( final String userId, final Update update ) {
+        final var linkedUser = query( where( "id" ).is( userId ).and( "one_login_data" ).exists( true ) );
+        return Optional.ofNullable( mongoTemplate.findAndModify( linkedUser, update, FindAndModifyOptions.options().returnNew( true ), Users.class ) );
+    }
+
+    @Override
+    public int updateUserCountingMatches( final String userId, final UpdateDefinition update ) {
+        return (int) mongoTemplate.updateFirst( query( where( "id" ).is( userId ) ), update, Users.class ).getMatchedCount();
+    }
+
+    @Override
+    public BulkUpdateResult updateUsersInBulk( final List<Pair<String, UpdateDefinition>> updates ) {
+        final var bulkOperations = mongoTemplate.bulkOps( BulkMode.UNORDERED, Users.class );
+        updates.forEach( update -> bulkOperations.updateOne( query( where( "id" ).is( update.getFirst() ) ), update.getSecond() ) );
+        try {
+            return new BulkUpdateResult( bulkOperations.execute().getMatchedCount(), Set.of() );
+        } catch ( BulkOperationException exception ) {
+            final var failedIndexes = exception.getErrors().stream().map( BulkWriteError::getIndex ).collect( Collectors.toSet() );
+            return new BulkUpdateResult( exception.getResult().getMatchedCount(), failedIndexes );
+        }
+    }
+
+    @Override
+    public List<Users> findUsersWithFields( final Criteria criteria, final Collection<String> fields, final int limit ) {
+        final var projectedQuery = query( criteria ).limit( limit );
+        projectedQuery.fields().include( fields.toArray( String[]::new ) );
+        return mongoTemplate.find( projectedQuery, Users.class );
+    }
+
+    @Override
+    public List<Users> findUsersWithFieldsOrderedById( final Criteria criteria, final Collection<String> fields, final int limit ) {
+        final var projectedQuery = query( criteria ).with( Sort.by( "id" ) ).limit( limit );
+        projectedQuery.fields().include( fields.toArray( String[]::new ) );
+        return mongoTemplate.find( projectedQuery, Users.class );
+    }
+
+    @Override
+    public List<Users> fetchUsersWithFields( final Collection<String> emails, final Collection<String> fields ) {
+        final var projectedQuery = query( where( "email" ).in( emails ) ).collation( Collation.parse( Users.EMAIL_COLLATION ) );
+        projectedQuery.fields().include( fields.toArray( String[]::new ) );
+        return mongoTemplate.find( projectedQuery, Users.class );
+    }
+
+    @Override
+    public Stream<Users> streamUsersByEmails( final Collection<String> emails, final int batchSize ) {
+        final var usersQuery = query( where( "email" ).in( emails ) ).collation( Collation.parse( Users.EMAIL_COLLATION ) ).cursorBatchSize( batchSize );
+        return mongoTemplate.stream( usersQuery, Users.class );
+    }
+
+    @Override
+    public Stream<Users> streamUsers( final Criteria criteria, final int limit, final int batchSize ) {
+        return mongoTemplate.stream( query( criteria ).with( Sort.by( "id" ) ).limit( limit ).cursorBatchSize( batchSize ), Users.class );
+    }
+
+    @Override
+    public Stream<Users> streamUsersOrderedById( final Criteria criteria, final int batchSize ) {
+        return mongoTemplate.stream( query( criteria ).with( Sort.by( "id" ) ).cursorBatchSize( batchSize ), Users.class );
+    }
+
+}
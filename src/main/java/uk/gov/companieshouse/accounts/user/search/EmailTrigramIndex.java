@@ -0,0 +1,295 @@
+package uk.gov.companieshouse.accounts.user.search;
+
+import static uk.gov.companieshouse.accounts.user.cache.CollectionChangedEvent.USERS_COLLECTION;
+import static uk.gov.companieshouse.accounts.user.util.StaticPropertyUtil.APPLICATION_NAMESPACE;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.accounts.user.cache.CollectionChangedEvent;
+import uk.gov.companieshouse.accounts.user.models.Users;
+import uk.gov.companieshouse.accounts.user.repositories.UsersRepository;
+import uk.gov.companieshouse.logging.Logger;
+import uk.gov.companieshouse.logging.LoggerFactory;
+
+/**
+ * In-memory inverted index from email trigrams to users. A substring search intersects the
+ * posting lists of the search term's trigrams and only checks the surviving candidates, so the
+ * cost follows the size of the rarest trigram rather than the size of the users collection.
+ * <p>
+ * The index is rebuilt on a schedule and kept up to date in between by the change stream
+ * events for the users collection. Those events carry the new email, so changes that leave the
+ * email alone cost nothing. Without the change stream the index would go stale between rebuilds,
+ * so it is only used when {@code cache.change-stream.enabled} is on too. Until it has been built,
+ * or for search terms shorter than a trigram, {@link #search(String, int)} returns an empty
+ * Optional and callers should query Mongo.
+ */
+@Component
+public class EmailTrigramIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger( APPLICATION_NAMESPACE );
+
+    static final int GRAM_LENGTH = 3;
+    private static final char LIKE_WILDCARD = '*';
+    private static final String EMAIL_FIELD = "email";
+
+    private final UsersRepository usersRepository;
+    private final boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean rebuilding = new AtomicBoolean( false );
+    private final Set<String> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean ready;
+    private InvertedIndex index = new InvertedIndex();
+
+    public EmailTrigramIndex( final UsersRepository usersRepository,
+                              @Value( "${search.trigram-index.enabled:true}" ) final boolean enabled,
+                              @Value( "${cache.change-stream.enabled:true}" ) final boolean changeStreamEnabled ) {
+        this.usersRepository = usersRepository;
+        this.enabled = enabled && changeStreamEnabled;
+        if ( enabled && !changeStreamEnabled ) {
+            LOG.info( "Email trigram index disabled because the cache change stream is disabled; partial email searches will query Mongo" );
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return the ids of at most {@code limit} users whose email contains {@code partialEmail}, the
+     * lowest ids first as a Mongo query sorted by _id would return them, or an empty Optional if the
+     * index cannot answer this search.
+     */
+    public Optional<List<String>> search( final String partialEmail, final int limit ) {
+        if ( !ready || Objects.isNull( partialEmail ) || partialEmail.length() < GRAM_LENGTH || partialEmail.indexOf( LIKE_WILDCARD ) >= 0 ) {
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            return Optional.of( index.search( partialEmail, limit ) );
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Scheduled( initialDelayString = "${search.trigram-index.initial-delay:PT0S}", fixedDelayString = "${search.trigram-index.rebuild-interval:PT30M}" )
+    public void rebuild() {
+        if ( !enabled || !rebuilding.compareAndSet( false, true ) ) {
+            return;
+        }
+
+        changedDuringRebuild.clear();
+        try {
+            final var rebuilt = new InvertedIndex();
+            try ( final var users = usersRepository.streamAllEmails() ) {
+                users.forEach( user -> rebuilt.add( user.getId(), user.getEmail() ) );
+            }
+
+            lock.writeLock().lock();
+            try {
+                index = rebuilt;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            LOG.info( String.format( "Rebuilt email trigram index with %d users", rebuilt.size() ) );
+        } catch ( RuntimeException exception ) {
+            LOG.error( String.format( "Failed to rebuild email trigram index: %s", exception.getMessage() ) );
+        } finally {
+            rebuilding.set( false );
+        }
+
+        changedDuringRebuild.forEach( this::refresh );
+        changedDuringRebuild.clear();
+    }
+
+    @EventListener
+    public void onCollectionChanged( final CollectionChangedEvent event ) {
+        if ( !enabled || !event.isFor( USERS_COLLECTION ) ) {
+            return;
+        }
+
+        if ( event.invalidatesEverything() ) {
+            Thread.ofVirtual().name( "email-trigram-index-rebuild" ).start( this::rebuild );
+            return;
+        }
+
+        final var change = event.change();
+        if ( Objects.nonNull( change ) && !change.touches( EMAIL_FIELD ) ) {
+            return;
+        }
+
+        if ( rebuilding.get() ) {
+            changedDuringRebuild.add( event.documentId() );
+        }
+        if ( Objects.nonNull( change ) ) {
+            update( event.documentId(), change.stringValue( EMAIL_FIELD ) );
+        } else {
+            refresh( event.documentId() );
+        }
+    }
+
+    private void refresh( final String userId ) {
+        try {
+            update( userId, usersRepository.findEmailById( userId ).map( Users::getEmail ) );
+        } catch ( RuntimeException exception ) {
+            LOG.error( String.format( "Failed to refresh user %s in email trigram index: %s", userId, exception.getMessage() ) );
+        }
+    }
+
+    private void update( final String userId, final Optional<String> email ) {
+        lock.writeLock().lock();
+        try {
+            if ( email.isPresent() ) {
+                index.add( userId, email.get() );
+            } else {
+                index.remove( userId );
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    static long[] trigrams( final String value ) {
+        final var lowerCase = value.toLowerCase( Locale.ROOT );
+        if ( lowerCase.length() < GRAM_LENGTH ) {
+            return new long[0];
+        }
+
+        final var grams = new long[ lowerCase.length() - GRAM_LENGTH + 1 ];
+        for ( int i = 0; i < grams.length; i++ ) {
+            grams[i] = ( (long) lowerCase.charAt( i ) << 32 ) | ( (long) lowerCase.charAt( i + 1 ) << 16 ) | lowerCase.charAt( i + 2 );
+        }
+        return Arrays.stream( grams ).sorted().distinct().toArray();
+    }
+
+    /**
+     * Sorted, append-only list of document numbers. Documents are numbered in insertion order,
+     * so appending keeps every list sorted and lists can be intersected with a linear merge.
+     */
+    static final class Postings {
+
+        private int[] documents = new int[4];
+        private int size;
+
+        void add( final int document ) {
+            if ( size == documents.length ) {
+                documents = Arrays.copyOf( documents, size * 2 );
+            }
+            documents[size++] = document;
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * Keeps the first {@code count} entries of {@code candidates} that also appear in this list.
+         *
+         * @return the number of candidates kept
+         */
+        int retainAll( final int[] candidates, final int count ) {
+            int kept = 0;
+            int position = 0;
+            for ( int i = 0; i < count && position < size; i++ ) {
+                while ( position < size && documents[position] < candidates[i] ) {
+                    position++;
+                }
+                if ( position < size && documents[position] == candidates[i] ) {
+                    candidates[kept++] = candidates[i];
+                }
+            }
+            return kept;
+        }
+    }
+
+    static final class InvertedIndex {
+
+        private final Map<String, Integer> documentsByUserId = new HashMap<>();
+        private final List<String> userIds = new ArrayList<>();
+        private final List<String> emails = new ArrayList<>();
+        private final Map<Long, Postings> postingsByTrigram = new HashMap<>();
+
+        int size() {
+            return documentsByUserId.size();
+        }
+
+        void add( final String userId, final String email ) {
+            if ( Objects.isNull( userId ) || Objects.isNull( email ) ) {
+                return;
+            }
+
+            final var current = documentsByUserId.get( userId );
+            if ( Objects.nonNull( current ) && email.equals( emails.get( current ) ) ) {
+                // Re-adding an unchanged email would only leave more stale postings behind.
+                return;
+            }
+
+            remove( userId );
+            final var document = userIds.size();
+            userIds.add( userId );
+            emails.add( email );
+            documentsByUserId.put( userId, document );
+            for ( final long trigram: trigrams( email ) ) {
+                postingsByTrigram.computeIfAbsent( trigram, key -> new Postings() ).add( document );
+            }
+        }
+
+        void remove( final String userId ) {
+            // Postings are left in place and skipped at search time; the next rebuild drops them.
+            final var document = documentsByUserId.remove( userId );
+            if ( Objects.nonNull( document ) ) {
+                emails.set( document, null );
+            }
+        }
+
+        List<String> search( final String partialEmail, final int limit ) {
+            final var postings = new ArrayList<Postings>();
+            for ( final long trigram: trigrams( partialEmail ) ) {
+                final var trigramPostings = postingsByTrigram.get( trigram );
+                if ( Objects.isNull( trigramPostings ) ) {
+                    return List.of();
+                }
+                postings.add( trigramPostings );
+            }
+            postings.sort( Comparator.comparingInt( Postings::size ) );
+
+            final var rarest = postings.getFirst();
+            final var candidates = Arrays.copyOf( rarest.documents, rarest.size );
+            var count = candidates.length;
+            for ( int i = 1; i < postings.size() && count > 0; i++ ) {
+                count = postings.get( i ).retainAll( candidates, count );
+            }
+
+            // Documents are numbered in insertion order, not id order, so every match is needed to find the lowest ids.
+            final var matches = new ArrayList<String>();
+            for ( int i = 0; i < count; i++ ) {
+                final var email = emails.get( candidates[i] );
+                if ( Objects.nonNull( email ) && email.contains( partialEmail ) ) {
+                    matches.add( userIds.get( candidates[i] ) );
+                }
+            }
+            matches.sort( Comparator.naturalOrder() );
+            return matches.size() > limit ? List.copyOf( matches.subList( 0, limit ) ) : matches;
+        }
+    }
+
+}
@@ -2,6 +2,7 @@ package uk.gov.companieshouse.accounts.user.service;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import uk.gov.companieshouse.accounts.user.cache.AdminPermissionsSnapshotCache;
 import uk.gov.companieshouse.accounts.user.mapper.AdminPermissionsDtoDaoMapper;
 import uk.gov.companieshouse.accounts.user.models.AdminPermissions;
 import uk.gov.companieshouse.accounts.user.repositories.AdminPermissionsRepository;
@@ -9,8 +10,10 @@ import uk.gov.companieshouse.api.accounts.user.model.AdminPermissionsGroup;
 import uk.gov.companieshouse.api.accounts.user.model.AdminPermissionsGroups;
 import uk.gov.companieshouse.api.accounts.user.model.PermissionsList;
 import org.springframework.data.mongodb.core.query.Update;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 
@@ -22,15 +25,19 @@ public class AdminPermissionsService {
 
     private final AdminPermissionsDtoDaoMapper adminPermissionsDtoDaoMapper;
 
-    public AdminPermissionsService(AdminPermissionsRepository adminPermissionsRepository, AdminPermissionsDtoDaoMapper adminPermissionsDtoDaoMapper) {
+    private final AdminPermissionsSnapshotCache adminPermissionsSnapshotCache;
+
+    public AdminPermissionsService(AdminPermissionsRepository adminPermissionsRepository, AdminPermissionsDtoDaoMapper adminPermissionsDtoDaoMapper, AdminPermissionsSnapshotCache adminPermissionsSnapshotCache) {
         this.adminPermissionsRepository = adminPermissionsRepository;
         this.adminPermissionsDtoDaoMapper = adminPermissionsDtoDaoMapper;
+        this.adminPermissionsSnapshotCache = adminPermissionsSnapshotCache;
     }
 
     public AdminPermissionsGroups getAdminGroup(){
 
-       List<AdminPermissionsGroup> adminPermissions = adminPermissionsRepository
-               .findAll()
+       List<AdminPermissionsGroup> adminPermissions = adminPermissionsSnapshotCache
+               .current()
+               .groups()
                .stream()
                .map(adminPermissionsDtoDaoMapper::daoToDto).toList();
 
@@ -39,6 +46,14 @@ public class AdminPermissionsService {
         return adminPermissionsGroups;
     }
 
+    /**
+     * @return the union of the permissions granted by the admin permission groups with the supplied
+     * Entra group ids. Groups that have no admin permissions grant nothing.
+     */
+    public Set<String> resolvePermissions(final Collection<String> entraGroupIds){
+        return adminPermissionsSnapshotCache.current().permissionsFor(entraGroupIds);
+    }
+
     public AdminPermissionsGroup addAdminPermissions(final AdminPermissionsGroup adminPermissionsGroup){
         AdminPermissions adminPermissions = adminPermissionsDtoDaoMapper.dtoToDao(adminPermissionsGroup);
         if(adminPermissions.getId() == null) {
@@ -46,6 +61,7 @@ public class AdminPermissionsService {
         }
         if (adminPermissionsRepository.findByEntraGroupId(adminPermissions.getEntraGroupId()) == null){
             var newAdminPermissions = adminPermissionsRepository.insert(adminPermissions);
+            adminPermissionsSnapshotCache.refresh();
             if (newAdminPermissions.getEntraGroupId() != null){
                 return adminPermissionsDtoDaoMapper.daoToDto(newAdminPermissions);
             }
@@ -61,6 +77,7 @@ public class AdminPermissionsService {
             if (! adminPermissionsRepository.existsById(adminPermissionsGroupId)){
                 success = true;
             }
+            adminPermissionsSnapshotCache.refresh();
         }
         return success;
     }
@@ -71,6 +88,7 @@ public class AdminPermissionsService {
             final var permissionsSet = new HashSet<>( permissions );
             final var update = new Update().set( "permissions", permissionsSet );
             success = adminPermissionsRepository.updateRole( adminPermissionsGroupId, update) == 1;
+            adminPermissionsSnapshotCache.refresh();
         }
         return success;
     }
@@ -8,6 +8,7 @@ import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import uk.gov.companieshouse.accounts.user.cache.RolesSnapshotCache;
 import uk.gov.companieshouse.accounts.user.mapper.RolesDtoDaoMapper;
 import uk.gov.companieshouse.accounts.user.models.UserRole;
 import uk.gov.companieshouse.accounts.user.repositories.RolesRepository;
@@ -23,21 +24,25 @@ public class RolesService {
 
     private final RolesDtoDaoMapper rolesDtoDaoMapper;
 
+    private final RolesSnapshotCache rolesSnapshotCache;
 
-    public RolesService(RolesRepository userRolesRepository, RolesDtoDaoMapper rolesDtoDaoMapper) {
+
+    public RolesService(RolesRepository userRolesRepository, RolesDtoDaoMapper rolesDtoDaoMapper, RolesSnapshotCache rolesSnapshotCache) {
         this.userRolesRepository = userRolesRepository;
         this.rolesDtoDaoMapper = rolesDtoDaoMapper;
+        this.rolesSnapshotCache = rolesSnapshotCache;
     }
 
     public Roles getRoles(){
     
-       List<Role> rolesFromDatabase = userRolesRepository
-                                            .findAll()
+       List<Role> rolesFromSnapshot = rolesSnapshotCache
+                                            .current()
+                                            .roles()
                                             .stream()
                                             .map(rolesDtoDaoMapper::daoToDto).collect(Collectors.toList());
 
         Roles roles = new Roles();
-        roles.addAll(rolesFromDatabase);
+        roles.addAll(rolesFromSnapshot);
         return roles;
     }
 
@@ -50,6 +55,7 @@ public class RolesService {
             if (userRolesRepository.existsById(userRole.getId())){
                 success=true;
             }
+            rolesSnapshotCache.refresh();
         }
         return success;
     }
@@ -62,6 +68,7 @@ public class RolesService {
             if (! userRolesRepository.existsById(roleId)){
                 success = true;
             }
+            rolesSnapshotCache.refresh();
         }
         return success;
     }
@@ -72,6 +79,7 @@ public class RolesService {
             final var permissionsSet = new HashSet<>( permissions );
             final var update = new Update().set( "permissions", permissionsSet );
             success = userRolesRepository.updateRole( roleId, update) == 1;
+            rolesSnapshotCache.refresh();
         }
         return success;
     }
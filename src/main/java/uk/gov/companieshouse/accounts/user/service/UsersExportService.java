@@ -0,0 +1,80 @@
+package uk.gov.companieshouse.accounts.user.service;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+import uk.gov.companieshouse.accounts.user.dto.UsersExportFilter;
+import uk.gov.companieshouse.accounts.user.mapper.UsersDtoDaoMapper;
+import uk.gov.companieshouse.accounts.user.repositories.UsersRepository;
+import uk.gov.companieshouse.accounts.user.util.RateLimiter;
+import uk.gov.companieshouse.api.accounts.user.model.User;
+
+/**
+ * Exports the users collection, or part of it, for offline use. Exports can run for a long time,
+ * so unlike {@link UsersService} they are not run in a transaction, and every export shares one
+ * rate limit so that together they cannot crowd out online requests.
+ */
+@Service
+public class UsersExportService {
+
+    private final UsersRepository usersRepository;
+    private final UsersDtoDaoMapper usersDtoDaoMapper;
+    private final RateLimiter rateLimiter;
+    private final int batchSize;
+
+    public UsersExportService( final UsersRepository usersRepository,
+                               final UsersDtoDaoMapper usersDtoDaoMapper,
+                               @Value( "${export.users.rate-limit:1000}" ) final double usersPerSecond,
+                               @Value( "${export.users.batch-size:500}" ) final int batchSize ) {
+        this( usersRepository, usersDtoDaoMapper, new RateLimiter( usersPerSecond ), batchSize );
+    }
+
+    UsersExportService( final UsersRepository usersRepository, final UsersDtoDaoMapper usersDtoDaoMapper, final RateLimiter rateLimiter, final int batchSize ) {
+        this.usersRepository = usersRepository;
+        this.usersDtoDaoMapper = usersDtoDaoMapper;
+        this.rateLimiter = rateLimiter;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Passes each user matching {@code filter} to {@code consumer} in user id order, waiting for
+     * the rate limiter before each one.
+     */
+    public void exportUsers( final UsersExportFilter filter, final Consumer<User> consumer ) {
+        try ( final var users = usersRepository.streamUsersOrderedById( criteria( filter ), batchSize ) ) {
+            users.forEach( user -> {
+                rateLimiter.acquire();
+                consumer.accept( usersDtoDaoMapper.daoToDto( user ) );
+            } );
+        }
+    }
+
+    static Criteria criteria( final UsersExportFilter filter ) {
+        final var criteria = new Criteria();
+        if ( Objects.nonNull( filter.afterUserId() ) ) {
+            criteria.and( "id" ).gt( filter.afterUserId() );
+        }
+        if ( Objects.nonNull( filter.role() ) ) {
+            criteria.and( "roles" ).is( filter.role() );
+        }
+        if ( Objects.nonNull( filter.createdFrom() ) || Objects.nonNull( filter.createdTo() ) ) {
+            final var created = criteria.and( "created" );
+            if ( Objects.nonNull( filter.createdFrom() ) ) {
+                created.gte( filter.createdFrom() );
+            }
+            if ( Objects.nonNull( filter.createdTo() ) ) {
+                created.lt( filter.createdTo() );
+            }
+        }
+        if ( Boolean.TRUE.equals( filter.privateBetaUser() ) ) {
+            criteria.and( "private_beta_user" ).is( true );
+        } else if ( Boolean.FALSE.equals( filter.privateBetaUser() ) ) {
+            // Documents written before the flag existed do not have it, and count as not being in the private beta.
+            criteria.and( "private_beta_user" ).ne( true );
+        }
+        return criteria;
+    }
+
+}
@@ -1,23 +1,61 @@
 package uk.gov.companieshouse.accounts.user.service;
 
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static uk.gov.companieshouse.accounts.user.configuration.CacheConfig.USERS_CACHE;
+import static uk.gov.companieshouse.accounts.user.configuration.CacheConfig.USER_PERMISSIONS_CACHE;
 import static uk.gov.companieshouse.accounts.user.util.StaticPropertyUtil.APPLICATION_NAMESPACE;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.SetOperation;
+import org.springframework.data.mongodb.core.query.MongoRegexCreator;
+import org.springframework.data.mongodb.core.query.MongoRegexCreator.MatchMode;
 import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.data.util.Pair;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import uk.gov.companieshouse.accounts.user.cache.RequestCoalescer;
+import uk.gov.companieshouse.accounts.user.cache.RolesSnapshot;
+import uk.gov.companieshouse.accounts.user.cache.RolesSnapshotCache;
+import uk.gov.companieshouse.accounts.user.cache.UserBatchLoader;
+import uk.gov.companieshouse.accounts.user.dto.PermissionCheck;
+import uk.gov.companieshouse.accounts.user.dto.RoleMembersPage;
+import uk.gov.companieshouse.accounts.user.dto.UserChange;
+import uk.gov.companieshouse.accounts.user.dto.UserChangesPage;
+import uk.gov.companieshouse.accounts.user.dto.UserLookup;
+import uk.gov.companieshouse.accounts.user.dto.UserRolesOperation;
+import uk.gov.companieshouse.accounts.user.dto.UserRolesResult;
+import uk.gov.companieshouse.accounts.user.dto.UsersPage;
+import uk.gov.companieshouse.accounts.user.dto.VersionedUser;
 import uk.gov.companieshouse.accounts.user.exceptions.BadRequestRuntimeException;
-import uk.gov.companieshouse.accounts.user.exceptions.InternalServerErrorRuntimeException;
 import uk.gov.companieshouse.accounts.user.mapper.UsersDtoDaoMapper;
 import uk.gov.companieshouse.accounts.user.models.Users;
-import uk.gov.companieshouse.accounts.user.repositories.RolesRepository;
 import uk.gov.companieshouse.accounts.user.repositories.UsersRepository;
+import uk.gov.companieshouse.accounts.user.search.EmailTrigramIndex;
+import uk.gov.companieshouse.accounts.user.util.KeysetCursor;
+import uk.gov.companieshouse.accounts.user.util.UserFields;
 import uk.gov.companieshouse.api.accounts.user.model.RolesList;
 import uk.gov.companieshouse.api.accounts.user.model.User;
 import uk.gov.companieshouse.logging.Logger;
@@ -28,66 +66,523 @@ import uk.gov.companieshouse.logging.LoggerFactory;
 public class UsersService {
 
     private final UsersRepository usersRepository;
-    private final RolesRepository userRolesRepository;
+    private final RolesSnapshotCache rolesSnapshotCache;
     private final UsersDtoDaoMapper usersDtoDaoMapper;
+    private final EmailTrigramIndex emailTrigramIndex;
+    private final RequestCoalescer requestCoalescer;
+    private final UserBatchLoader userBatchLoader;
+    private final CacheManager cacheManager;
 
     private static final Logger LOG = LoggerFactory.getLogger( APPLICATION_NAMESPACE );
 
     @Value("${database.limit:50}")
     private int limit;
 
-    public UsersService(UsersRepository usersRepository, RolesRepository userRolesRepository, UsersDtoDaoMapper usersDtoDaoMapper) {
+    @Value("${database.email-chunk-size:100}")
+    private int emailChunkSize;
+
+    @Value("${database.email-chunk-concurrency:4}")
+    private int emailChunkConcurrency;
+
+    @Value("${database.stream-batch-size:100}")
+    private int streamBatchSize;
+
+    @Value("${database.changes-settle-time:5s}")
+    private Duration changesSettleTime;
+
+    private static final LocalDateTime CHANGES_EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    public UsersService(UsersRepository usersRepository, RolesSnapshotCache rolesSnapshotCache, UsersDtoDaoMapper usersDtoDaoMapper, EmailTrigramIndex emailTrigramIndex, RequestCoalescer requestCoalescer, UserBatchLoader userBatchLoader, CacheManager cacheManager) {
         this.usersRepository = usersRepository;
-        this.userRolesRepository = userRolesRepository;
+        this.rolesSnapshotCache = rolesSnapshotCache;
         this.usersDtoDaoMapper = usersDtoDaoMapper;
+        this.emailTrigramIndex = emailTrigramIndex;
+        this.requestCoalescer = requestCoalescer;
+        this.userBatchLoader = userBatchLoader;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Trims the emails. Case is left as it is, because emails are compared ignoring case by the
+     * email_case_insensitive index.
+     */
+    private static List<String> normaliseEmails( final List<String> emails ) {
+        return Objects.isNull( emails ) ? null : emails.stream().map( email -> Objects.isNull( email ) ? null : email.trim() ).toList();
+    }
+
+    private static String emailKey( final String email ) {
+        return Objects.isNull( email ) ? null : email.toLowerCase( Locale.ROOT );
+    }
+
+    /**
+     * Removes emails that only differ from an earlier one in case, keeping the first.
+     */
+    private static List<String> distinctEmails( final List<String> emails ) {
+        final var emailsByKey = new LinkedHashMap<String, String>();
+        emails.forEach( email -> emailsByKey.putIfAbsent( emailKey( email ), email ) );
+        return new ArrayList<>( emailsByKey.values() );
     }
 
     public List<User> fetchUsers( final List<String> emails ) {
+        if ( Objects.isNull( emails ) ) {
+            return Objects.requireNonNullElse( usersRepository.fetchUsers( null ), new ArrayList<Users>() )
+                    .stream()
+                    .map( usersDtoDaoMapper::daoToDto )
+                    .collect( Collectors.toList() );
+        }
 
+        final var distinctEmails = distinctEmails( normaliseEmails( emails ) );
 
-        return Objects.requireNonNullElse(usersRepository.fetchUsers(emails), new ArrayList<Users>())
-                              .stream()
-                              .map(usersDtoDaoMapper::daoToDto)
-                .collect(Collectors.toList());
+        // The order and case of the emails do not change which users match, so lookups of the same emails are coalesced.
+        final var emailsKey = distinctEmails.stream().map( UsersService::emailKey ).collect( Collectors.toCollection( HashSet::new ) );
+
+        return requestCoalescer.execute( "fetchUsers", emailsKey, () -> fetchUsersInChunks( distinctEmails )
+                .stream()
+                .map( usersDtoDaoMapper::daoToDto )
+                .collect( Collectors.toList() ) );
+    }
+
+    /**
+     * Passes each user with one of the emails to {@code consumer} as it is read from the cursor,
+     * so that the users are never all held in memory.
+     */
+    public void streamUsers( final List<String> emails, final Consumer<User> consumer ) {
+        try ( final var users = usersRepository.streamUsersByEmails( distinctEmails( normaliseEmails( emails ) ), streamBatchSize ) ) {
+            users.map( usersDtoDaoMapper::daoToDto ).forEach( consumer );
+        }
+    }
+
+    /**
+     * Looks up the users in chunks of {@code database.email-chunk-size} emails, running at most
+     * {@code database.email-chunk-concurrency} chunks at a time on virtual threads. The users are
+     * returned in the order of the emails they matched.
+     */
+    private List<Users> fetchUsersInChunks( final List<String> emails ) {
+        final var chunkSize = Math.max( 1, emailChunkSize );
+        final var chunks = new ArrayList<List<String>>();
+        for ( int from = 0; from < emails.size(); from += chunkSize ) {
+            chunks.add( emails.subList( from, Math.min( from + chunkSize, emails.size() ) ) );
+        }
+
+        final List<Users> users;
+        if ( chunks.size() <= 1 ) {
+            users = new ArrayList<>( Objects.requireNonNullElse( usersRepository.fetchUsers( emails ), List.of() ) );
+        } else {
+            users = new ArrayList<>();
+            final var permits = new Semaphore( emailChunkConcurrency );
+            try ( final var executor = Executors.newVirtualThreadPerTaskExecutor() ) {
+                final var lookups = chunks.stream()
+                        .map( chunk -> executor.submit( () -> {
+                            permits.acquire();
+                            try {
+                                return Objects.requireNonNullElse( usersRepository.fetchUsers( chunk ), List.<Users>of() );
+                            } finally {
+                                permits.release();
+                            }
+                        } ) )
+                        .toList();
+                for ( final Future<List<Users>> lookup: lookups ) {
+                    users.addAll( awaitChunk( lookup ) );
+                }
+            }
+        }
+
+        final var emailOrder = new HashMap<String, Integer>();
+        for ( int index = 0; index < emails.size(); index++ ) {
+            emailOrder.put( emailKey( emails.get( index ) ), index );
+        }
+        users.sort( Comparator.comparingInt( user -> emailOrder.getOrDefault( emailKey( user.getEmail() ), Integer.MAX_VALUE ) ) );
+        return users;
+    }
+
+    private static List<Users> awaitChunk( final Future<List<Users>> lookup ) {
+        try {
+            return lookup.get();
+        } catch ( InterruptedException exception ) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException( "Interrupted while looking up users by email", exception );
+        } catch ( ExecutionException exception ) {
+            if ( exception.getCause() instanceof RuntimeException cause ) {
+                throw cause;
+            }
+            throw new IllegalStateException( exception.getCause() );
+        }
     }
 
     public Optional<User> fetchUser( final String userId ){
-        return usersRepository.findUsersById( userId )
-                              .map( usersDtoDaoMapper::daoToDto );
+        return fetchVersionedUser( userId ).map( VersionedUser::user );
     }
 
-    public boolean userExists( final String userId ){
-        return usersRepository.existsById(userId);
+    /**
+     * Looks the user up in the users cache, loading and caching it on a miss. The user is cached
+     * with the updated timestamp of the document it came from, so callers can describe the version
+     * of the user they send without reading the database again. Users that do not exist are not
+     * cached.
+     */
+    public Optional<VersionedUser> fetchVersionedUser( final String userId ){
+        final var usersCache = Objects.isNull( userId ) ? null : cacheManager.getCache( USERS_CACHE );
+
+        final var cached = Objects.isNull( usersCache ) ? null : usersCache.get( userId, VersionedUser.class );
+        if ( Objects.nonNull( cached ) ){
+            return Optional.of( cached );
+        }
+
+        final var loaded = requestCoalescer.execute( "fetchUser", userId, () ->
+                userBatchLoader.load( userId )
+                               .map( user -> new VersionedUser( usersDtoDaoMapper.daoToDto( user ), user.getUpdated() ) ) );
+        if ( Objects.nonNull( usersCache ) ){
+            loaded.ifPresent( user -> usersCache.put( userId, user ) );
+        }
+        return loaded;
     }
 
-    public int setRoles( final String userId, final RolesList roles ){
+    /**
+     * Looks up all of the users in one query on _id. The result has one entry per requested id,
+     * in the order requested, and users that do not exist are marked as not found.
+     */
+    public List<UserLookup> fetchUsersById( final List<String> userIds ){
+        final Map<String, User> usersById = new HashMap<>();
+        usersRepository.findAllById( new LinkedHashSet<>( userIds ) )
+                       .forEach( user -> usersById.put( user.getId(), usersDtoDaoMapper.daoToDto( user ) ) );
+
+        return userIds.stream()
+                      .map( userId -> usersById.containsKey( userId ) ? UserLookup.found( userId, usersById.get( userId ) ) : UserLookup.notFound( userId ) )
+                      .toList();
+    }
+
+    /**
+     * Reads only the updated timestamp of the user, from the id_updated index, so that conditional
+     * requests can be answered without loading the whole document.
+     */
+    public Optional<LocalDateTime> fetchUserLastUpdated( final String userId ){
+        return usersRepository.findUpdatedById( userId )
+                              .map( Users::getUpdated );
+    }
+
+    public Optional<Map<String, Object>> fetchUserFields( final String userId, final UserFields fields ){
+        return usersRepository.findUsersWithFields( where( "id" ).is( userId ), fields.documentFields(), 1 )
+                              .stream()
+                              .findFirst()
+                              .map( user -> fields.select( usersDtoDaoMapper.daoToDto( user ) ) );
+    }
 
+    public boolean userExists( final String userId ){
+        return userBatchLoader.exists( userId );
+    }
+
+    private void validateRoles( final Collection<String> roles ){
+        final var rolesSnapshot = rolesSnapshotCache.current();
         List<String> errors = new ArrayList<>();
         roles.forEach(role ->{
-            if(!userRolesRepository.existsById(role)){
+            if(!rolesSnapshot.exists(role)){
                errors.add(role);
             }
         });
         if(!errors.isEmpty()){
             throw new BadRequestRuntimeException(String.format("%s not valid role(s)", String.join(",", errors)));
         }
+    }
+
+    @CacheEvict( cacheNames = { USERS_CACHE, USER_PERMISSIONS_CACHE }, key = "#p0", condition = "#p0 != null" )
+    public int setRoles( final String userId, final RolesList roles ){
+        validateRoles( roles );
         final var rolesSet = new HashSet<>( roles );
-        final var update = new Update().set( "roles", rolesSet );
-        return usersRepository.updateUser( userId, update );
+        final var update = new Update().set( "roles", rolesSet ).set( "updated", LocalDateTime.now() );
+        return usersRepository.updateUserCountingMatches( userId, update );
+    }
+
+    /**
+     * Adds and removes roles without replacing the others, so concurrent changes to different
+     * roles of the same user do not overwrite each other. Only the roles being added are
+     * validated, so that roles which no longer exist can still be removed.
+     *
+     * @return the number of users matched, which is 0 when the user does not exist.
+     */
+    @CacheEvict( cacheNames = { USERS_CACHE, USER_PERMISSIONS_CACHE }, key = "#p0", condition = "#p0 != null" )
+    public int patchRoles( final String userId, final Collection<String> rolesToAdd, final Collection<String> rolesToRemove ){
+        validateRoles( rolesToAdd );
+        return usersRepository.updateUserCountingMatches( userId, patchRolesUpdate( rolesToAdd, rolesToRemove ) );
+    }
+
+    /**
+     * Adds and removes roles for many users in one unordered bulk write, validating the roles to
+     * add once for the whole batch. Each user's roles change as in {@link #patchRoles}, and a
+     * change that fails for one user does not stop the others.
+     *
+     * @return the result for each operation, in the order given.
+     */
+    public List<UserRolesResult> patchRolesInBulk( final List<UserRolesOperation> operations ){
+        validateRoles( operations.stream().flatMap( operation -> operation.add().stream() ).collect( Collectors.toSet() ) );
+
+        final var updates = operations.stream()
+                .map( operation -> Pair.of( operation.userId(), patchRolesUpdate( operation.add(), operation.remove() ) ) )
+                .toList();
+
+        final var userIds = operations.stream().map( UserRolesOperation::userId ).toList();
+        final var result = usersRepository.updateUsersInBulk( updates );
+        evictCachedUsers( userIds );
+
+        // Every update that neither matched nor failed was for a user that does not exist. Only then is it worth looking up which.
+        final Set<String> existingUserIds = result.matchedCount() + result.failedIndexes().size() < updates.size()
+                ? usersRepository.findUsersWithFields( where( "id" ).in( userIds ), List.of( "_id" ), 0 ).stream().map( Users::getId ).collect( Collectors.toSet() )
+                : Set.copyOf( userIds );
+
+        final var results = new ArrayList<UserRolesResult>( operations.size() );
+        for ( int index = 0; index < operations.size(); index++ ){
+            final var userId = operations.get( index ).userId();
+            if ( result.failedIndexes().contains( index ) ){
+                results.add( new UserRolesResult( userId, UserRolesResult.Status.FAILED ) );
+            } else if ( !existingUserIds.contains( userId ) ){
+                results.add( new UserRolesResult( userId, UserRolesResult.Status.NOT_FOUND ) );
+            } else {
+                results.add( new UserRolesResult( userId, UserRolesResult.Status.UPDATED ) );
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Mongo will not $addToSet and $pullAll on the same field in one update, so the roles are
+     * recomputed in an update pipeline instead, which changes them in a single atomic write. The
+     * roles are passed as $literal so that a role to remove can never be read as a field path.
+     */
+    private static UpdateDefinition patchRolesUpdate( final Collection<String> rolesToAdd, final Collection<String> rolesToRemove ){
+        final var currentRoles = new Document( "$ifNull", List.of( "$roles", List.of() ) );
+        final var keptRoles = new Document( "$setDifference", List.of( currentRoles, new Document( "$literal", List.copyOf( rolesToRemove ) ) ) );
+        final AggregationExpression roles = context -> new Document( "$setUnion", List.of( keptRoles, new Document( "$literal", List.copyOf( rolesToAdd ) ) ) );
+        return AggregationUpdate.update().set( SetOperation.set( "roles" ).toValueOf( roles ).and().set( "updated" ).toValue( LocalDateTime.now() ) );
+    }
+
+    private void evictCachedUsers( final Collection<String> userIds ){
+        for ( final String cacheName: List.of( USERS_CACHE, USER_PERMISSIONS_CACHE ) ){
+            final var cache = cacheManager.getCache( cacheName );
+            if ( Objects.nonNull( cache ) ){
+                userIds.forEach( cache::evict );
+            }
+        }
+    }
+
+    /**
+     * The permissions resolved for a user, both as strings and as ids in the roles snapshot they
+     * were resolved against.
+     */
+    private record ResolvedPermissions( long rolesVersion, BitSet permissionBits, Set<String> permissions ) {}
+
+    /**
+     * Resolves the permissions granted by the user's roles against the current roles snapshot.
+     * Results are cached per user with the snapshot version they came from. Editing or deleting a
+     * role publishes a new snapshot, which makes every cached result stale at once without
+     * clearing the cache, and changing a user's roles evicts that user's result.
+     *
+     * @return the permissions, or an empty Optional if the user does not exist.
+     */
+    public Optional<Set<String>> fetchUserPermissions( final String userId ){
+        return resolvePermissions( userId, rolesSnapshotCache.current() ).map( ResolvedPermissions::permissions );
+    }
+
+    /**
+     * Checks whether the user has each of {@code permissions}. Once the user's permissions are
+     * cached, each check is a single bit lookup.
+     *
+     * @return one result per permission, in the order given, or an empty Optional if the user does
+     * not exist.
+     */
+    public Optional<List<PermissionCheck>> checkUserPermissions( final String userId, final List<String> permissions ){
+        final var rolesSnapshot = rolesSnapshotCache.current();
+        return resolvePermissions( userId, rolesSnapshot ).map( resolved -> permissions.stream()
+                .map( permission -> new PermissionCheck( permission, rolesSnapshot.grants( resolved.permissionBits(), permission ) ) )
+                .toList() );
+    }
+
+    private Optional<ResolvedPermissions> resolvePermissions( final String userId, final RolesSnapshot rolesSnapshot ){
+        final var permissionsCache = cacheManager.getCache( USER_PERMISSIONS_CACHE );
+
+        final var cached = Objects.isNull( permissionsCache ) ? null : permissionsCache.get( userId, ResolvedPermissions.class );
+        if ( Objects.nonNull( cached ) && cached.rolesVersion() == rolesSnapshot.version() ){
+            return Optional.of( cached );
+        }
+
+        final var user = usersRepository.findUsersWithFields( where( "id" ).is( userId ), List.of( "roles" ), 1 ).stream().findFirst();
+        if ( user.isEmpty() ){
+            return Optional.empty();
+        }
+
+        final var roles = Objects.requireNonNullElse( user.get().getRoles(), List.<String>of() );
+        final var resolved = new ResolvedPermissions( rolesSnapshot.version(), rolesSnapshot.permissionBitsFor( roles ), rolesSnapshot.permissionsFor( roles ) );
+        if ( Objects.nonNull( permissionsCache ) ){
+            permissionsCache.put( userId, resolved );
+        }
+        return Optional.of( resolved );
     }
 
     public List<User> fetchUsersUsingPartialEmail(final String partialEmail) {
 
-        List<Users> foundUsers = usersRepository.findUsersByEmailLike(partialEmail, Limit.of(limit));
-                    
-        return Objects.requireNonNullElse(foundUsers, new ArrayList<Users>())
+        return requestCoalescer.execute("fetchUsersUsingPartialEmail", partialEmail, () -> {
+            List<Users> foundUsers = emailTrigramIndex.search(partialEmail, limit)
+                    .map(userIds -> fetchIndexedUsers(userIds, partialEmail))
+                    .orElseGet(() -> usersRepository.findUsersByEmailLike(partialEmail, Sort.by("id"), Limit.of(limit)));
+
+            return Objects.requireNonNullElse(foundUsers, new ArrayList<Users>())
+                    .stream()
+                    .map(usersDtoDaoMapper::daoToDto)
+                    .collect(Collectors.toList());
+        });
+    }
+
+    public List<Map<String, Object>> fetchUsersFields( final List<String> emails, final UserFields fields ) {
+        return selectFields( usersRepository.fetchUsersWithFields( normaliseEmails( emails ), fields.documentFields() ), fields );
+    }
+
+    /**
+     * As {@link #fetchUsersUsingPartialEmail(String)}, but only the requested fields are read. When
+     * the trigram index has candidates the email is still checked by the query, because the index can
+     * briefly lag behind writes.
+     */
+    public List<Map<String, Object>> fetchUsersFieldsUsingPartialEmail( final String partialEmail, final UserFields fields ) {
+        final var emailRegex = partialEmailRegex( partialEmail );
+
+        final var foundUsers = emailTrigramIndex.search( partialEmail, limit )
+                .map( userIds -> userIds.isEmpty() ? List.<Users>of() :
+                        usersRepository.findUsersWithFieldsOrderedById( where( "id" ).in( userIds ).and( "email" ).regex( emailRegex ), fields.documentFields(), limit ) )
+                .orElseGet( () -> usersRepository.findUsersWithFieldsOrderedById( where( "email" ).regex( emailRegex ), fields.documentFields(), limit ) );
+
+        return selectFields( foundUsers, fields );
+    }
+
+    /**
+     * As {@link #fetchUsersUsingPartialEmail(String)}, but each user is passed to {@code consumer}
+     * as it is read from the cursor.
+     */
+    public void streamUsersUsingPartialEmail( final String partialEmail, final Consumer<User> consumer ) {
+        final var emailRegex = partialEmailRegex( partialEmail );
+        final var criteria = emailTrigramIndex.search( partialEmail, limit )
+                .map( userIds -> where( "id" ).in( userIds ).and( "email" ).regex( emailRegex ) )
+                .orElseGet( () -> where( "email" ).regex( emailRegex ) );
+
+        try ( final var users = usersRepository.streamUsers( criteria, limit, streamBatchSize ) ) {
+            users.map( usersDtoDaoMapper::daoToDto ).forEach( consumer );
+        }
+    }
+
+    /**
+     * Builds the regex that {@link UsersRepository#findUsersByEmailLike} matches a partial email with,
+     * so that every partial email search finds the same users. A leading or trailing * is a wildcard,
+     * and the rest of the partial email is matched literally.
+     */
+    private static String partialEmailRegex( final String partialEmail ) {
+        return MongoRegexCreator.INSTANCE.toRegularExpression( partialEmail, MatchMode.LIKE );
+    }
+
+    private List<Map<String, Object>> selectFields( final List<Users> users, final UserFields fields ) {
+        return users.stream()
+                    .map( user -> fields.select( usersDtoDaoMapper.daoToDto( user ) ) )
+                    .toList();
+    }
+
+    public UsersPage fetchUsersPageUsingPartialEmail(final String partialEmail, final int pageSize, final String cursor) {
+        final var after = KeysetCursor.decode(cursor);
+
+        // One extra user is read to find out whether there is another page after this one.
+        final var users = usersRepository.findUsersByEmailMatchingAfter(partialEmailRegex(partialEmail), after.sortKey(), after.id(),
+                Sort.by("email", "id"), Limit.of(pageSize + 1));
+
+        final var hasNextPage = users.size() > pageSize;
+        final var page = hasNextPage ? users.subList(0, pageSize) : users;
+        final var nextCursor = hasNextPage ? new KeysetCursor(page.getLast().getEmail(), page.getLast().getId()).encode() : null;
+
+        return new UsersPage(page.stream().map(usersDtoDaoMapper::daoToDto).toList(), nextCursor);
+    }
+
+    /**
+     * Fetches a page of the users with {@code role}, in user id order, reading only {@code fields}.
+     * The roles_id index returns the users already in id order, so each page is a range scan
+     * starting after the last id on the previous page.
+     */
+    public RoleMembersPage fetchRoleMembers(final String role, final UserFields fields, final int pageSize, final String cursor, final boolean includeCount) {
+        final var after = KeysetCursor.decode(cursor);
+        if (!after.equals(KeysetCursor.FIRST_PAGE) && !after.sortKey().equals(role)) {
+            throw new BadRequestRuntimeException("Invalid cursor");
+        }
+
+        final var criteria = where("roles").is(role);
+        if (!after.id().isEmpty()) {
+            criteria.and("id").gt(after.id());
+        }
+
+        // One extra user is read to find out whether there is another page after this one.
+        final var users = usersRepository.findUsersWithFieldsOrderedById(criteria, fields.documentFields(), pageSize + 1);
+
+        final var hasNextPage = users.size() > pageSize;
+        final var page = hasNextPage ? users.subList(0, pageSize) : users;
+        final var nextCursor = hasNextPage ? new KeysetCursor(role, page.getLast().getId()).encode() : null;
+        final Long total = includeCount ? usersRepository.countUsersWithRole(role) : null;
+
+        return new RoleMembersPage(page.stream().map(user -> fields.select(usersDtoDaoMapper.daoToDto(user))).toList(), nextCursor, total);
+    }
+
+    /**
+     * Fetches the users updated at or after {@code since}, or after the user that {@code cursor}
+     * points to, oldest change first. Users updated within the last {@code database.changes-settle-time}
+     * are held back, so that a write that commits after a later one is not skipped by a consumer
+     * that has already moved past it.
+     */
+    public UserChangesPage fetchUserChanges(final LocalDateTime since, final int pageSize, final String cursor) {
+        final var after = Objects.isNull(cursor) || cursor.isEmpty()
+                ? new KeysetCursor(Objects.requireNonNullElse(since, CHANGES_EPOCH).toString(), "")
+                : KeysetCursor.decode(cursor);
+
+        final LocalDateTime lastUpdated;
+        try {
+            lastUpdated = LocalDateTime.parse(after.sortKey());
+        } catch (DateTimeParseException exception) {
+            throw new BadRequestRuntimeException("Invalid cursor");
+        }
+
+        // One extra user is read to find out whether there are more changes after this page.
+        final var users = usersRepository.findUsersUpdatedAfter(lastUpdated, after.id(), LocalDateTime.now().minus(changesSettleTime),
+                Sort.by("updated", "id"), Limit.of(pageSize + 1));
+
+        final var hasMore = users.size() > pageSize;
+        final var page = hasMore ? users.subList(0, pageSize) : users;
+        final var nextCursor = page.isEmpty() ? after : new KeysetCursor(page.getLast().getUpdated().toString(), page.getLast().getId());
+
+        return new UserChangesPage(page.stream().map(this::toUserChange).toList(), nextCursor.encode(), hasMore);
+    }
+
+    private UserChange toUserChange(final Users user) {
+        return new UserChange(usersDtoDaoMapper.daoToDto(user), atUtc(user.getUpdated()), atUtc(user.getOneLoginLinkRemovedAt()), user.getOneLoginLinkRemovedBy());
+    }
+
+    private static OffsetDateTime atUtc(final LocalDateTime localDateTime) {
+        return Objects.isNull(localDateTime) ? null : localDateTime.atOffset(ZoneOffset.UTC);
+    }
+
+    private List<Users> fetchIndexedUsers(final List<String> userIds, final String partialEmail) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+
+        // The index can briefly lag behind writes, so the emails are checked again against the loaded documents.
+        final Map<String, Users> usersById = usersRepository.findAllById(userIds)
                 .stream()
-                .map(usersDtoDaoMapper::daoToDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.toMap(Users::getId, Function.identity()));
+
+        return userIds.stream()
+                .map(usersById::get)
+                .filter(Objects::nonNull)
+                .filter(user -> Objects.nonNull(user.getEmail()) && user.getEmail().contains(partialEmail))
+                .toList();
     }
 
+    /**
+     * Unlinks the target user from OneLogin in one conditional findAndModify.
+     *
+     * @return the updated user, or an empty Optional if the target user does not exist or
+     * was not linked to OneLogin, in which case nothing was changed.
+     */
     @Transactional
-    public User unlinkOnelogin( final String targetUserId, final String unlinkedByUserId ){
+    @CacheEvict( cacheNames = USERS_CACHE, key = "#p0", condition = "#p0 != null" )
+    public Optional<User> unlinkOnelogin( final String targetUserId, final String unlinkedByUserId ){
         if ( Objects.isNull( targetUserId ) || Objects.isNull( unlinkedByUserId ) ){
             LOG.error( "targetUserId and unlinkedByUserId cannot be null" );
             throw new IllegalArgumentException( "targetUserId or unlinkedByUserId were null" );
@@ -96,18 +591,11 @@ public class UsersService {
         final var update = new Update()
                 .unset( "one_login_data" )
                 .set( "one_login_link_removed_by", unlinkedByUserId )
-                .set( "one_login_link_removed_at", LocalDateTime.now() );
+                .set( "one_login_link_removed_at", LocalDateTime.now() )
+                .set( "updated", LocalDateTime.now() );
 
-        final var numRecordsUpdated = usersRepository.updateUser( targetUserId, update );
-        if ( numRecordsUpdated == 0 ){
-            LOG.error( String.format( "Failed to update user %s", targetUserId ) );
-            throw new InternalServerErrorRuntimeException( "Failed to update user record" );
-        }
-
-        return fetchUser( targetUserId ).orElseThrow( () -> {
-            LOG.error( String.format( "Updated user %s, but was unable to retrieve updated user record", targetUserId ) );
-            return new InternalServerErrorRuntimeException( "Updated user %s, but was unable to retrieve updated user record" );
-        } );
+        return usersRepository.updateUserIfLinkedToOneLogin( targetUserId, update )
+                              .map( usersDtoDaoMapper::daoToDto );
     }
 
 }
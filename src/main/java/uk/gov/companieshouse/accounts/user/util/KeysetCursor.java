@@ -0,0 +1,42 @@
+package uk.gov.companieshouse.accounts.user.util;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.Base64;
+import java.util.Objects;
+import uk.gov.companieshouse.accounts.user.exceptions.BadRequestRuntimeException;
+
+/**
+ * Opaque continuation token holding the sort key and id of the last document on a page, so the
+ * next page can be fetched with a range query on an index instead of skipping over earlier pages.
+ */
+public record KeysetCursor( String sortKey, String id ) {
+
+    public static final KeysetCursor FIRST_PAGE = new KeysetCursor( "", "" );
+
+    private static final char SEPARATOR = '\n';
+
+    public String encode() {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString( ( sortKey + SEPARATOR + id ).getBytes( UTF_8 ) );
+    }
+
+    public static KeysetCursor decode( final String cursor ) {
+        if ( Objects.isNull( cursor ) || cursor.isEmpty() ) {
+            return FIRST_PAGE;
+        }
+
+        try {
+            final var decoded = new String( Base64.getUrlDecoder().decode( cursor ), UTF_8 );
+            final var separator = decoded.lastIndexOf( SEPARATOR );
+            if ( separator < 0 ) {
+                throw new BadRequestRuntimeException( "Invalid cursor" );
+            }
+            return new KeysetCursor( decoded.substring( 0, separator ), decoded.substring( separator + 1 ) );
+        } catch ( IllegalArgumentException exception ) {
+            throw new BadRequestRuntimeException( "Invalid cursor" );
+        }
+    }
+
+}
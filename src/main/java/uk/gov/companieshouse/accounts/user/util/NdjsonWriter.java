@@ -0,0 +1,61 @@
+package uk.gov.companieshouse.accounts.user.util;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Writes values to a response as newline delimited JSON, one value per line, as they are
+ * produced. The response is flushed after the first line, so that clients start receiving data
+ * straight away, and then every {@code flushEvery} lines.
+ */
+public class NdjsonWriter implements Consumer<Object> {
+
+    private final ObjectWriter objectWriter;
+    private final OutputStream outputStream;
+    private final int flushEvery;
+    private long written;
+
+    private NdjsonWriter( final ObjectWriter objectWriter, final OutputStream outputStream, final int flushEvery ) {
+        this.objectWriter = objectWriter;
+        this.outputStream = outputStream;
+        this.flushEvery = Math.max( 1, flushEvery );
+    }
+
+    public static StreamingResponseBody body( final ObjectWriter objectWriter, final int flushEvery, final Consumer<Consumer<Object>> producer ) {
+        return body( objectWriter, flushEvery, false, producer );
+    }
+
+    /**
+     * As {@link #body(ObjectWriter, int, Consumer)}, gzipping the lines when {@code gzip} is set.
+     * Each flush also flushes the compressor, so gzipped lines reach the client as promptly.
+     */
+    public static StreamingResponseBody body( final ObjectWriter objectWriter, final int flushEvery, final boolean gzip, final Consumer<Consumer<Object>> producer ) {
+        return outputStream -> {
+            final var target = gzip ? new GZIPOutputStream( outputStream, true ) : outputStream;
+            producer.accept( new NdjsonWriter( objectWriter, target, flushEvery ) );
+            if ( target instanceof GZIPOutputStream gzipOutputStream ) {
+                gzipOutputStream.finish();
+            }
+            target.flush();
+        };
+    }
+
+    @Override
+    public void accept( final Object value ) {
+        try {
+            outputStream.write( objectWriter.writeValueAsBytes( value ) );
+            outputStream.write( '\n' );
+            if ( ++written % flushEvery == 1 || flushEvery == 1 ) {
+                outputStream.flush();
+            }
+        } catch ( IOException exception ) {
+            throw new UncheckedIOException( exception );
+        }
+    }
+
+}
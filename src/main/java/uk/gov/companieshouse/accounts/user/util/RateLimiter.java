@@ -0,0 +1,50 @@
+package uk.gov.companieshouse.accounts.user.util;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands out permits at a steady rate shared by every caller. A caller that asks for a permit
+ * before the next one is due is parked until it is, so callers together never go faster than
+ * {@code permitsPerSecond}. A rate of zero or less means no limit. A caller that is interrupted,
+ * such as an export cancelled after its timeout, gets a {@link CancellationException} instead of
+ * a permit.
+ */
+public class RateLimiter {
+
+    private final long nanosPerPermit;
+    private long nextPermitAt;
+
+    public RateLimiter( final double permitsPerSecond ) {
+        this.nanosPerPermit = permitsPerSecond > 0 ? Math.max( 1L, (long) ( 1_000_000_000L / permitsPerSecond ) ) : 0L;
+        this.nextPermitAt = System.nanoTime();
+    }
+
+    public void acquire() {
+        throwIfInterrupted();
+        if ( nanosPerPermit == 0L ) {
+            return;
+        }
+
+        final long permitAt;
+        synchronized ( this ) {
+            // Unused permits are not saved up, so a caller arriving after a quiet spell cannot burst.
+            permitAt = Math.max( System.nanoTime(), nextPermitAt );
+            nextPermitAt = permitAt + nanosPerPermit;
+        }
+
+        // parkNanos can return early, so keep parking until the permit is actually due.
+        long remaining;
+        while ( ( remaining = permitAt - System.nanoTime() ) > 0 ) {
+            LockSupport.parkNanos( remaining );
+            throwIfInterrupted();
+        }
+    }
+
+    private static void throwIfInterrupted() {
+        if ( Thread.currentThread().isInterrupted() ) {
+            throw new CancellationException( "Interrupted while waiting for a permit" );
+        }
+    }
+
+}
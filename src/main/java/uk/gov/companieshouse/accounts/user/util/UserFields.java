@@ -0,0 +1,90 @@
+package uk.gov.companieshouse.accounts.user.util;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import uk.gov.companieshouse.accounts.user.exceptions.BadRequestRuntimeException;
+import uk.gov.companieshouse.api.accounts.user.model.User;
+
+/**
+ * The user fields requested through a {@code fields} query parameter, such as
+ * {@code fields=user_id,email,display_name}. Each field knows the document field it is read from,
+ * so the request can be pushed down to Mongo as a projection, and how to read it back from the
+ * mapped user.
+ */
+public record UserFields( Set<Field> fields ) {
+
+    public enum Field {
+        USER_ID( "user_id", "_id", User::getUserId ),
+        EMAIL( "email", "email", User::getEmail ),
+        FORENAME( "forename", "forename", User::getForename ),
+        SURNAME( "surname", "surname", User::getSurname ),
+        DISPLAY_NAME( "display_name", "display_name", User::getDisplayName ),
+        ROLES( "roles", "roles", User::getRoles ),
+        CREATED( "created", "created", User::getCreated ),
+        HAS_LINKED_ONE_LOGIN( "has_linked_one_login", "one_login_data", User::getHasLinkedOneLogin ),
+        IS_PRIVATE_BETA_USER( "is_private_beta_user", "private_beta_user", User::getIsPrivateBetaUser );
+
+        private final String name;
+        private final String documentField;
+        private final Function<User, Object> getter;
+
+        Field( final String name, final String documentField, final Function<User, Object> getter ) {
+            this.name = name;
+            this.documentField = documentField;
+            this.getter = getter;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDocumentField() {
+            return documentField;
+        }
+    }
+
+    private static final Map<String, Field> FIELDS_BY_NAME = Arrays.stream( Field.values() )
+            .collect( Collectors.toMap( Field::getName, Function.identity() ) );
+
+    public static UserFields parse( final String fields ) {
+        if ( Objects.isNull( fields ) || fields.isBlank() ) {
+            throw new BadRequestRuntimeException( "Please check the request and try again" );
+        }
+
+        final var parsed = EnumSet.noneOf( Field.class );
+        for ( final String name: fields.split( "," ) ) {
+            final var field = FIELDS_BY_NAME.get( name.trim() );
+            if ( Objects.isNull( field ) ) {
+                throw new BadRequestRuntimeException( "Please check the request and try again" );
+            }
+            parsed.add( field );
+        }
+        return new UserFields( parsed );
+    }
+
+    public Set<String> documentFields() {
+        return fields.stream().map( Field::getDocumentField ).collect( Collectors.toSet() );
+    }
+
+    /**
+     * Picks the requested fields out of a user that was mapped from a projected document, in the
+     * order they are declared, leaving out fields that the user does not have.
+     */
+    public Map<String, Object> select( final User user ) {
+        final var selected = new LinkedHashMap<String, Object>();
+        fields.forEach( field -> {
+            final var value = field.getter.apply( user );
+            if ( Objects.nonNull( value ) ) {
+                selected.put( field.getName(), value );
+            }
+        } );
+        return selected;
+    }
+
+}
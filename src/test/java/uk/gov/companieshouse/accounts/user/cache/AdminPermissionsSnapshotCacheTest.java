@@ -0,0 +1,110 @@
+package uk.gov.companieshouse.accounts.user.cache;
+
+import static uk.gov.companieshouse.accounts.user.cache.CollectionChangedEvent.ADMIN_PERMISSIONS_COLLECTION;
+import static uk.gov.companieshouse.accounts.user.cache.CollectionChangedEvent.ROLES_COLLECTION;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.companieshouse.accounts.user.models.AdminPermissions;
+import uk.gov.companieshouse.accounts.user.repositories.AdminPermissionsRepository;
+
+@ExtendWith( MockitoExtension.class )
+@Tag( "unit-test" )
+class AdminPermissionsSnapshotCacheTest {
+
+    @Mock
+    private AdminPermissionsRepository adminPermissionsRepository;
+
+    private AdminPermissionsSnapshotCache adminPermissionsSnapshotCache;
+
+    private static AdminPermissions group( final String id, final String entraGroupId, final String... permissions ){
+        final var group = new AdminPermissions();
+        group.setId( id );
+        group.setEntraGroupId( entraGroupId );
+        group.setPermissions( List.of( permissions ) );
+        return group;
+    }
+
+    @BeforeEach
+    void setup(){
+        adminPermissionsSnapshotCache = new AdminPermissionsSnapshotCache( adminPermissionsRepository, Duration.ofMinutes( 10 ) );
+    }
+
+    @Test
+    void currentLoadsGroupsOnceAndThenServesSnapshot(){
+        Mockito.doReturn( List.of( group( "admin", "adminEntraId", "/admin/roles" ) ) ).when( adminPermissionsRepository ).findAll();
+
+        final var first = adminPermissionsSnapshotCache.current();
+        final var second = adminPermissionsSnapshotCache.current();
+
+        Assertions.assertSame( first, second );
+        Assertions.assertTrue( first.exists( "adminEntraId" ) );
+        Assertions.assertFalse( first.exists( "admin" ) );
+        Mockito.verify( adminPermissionsRepository, Mockito.times( 1 ) ).findAll();
+    }
+
+    @Test
+    void currentReloadsSnapshotOlderThanMaxAge(){
+        final var expiringCache = new AdminPermissionsSnapshotCache( adminPermissionsRepository, Duration.ZERO );
+        Mockito.doReturn( List.of( group( "admin", "adminEntraId" ) ) ).when( adminPermissionsRepository ).findAll();
+
+        final var first = expiringCache.current();
+        final var second = expiringCache.current();
+
+        Assertions.assertTrue( second.version() > first.version() );
+        Mockito.verify( adminPermissionsRepository, Mockito.times( 2 ) ).findAll();
+    }
+
+    @Test
+    void onCollectionChangedSwapsInNewSnapshotForAdminPermissionsChanges(){
+        Mockito.doReturn( List.of( group( "admin", "adminEntraId" ) ), List.of( group( "admin", "adminEntraId" ), group( "supervisor", "supervisorEntraId" ) ) )
+                .when( adminPermissionsRepository ).findAll();
+
+        final var before = adminPermissionsSnapshotCache.current();
+        adminPermissionsSnapshotCache.onCollectionChanged( new CollectionChangedEvent( ADMIN_PERMISSIONS_COLLECTION, "supervisor" ) );
+        final var after = adminPermissionsSnapshotCache.current();
+
+        Assertions.assertFalse( before.exists( "supervisorEntraId" ) );
+        Assertions.assertTrue( after.exists( "supervisorEntraId" ) );
+        Assertions.assertTrue( after.version() > before.version() );
+    }
+
+    @Test
+    void onCollectionChangedIgnoresOtherCollections(){
+        adminPermissionsSnapshotCache.onCollectionChanged( new CollectionChangedEvent( ROLES_COLLECTION, "supervisor" ) );
+
+        Mockito.verifyNoInteractions( adminPermissionsRepository );
+    }
+
+    @Test
+    void permissionsForReturnsUnionOfPermissionsOfKnownGroups(){
+        Mockito.doReturn( List.of( group( "admin", "adminEntraId", "/admin/roles", "/admin/permissions" ),
+                                   group( "supervisor", "supervisorEntraId", "/admin/roles", "/admin/user/search" ),
+                                   group( "ungrouped", null, "/admin/user/export" ) ) )
+                .when( adminPermissionsRepository ).findAll();
+
+        final var permissions = adminPermissionsSnapshotCache.current().permissionsFor( List.of( "adminEntraId", "supervisorEntraId", "unknownEntraId" ) );
+
+        Assertions.assertEquals( Set.of( "/admin/roles", "/admin/permissions", "/admin/user/search" ), permissions );
+    }
+
+    @Test
+    void permissionsForMergesGroupsWithTheSameEntraGroupId(){
+        Mockito.doReturn( List.of( group( "admin", "sharedEntraId", "/admin/roles" ), group( "supervisor", "sharedEntraId", "/admin/user/search" ) ) )
+                .when( adminPermissionsRepository ).findAll();
+
+        final var permissions = adminPermissionsSnapshotCache.current().permissionsFor( List.of( "sharedEntraId" ) );
+
+        Assertions.assertEquals( Set.of( "/admin/roles", "/admin/user/search" ), permissions );
+    }
+
+}
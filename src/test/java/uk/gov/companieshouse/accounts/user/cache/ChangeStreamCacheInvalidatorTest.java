@@ -0,0 +1,96 @@
+package uk.gov.companieshouse.accounts.user.cache;
+
+import static uk.gov.companieshouse.accounts.user.cache.CollectionChangedEvent.ADMIN_PERMISSIONS_COLLECTION;
+import static uk.gov.companieshouse.accounts.user.cache.CollectionChangedEvent.ROLES_COLLECTION;
+import static uk.gov.companieshouse.accounts.user.cache.CollectionChangedEvent.USERS_COLLECTION;
+
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.mongodb.client.model.changestream.UpdateDescription;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import uk.gov.companieshouse.accounts.user.cache.CollectionChangedEvent.DocumentChange;
+
+@ExtendWith( MockitoExtension.class )
+@Tag( "unit-test" )
+class ChangeStreamCacheInvalidatorTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ChangeStreamCacheInvalidator changeStreamCacheInvalidator;
+
+    @BeforeEach
+    void setup(){
+        changeStreamCacheInvalidator = new ChangeStreamCacheInvalidator( mongoTemplate, eventPublisher, new SimpleMeterRegistry(), Duration.ofSeconds( 10 ) );
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private ChangeStreamDocument<Document> change( final OperationType operationType, final String collection, final String id ){
+        final ChangeStreamDocument<Document> change = Mockito.mock( ChangeStreamDocument.class );
+        Mockito.lenient().doReturn( operationType ).when( change ).getOperationType();
+        Mockito.lenient().doReturn( new MongoNamespace( "account", collection ) ).when( change ).getNamespace();
+        Mockito.lenient().doReturn( new BsonDocument( "_id", new BsonString( id ) ) ).when( change ).getDocumentKey();
+        return change;
+    }
+
+    @Test
+    void publishSendsEventForUpdatedUser(){
+        changeStreamCacheInvalidator.publish( change( OperationType.UPDATE, USERS_COLLECTION, "111" ) );
+        Mockito.verify( eventPublisher ).publishEvent( new CollectionChangedEvent( USERS_COLLECTION, "111" ) );
+    }
+
+    @Test
+    void publishSendsFieldsSetAndRemovedByUpdate(){
+        final var change = change( OperationType.UPDATE, USERS_COLLECTION, "111" );
+        final var updatedFields = new BsonDocument( "email", new BsonString( "eminem@rap.com" ) );
+        Mockito.doReturn( new UpdateDescription( List.of( "display_name" ), updatedFields ) ).when( change ).getUpdateDescription();
+
+        changeStreamCacheInvalidator.publish( change );
+
+        Mockito.verify( eventPublisher ).publishEvent( new CollectionChangedEvent( USERS_COLLECTION, "111", new DocumentChange( updatedFields, false, Set.of( "display_name" ) ) ) );
+    }
+
+    @Test
+    void publishSendsWholeDocumentForInsertedUser(){
+        final var change = change( OperationType.INSERT, USERS_COLLECTION, "111" );
+        Mockito.doReturn( new Document( "_id", "111" ).append( "email", "eminem@rap.com" ) ).when( change ).getFullDocument();
+
+        changeStreamCacheInvalidator.publish( change );
+
+        Mockito.verify( eventPublisher ).publishEvent( new CollectionChangedEvent( USERS_COLLECTION, "111",
+                new DocumentChange( new BsonDocument( "_id", new BsonString( "111" ) ).append( "email", new BsonString( "eminem@rap.com" ) ), true, Set.of() ) ) );
+    }
+
+    @Test
+    void publishSendsEventForDeletedRole(){
+        changeStreamCacheInvalidator.publish( change( OperationType.DELETE, ROLES_COLLECTION, "supervisor" ) );
+        Mockito.verify( eventPublisher ).publishEvent( new CollectionChangedEvent( ROLES_COLLECTION, "supervisor", DocumentChange.deleted() ) );
+    }
+
+    @Test
+    void publishInvalidatesWholeCollectionWhenItIsDropped(){
+        changeStreamCacheInvalidator.publish( change( OperationType.DROP, ADMIN_PERMISSIONS_COLLECTION, "x" ) );
+        Mockito.verify( eventPublisher ).publishEvent( new CollectionChangedEvent( ADMIN_PERMISSIONS_COLLECTION, null ) );
+        Mockito.verifyNoMoreInteractions( eventPublisher );
+    }
+
+}
@@ -0,0 +1,123 @@
+package uk.gov.companieshouse.accounts.user.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag( "unit-test" )
+class RequestCoalescerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestCoalescer requestCoalescer;
+
+    @BeforeEach
+    void setup(){
+        meterRegistry = new SimpleMeterRegistry();
+        requestCoalescer = new RequestCoalescer( meterRegistry );
+    }
+
+    private double count( final String operation, final String result ){
+        final var counter = meterRegistry.find( "requests.coalescer" ).tag( "operation", operation ).tag( "result", result ).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private void awaitCoalesced( final String operation ) throws InterruptedException {
+        final var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos( 5 );
+        while ( count( operation, "coalesced" ) < 1 && System.nanoTime() < deadline ){
+            Thread.sleep( 1 );
+        }
+    }
+
+    @Test
+    void concurrentCallersForSameKeyShareOneLoad() throws Exception {
+        final var loads = new AtomicInteger();
+        final var release = new CountDownLatch( 1 );
+
+        try ( final var executor = Executors.newVirtualThreadPerTaskExecutor() ){
+            final var leader = CompletableFuture.supplyAsync( () -> requestCoalescer.execute( "fetchUser", "111", () -> {
+                loads.incrementAndGet();
+                try {
+                    release.await();
+                } catch ( InterruptedException exception ){
+                    Thread.currentThread().interrupt();
+                }
+                return "Eminem";
+            } ), executor );
+
+            while ( loads.get() == 0 ){
+                Thread.sleep( 1 );
+            }
+
+            final var follower = CompletableFuture.supplyAsync( () -> requestCoalescer.execute( "fetchUser", "111", () -> {
+                loads.incrementAndGet();
+                return "Slim Shady";
+            } ), executor );
+
+            awaitCoalesced( "fetchUser" );
+            release.countDown();
+
+            Assertions.assertEquals( "Eminem", leader.get( 5, TimeUnit.SECONDS ) );
+            Assertions.assertEquals( "Eminem", follower.get( 5, TimeUnit.SECONDS ) );
+        }
+
+        Assertions.assertEquals( 1, loads.get() );
+        Assertions.assertEquals( 1, count( "fetchUser", "executed" ) );
+        Assertions.assertEquals( 1, count( "fetchUser", "coalesced" ) );
+    }
+
+    @Test
+    void followersReceiveTheLeadersException() throws Exception {
+        final var release = new CountDownLatch( 1 );
+        final var started = new CountDownLatch( 1 );
+
+        try ( final var executor = Executors.newVirtualThreadPerTaskExecutor() ){
+            final var leader = CompletableFuture.supplyAsync( () -> requestCoalescer.<String>execute( "fetchUser", "111", () -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch ( InterruptedException exception ){
+                    Thread.currentThread().interrupt();
+                }
+                throw new IllegalStateException( "Mongo is down" );
+            } ), executor );
+
+            started.await();
+            final var follower = CompletableFuture.supplyAsync( () -> requestCoalescer.execute( "fetchUser", "111", () -> "Eminem" ), executor );
+
+            awaitCoalesced( "fetchUser" );
+            release.countDown();
+
+            final var leaderException = Assertions.assertThrows( Exception.class, () -> leader.get( 5, TimeUnit.SECONDS ) );
+            final var followerException = Assertions.assertThrows( Exception.class, () -> follower.get( 5, TimeUnit.SECONDS ) );
+            Assertions.assertInstanceOf( IllegalStateException.class, leaderException.getCause() );
+            Assertions.assertInstanceOf( IllegalStateException.class, followerException.getCause() );
+        }
+    }
+
+    @Test
+    void sequentialCallsAreNotCoalesced(){
+        final var loads = new AtomicInteger();
+
+        requestCoalescer.execute( "fetchUser", "111", loads::incrementAndGet );
+        requestCoalescer.execute( "fetchUser", "111", loads::incrementAndGet );
+
+        Assertions.assertEquals( 2, loads.get() );
+        Assertions.assertEquals( 2, count( "fetchUser", "executed" ) );
+        Assertions.assertEquals( 0, count( "fetchUser", "coalesced" ) );
+    }
+
+    @Test
+    void differentOperationsWithSameKeyAreNotCoalesced(){
+        Assertions.assertEquals( "user", requestCoalescer.execute( "fetchUser", "111", () -> "user" ) );
+        Assertions.assertEquals( "users", requestCoalescer.execute( "fetchUsersUsingPartialEmail", "111", () -> "users" ) );
+        Assertions.assertNull( requestCoalescer.execute( "fetchUsers", null, () -> null ) );
+    }
+
+}
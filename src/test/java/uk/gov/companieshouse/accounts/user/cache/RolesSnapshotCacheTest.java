@@ -0,0 +1,157 @@
+package uk.gov.companieshouse.accounts.user.cache;
+
+import static uk.gov.companieshouse.accounts.user.cache.CollectionChangedEvent.ROLES_COLLECTION;
+import static uk.gov.companieshouse.accounts.user.cache.CollectionChangedEvent.USERS_COLLECTION;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.companieshouse.accounts.user.models.UserRole;
+import uk.gov.companieshouse.accounts.user.repositories.RolesRepository;
+
+@ExtendWith( MockitoExtension.class )
+@Tag( "unit-test" )
+class RolesSnapshotCacheTest {
+
+    @Mock
+    private RolesRepository rolesRepository;
+
+    private RolesSnapshotCache rolesSnapshotCache;
+
+    private static UserRole role( final String id, final String... permissions ){
+        final var role = new UserRole();
+        role.setId( id );
+        role.setPermissions( List.of( permissions ) );
+        return role;
+    }
+
+    @BeforeEach
+    void setup(){
+        rolesSnapshotCache = new RolesSnapshotCache( rolesRepository, Duration.ofMinutes( 10 ) );
+    }
+
+    @Test
+    void currentLoadsRolesOnceAndThenServesSnapshot(){
+        Mockito.doReturn( List.of( role( "supervisor", "/admin/user/search" ) ) ).when( rolesRepository ).findAll();
+
+        final var first = rolesSnapshotCache.current();
+        final var second = rolesSnapshotCache.current();
+
+        Assertions.assertSame( first, second );
+        Assertions.assertTrue( first.exists( "supervisor" ) );
+        Assertions.assertFalse( first.exists( "bados_user" ) );
+        Mockito.verify( rolesRepository, Mockito.times( 1 ) ).findAll();
+    }
+
+    @Test
+    void currentReloadsSnapshotOlderThanMaxAge(){
+        final var expiringCache = new RolesSnapshotCache( rolesRepository, Duration.ZERO );
+        Mockito.doReturn( List.of( role( "supervisor" ) ) ).when( rolesRepository ).findAll();
+
+        final var first = expiringCache.current();
+        final var second = expiringCache.current();
+
+        Assertions.assertTrue( second.version() > first.version() );
+        Mockito.verify( rolesRepository, Mockito.times( 2 ) ).findAll();
+    }
+
+    @Test
+    void concurrentReadersOfExpiredSnapshotReloadItOnce() throws Exception {
+        final var expiringCache = new RolesSnapshotCache( rolesRepository, Duration.ofMillis( 500 ) );
+        Mockito.doReturn( List.of( role( "supervisor" ) ) ).when( rolesRepository ).findAll();
+        final var first = expiringCache.current();
+        Thread.sleep( 600 );
+
+        Mockito.doAnswer( invocation -> {
+            Thread.sleep( 100 );
+            return List.of( role( "supervisor" ) );
+        } ).when( rolesRepository ).findAll();
+        final var start = new CountDownLatch( 1 );
+        try ( final var executor = Executors.newFixedThreadPool( 8 ) ) {
+            final var readers = new ArrayList<Future<RolesSnapshot>>();
+            for ( int reader = 0; reader < 8; reader++ ){
+                readers.add( executor.submit( () -> {
+                    start.await();
+                    return expiringCache.current();
+                } ) );
+            }
+            start.countDown();
+            for ( final var reader: readers ){
+                Assertions.assertTrue( reader.get().version() > first.version() );
+            }
+        }
+
+        Mockito.verify( rolesRepository, Mockito.times( 2 ) ).findAll();
+    }
+
+    @Test
+    void onCollectionChangedSwapsInNewSnapshotForRolesChanges(){
+        Mockito.doReturn( List.of( role( "supervisor" ) ), List.of( role( "supervisor" ), role( "bados_user" ) ) ).when( rolesRepository ).findAll();
+
+        final var before = rolesSnapshotCache.current();
+        rolesSnapshotCache.onCollectionChanged( new CollectionChangedEvent( ROLES_COLLECTION, "bados_user" ) );
+        final var after = rolesSnapshotCache.current();
+
+        Assertions.assertFalse( before.exists( "bados_user" ) );
+        Assertions.assertTrue( after.exists( "bados_user" ) );
+        Assertions.assertTrue( after.version() > before.version() );
+    }
+
+    @Test
+    void onCollectionChangedIgnoresOtherCollections(){
+        rolesSnapshotCache.onCollectionChanged( new CollectionChangedEvent( USERS_COLLECTION, "111" ) );
+
+        Mockito.verifyNoInteractions( rolesRepository );
+    }
+
+    @Test
+    void permissionsForReturnsUnionOfPermissionsOfKnownRoles(){
+        Mockito.doReturn( List.of( role( "supervisor", "/admin/user/search", "/admin/roles" ), role( "bados_user", "/admin/roles", "/admin/bados" ) ) )
+                .when( rolesRepository ).findAll();
+
+        final var permissions = rolesSnapshotCache.current().permissionsFor( List.of( "supervisor", "bados_user", "unknown" ) );
+
+        Assertions.assertEquals( Set.of( "/admin/user/search", "/admin/roles", "/admin/bados" ), permissions );
+    }
+
+    @Test
+    void permissionBitsForGrantsOnlyPermissionsOfGivenRoles(){
+        Mockito.doReturn( List.of( role( "supervisor", "/admin/user/search", "/admin/roles" ), role( "bados_user", "/admin/roles", "/admin/bados" ) ) )
+                .when( rolesRepository ).findAll();
+        final var snapshot = rolesSnapshotCache.current();
+
+        final var supervisorBits = snapshot.permissionBitsFor( List.of( "supervisor", "unknown" ) );
+        final var allBits = snapshot.permissionBitsFor( List.of( "supervisor", "bados_user" ) );
+
+        Assertions.assertTrue( snapshot.grants( supervisorBits, "/admin/user/search" ) );
+        Assertions.assertTrue( snapshot.grants( supervisorBits, "/admin/roles" ) );
+        Assertions.assertFalse( snapshot.grants( supervisorBits, "/admin/bados" ) );
+        Assertions.assertFalse( snapshot.grants( supervisorBits, "/admin/unknown" ) );
+        Assertions.assertFalse( snapshot.grants( supervisorBits, null ) );
+        Assertions.assertEquals( 3, allBits.cardinality() );
+        Assertions.assertTrue( snapshot.permissionBitsFor( List.of() ).isEmpty() );
+    }
+
+    @Test
+    void permissionBitsForReturnsCopyThatDoesNotChangeSnapshot(){
+        Mockito.doReturn( List.of( role( "supervisor", "/admin/user/search" ) ) ).when( rolesRepository ).findAll();
+        final var snapshot = rolesSnapshotCache.current();
+
+        snapshot.permissionBitsFor( List.of( "supervisor" ) ).clear();
+
+        Assertions.assertTrue( snapshot.grants( snapshot.permissionBitsFor( List.of( "supervisor" ) ), "/admin/user/search" ) );
+    }
+
+}
@@ -0,0 +1,80 @@
+package uk.gov.companieshouse.accounts.user.cache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag( "unit-test" )
+class SnapshotHolderTest {
+
+    private record Snapshot( long version, Instant loadedAt ) {}
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private SnapshotHolder<Snapshot> holder( final Duration maxAge, final Duration loadTime ){
+        return new SnapshotHolder<>( ( version, loadedAt ) -> {
+            loads.incrementAndGet();
+            try {
+                Thread.sleep( loadTime.toMillis() );
+            } catch ( InterruptedException exception ) {
+                Thread.currentThread().interrupt();
+            }
+            return new Snapshot( version, loadedAt );
+        }, Snapshot::loadedAt, maxAge );
+    }
+
+    @Test
+    void refreshPublishesSnapshotWithNextVersion(){
+        final var snapshots = holder( Duration.ofMinutes( 10 ), Duration.ZERO );
+
+        final var first = snapshots.current();
+        final var refreshed = snapshots.refresh();
+
+        Assertions.assertEquals( 1, first.version() );
+        Assertions.assertEquals( 2, refreshed.version() );
+        Assertions.assertSame( refreshed, snapshots.current() );
+    }
+
+    @Test
+    void clearMakesNextReadLoadSnapshot(){
+        final var snapshots = holder( Duration.ofMinutes( 10 ), Duration.ZERO );
+        snapshots.current();
+
+        snapshots.clear();
+
+        Assertions.assertEquals( 2, snapshots.current().version() );
+        Assertions.assertEquals( 2, loads.get() );
+    }
+
+    @Test
+    void concurrentReadersOfExpiredSnapshotLoadItOnce() throws Exception {
+        final var snapshots = holder( Duration.ofMillis( 500 ), Duration.ofMillis( 100 ) );
+        snapshots.current();
+        Thread.sleep( 600 );
+
+        final var start = new CountDownLatch( 1 );
+        try ( final var executor = Executors.newFixedThreadPool( 8 ) ) {
+            final var readers = new ArrayList<Future<Snapshot>>();
+            for ( int reader = 0; reader < 8; reader++ ){
+                readers.add( executor.submit( () -> {
+                    start.await();
+                    return snapshots.current();
+                } ) );
+            }
+            start.countDown();
+            for ( final var reader: readers ){
+                Assertions.assertEquals( 2, reader.get().version() );
+            }
+        }
+
+        Assertions.assertEquals( 2, loads.get() );
+    }
+
+}
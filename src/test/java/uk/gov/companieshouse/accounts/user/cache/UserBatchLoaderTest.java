@@ -0,0 +1,187 @@
+package uk.gov.companieshouse.accounts.user.cache;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import uk.gov.companieshouse.accounts.user.models.Users;
+import uk.gov.companieshouse.accounts.user.repositories.UsersRepository;
+
+@Tag( "unit-test" )
+class UserBatchLoaderTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private UsersRepository usersRepository;
+    private UserBatchLoader userBatchLoader;
+
+    @BeforeEach
+    void setup(){
+        meterRegistry = new SimpleMeterRegistry();
+        usersRepository = Mockito.mock( UsersRepository.class );
+    }
+
+    @AfterEach
+    void tearDown(){
+        if ( userBatchLoader != null ){
+            userBatchLoader.shutdown();
+        }
+    }
+
+    private static Users user( final String userId ){
+        final var user = new Users();
+        user.setId( userId );
+        return user;
+    }
+
+    private double batches(){
+        return meterRegistry.get( "users.batch.size" ).summary().count();
+    }
+
+    private double batchedReads(){
+        return meterRegistry.get( "users.batch.size" ).summary().totalAmount();
+    }
+
+    @Test
+    @SuppressWarnings( "unchecked" )
+    void concurrentLoadsWithinWindowAreMergedIntoOneQuery() throws Exception {
+        userBatchLoader = new UserBatchLoader( usersRepository, meterRegistry, true, Duration.ofMillis( 500 ), 100 );
+        Mockito.doReturn( List.of( user( "111" ), user( "222" ) ) ).when( usersRepository ).findAllById( any() );
+
+        try ( final var executor = Executors.newVirtualThreadPerTaskExecutor() ){
+            final var eminem = CompletableFuture.supplyAsync( () -> userBatchLoader.load( "111" ), executor );
+            final var theRock = CompletableFuture.supplyAsync( () -> userBatchLoader.load( "222" ), executor );
+            final var eminemAgain = CompletableFuture.supplyAsync( () -> userBatchLoader.load( "111" ), executor );
+            final var nobody = CompletableFuture.supplyAsync( () -> userBatchLoader.load( "999" ), executor );
+
+            Assertions.assertEquals( "111", eminem.get( 5, TimeUnit.SECONDS ).get().getId() );
+            Assertions.assertEquals( "222", theRock.get( 5, TimeUnit.SECONDS ).get().getId() );
+            Assertions.assertEquals( "111", eminemAgain.get( 5, TimeUnit.SECONDS ).get().getId() );
+            Assertions.assertTrue( nobody.get( 5, TimeUnit.SECONDS ).isEmpty() );
+        }
+
+        final ArgumentCaptor<Iterable<String>> userIds = ArgumentCaptor.forClass( Iterable.class );
+        Mockito.verify( usersRepository ).findAllById( userIds.capture() );
+        Assertions.assertEquals( Set.of( "111", "222", "999" ), userIds.getValue() );
+        Mockito.verify( usersRepository, Mockito.never() ).findUsersById( any() );
+        Assertions.assertEquals( 1, batches() );
+        Assertions.assertEquals( 4, batchedReads() );
+    }
+
+    @Test
+    void fullBatchIsSentWithoutWaitingForTheWindow() throws Exception {
+        userBatchLoader = new UserBatchLoader( usersRepository, meterRegistry, true, Duration.ofHours( 1 ), 2 );
+        Mockito.doReturn( List.of( user( "111" ), user( "222" ) ) ).when( usersRepository ).findAllById( any() );
+
+        try ( final var executor = Executors.newVirtualThreadPerTaskExecutor() ){
+            final var eminem = CompletableFuture.supplyAsync( () -> userBatchLoader.load( "111" ), executor );
+            final var theRock = CompletableFuture.supplyAsync( () -> userBatchLoader.load( "222" ), executor );
+
+            Assertions.assertEquals( "111", eminem.get( 5, TimeUnit.SECONDS ).get().getId() );
+            Assertions.assertEquals( "222", theRock.get( 5, TimeUnit.SECONDS ).get().getId() );
+        }
+
+        Mockito.verify( usersRepository ).findAllById( any() );
+        Assertions.assertEquals( 1, batches() );
+    }
+
+    @Test
+    void failedQueryIsRethrownToEveryCallerInTheBatch() throws Exception {
+        userBatchLoader = new UserBatchLoader( usersRepository, meterRegistry, true, Duration.ofHours( 1 ), 2 );
+        Mockito.doThrow( new IllegalStateException( "Mongo is down" ) ).when( usersRepository ).findAllById( any() );
+
+        try ( final var executor = Executors.newVirtualThreadPerTaskExecutor() ){
+            final var eminem = CompletableFuture.supplyAsync( () -> userBatchLoader.load( "111" ), executor );
+            final var theRock = CompletableFuture.supplyAsync( () -> userBatchLoader.load( "222" ), executor );
+
+            final var eminemException = Assertions.assertThrows( Exception.class, () -> eminem.get( 5, TimeUnit.SECONDS ) );
+            final var theRockException = Assertions.assertThrows( Exception.class, () -> theRock.get( 5, TimeUnit.SECONDS ) );
+            Assertions.assertInstanceOf( IllegalStateException.class, eminemException.getCause() );
+            Assertions.assertInstanceOf( IllegalStateException.class, theRockException.getCause() );
+        }
+    }
+
+    @Test
+    void repeatedReadsOfOneUserCountOnceTowardsMaxSize() throws Exception {
+        userBatchLoader = new UserBatchLoader( usersRepository, meterRegistry, true, Duration.ofHours( 1 ), 2 );
+        Mockito.doReturn( List.of( user( "111" ), user( "222" ) ) ).when( usersRepository ).findAllById( any() );
+
+        try ( final var executor = Executors.newVirtualThreadPerTaskExecutor() ){
+            final var eminem = CompletableFuture.supplyAsync( () -> userBatchLoader.load( "111" ), executor );
+            final var eminemAgain = CompletableFuture.supplyAsync( () -> userBatchLoader.load( "111" ), executor );
+            Thread.sleep( 200 );
+            Mockito.verify( usersRepository, Mockito.never() ).findAllById( any() );
+
+            final var theRock = CompletableFuture.supplyAsync( () -> userBatchLoader.load( "222" ), executor );
+
+            Assertions.assertEquals( "111", eminem.get( 5, TimeUnit.SECONDS ).get().getId() );
+            Assertions.assertEquals( "111", eminemAgain.get( 5, TimeUnit.SECONDS ).get().getId() );
+            Assertions.assertEquals( "222", theRock.get( 5, TimeUnit.SECONDS ).get().getId() );
+        }
+
+        Mockito.verify( usersRepository ).findAllById( Set.of( "111", "222" ) );
+        Assertions.assertEquals( 1, batches() );
+        Assertions.assertEquals( 3, batchedReads() );
+    }
+
+    @Test
+    void existsReadsOnlyIdsOfBatchedUsers(){
+        userBatchLoader = new UserBatchLoader( usersRepository, meterRegistry, true, Duration.ofMillis( 1 ), 100 );
+        Mockito.doReturn( List.of( user( "111" ) ) ).when( usersRepository ).findUsersWithFields( any(), eq( List.of( "_id" ) ), eq( 0 ) );
+
+        Assertions.assertTrue( userBatchLoader.exists( "111" ) );
+        Assertions.assertFalse( userBatchLoader.exists( "999" ) );
+        Mockito.verify( usersRepository, Mockito.never() ).findAllById( any() );
+    }
+
+    @Test
+    void shutdownSendsWaitingReadsAndLaterReadsQueryDirectly() throws Exception {
+        userBatchLoader = new UserBatchLoader( usersRepository, meterRegistry, true, Duration.ofHours( 1 ), 100 );
+        Mockito.doReturn( List.of( user( "111" ) ) ).when( usersRepository ).findAllById( any() );
+        Mockito.doReturn( Optional.of( user( "222" ) ) ).when( usersRepository ).findUsersById( "222" );
+        Mockito.doReturn( true ).when( usersRepository ).existsById( "222" );
+
+        try ( final var executor = Executors.newVirtualThreadPerTaskExecutor() ){
+            final var eminem = CompletableFuture.supplyAsync( () -> userBatchLoader.load( "111" ), executor );
+            Thread.sleep( 200 );
+            userBatchLoader.shutdown();
+
+            Assertions.assertEquals( "111", eminem.get( 5, TimeUnit.SECONDS ).get().getId() );
+        }
+
+        Assertions.assertEquals( "222", userBatchLoader.load( "222" ).get().getId() );
+        Assertions.assertTrue( userBatchLoader.exists( "222" ) );
+    }
+
+    @Test
+    void loadWithNullUserIdReturnsEmptyWithoutQuerying(){
+        userBatchLoader = new UserBatchLoader( usersRepository, meterRegistry, true, Duration.ofMillis( 1 ), 100 );
+
+        Assertions.assertTrue( userBatchLoader.load( null ).isEmpty() );
+        Mockito.verifyNoInteractions( usersRepository );
+    }
+
+    @Test
+    void loadWhenDisabledQueriesEachUserDirectly(){
+        userBatchLoader = new UserBatchLoader( usersRepository, meterRegistry, false, Duration.ofMillis( 1 ), 100 );
+        Mockito.doReturn( Optional.of( user( "111" ) ) ).when( usersRepository ).findUsersById( "111" );
+
+        Assertions.assertEquals( "111", userBatchLoader.load( "111" ).get().getId() );
+        Mockito.verify( usersRepository, Mockito.never() ).findAllById( any() );
+        Assertions.assertEquals( 0, batches() );
+    }
+
+}
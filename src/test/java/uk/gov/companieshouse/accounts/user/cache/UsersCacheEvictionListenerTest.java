@@ -0,0 +1,65 @@
+package uk.gov.companieshouse.accounts.user.cache;
+
+import static uk.gov.companieshouse.accounts.user.cache.CollectionChangedEvent.ROLES_COLLECTION;
+import static uk.gov.companieshouse.accounts.user.cache.CollectionChangedEvent.USERS_COLLECTION;
+import static uk.gov.companieshouse.accounts.user.configuration.CacheConfig.USERS_CACHE;
+import static uk.gov.companieshouse.accounts.user.configuration.CacheConfig.USER_PERMISSIONS_CACHE;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import uk.gov.companieshouse.accounts.user.configuration.CacheConfig;
+
+@Tag( "unit-test" )
+class UsersCacheEvictionListenerTest {
+
+    private Cache usersCache;
+    private Cache permissionsCache;
+
+    private UsersCacheEvictionListener usersCacheEvictionListener;
+
+    @BeforeEach
+    void setup(){
+        final var cacheManager = new CacheConfig().cacheManager( 100, Duration.ofMinutes( 1 ) );
+        usersCache = cacheManager.getCache( USERS_CACHE );
+        permissionsCache = cacheManager.getCache( USER_PERMISSIONS_CACHE );
+        usersCacheEvictionListener = new UsersCacheEvictionListener( cacheManager );
+
+        usersCache.put( "111", "Eminem" );
+        usersCache.put( "222", "The Rock" );
+        permissionsCache.put( "111", "Eminem's permissions" );
+        permissionsCache.put( "222", "The Rock's permissions" );
+    }
+
+    @Test
+    void onCollectionChangedEvictsChangedUser(){
+        usersCacheEvictionListener.onCollectionChanged( new CollectionChangedEvent( USERS_COLLECTION, "111" ) );
+
+        Assertions.assertNull( usersCache.get( "111" ) );
+        Assertions.assertNotNull( usersCache.get( "222" ) );
+        Assertions.assertNull( permissionsCache.get( "111" ) );
+        Assertions.assertNotNull( permissionsCache.get( "222" ) );
+    }
+
+    @Test
+    void onCollectionChangedWithoutDocumentIdClearsUsersCache(){
+        usersCacheEvictionListener.onCollectionChanged( new CollectionChangedEvent( USERS_COLLECTION, null ) );
+
+        Assertions.assertNull( usersCache.get( "111" ) );
+        Assertions.assertNull( usersCache.get( "222" ) );
+        Assertions.assertNull( permissionsCache.get( "222" ) );
+    }
+
+    @Test
+    void onCollectionChangedIgnoresOtherCollections(){
+        usersCacheEvictionListener.onCollectionChanged( new CollectionChangedEvent( ROLES_COLLECTION, "111" ) );
+        usersCacheEvictionListener.onCollectionChanged( new CollectionChangedEvent( ROLES_COLLECTION, null ) );
+
+        Assertions.assertNotNull( usersCache.get( "111" ) );
+        Assertions.assertNotNull( usersCache.get( "222" ) );
+    }
+
+}
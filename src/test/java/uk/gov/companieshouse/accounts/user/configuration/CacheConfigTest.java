@@ -0,0 +1,53 @@
+package uk.gov.companieshouse.accounts.user.configuration;
+
+import static uk.gov.companieshouse.accounts.user.configuration.CacheConfig.USERS_CACHE;
+import static uk.gov.companieshouse.accounts.user.configuration.CacheConfig.USER_PERMISSIONS_CACHE;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+@Tag( "unit-test" )
+class CacheConfigTest {
+
+    @Test
+    void cacheManagerRegistersUsersCacheThatRecordsHitsAndMisses(){
+        final var cacheManager = new CacheConfig().cacheManager( 100, Duration.ofMinutes( 1 ) );
+        final var usersCache = (CaffeineCache) cacheManager.getCache( USERS_CACHE );
+
+        Assertions.assertNotNull( usersCache );
+        Assertions.assertTrue( cacheManager.getCacheNames().contains( USERS_CACHE ) );
+
+        usersCache.put( "111", "Eminem" );
+        Assertions.assertNotNull( usersCache.get( "111" ) );
+        Assertions.assertNull( usersCache.get( "999" ) );
+
+        final var stats = usersCache.getNativeCache().stats();
+        Assertions.assertEquals( 1, stats.hitCount() );
+        Assertions.assertEquals( 1, stats.missCount() );
+    }
+
+    @Test
+    void cacheManagerRegistersUserPermissionsCache(){
+        final var cacheManager = new CacheConfig().cacheManager( 100, Duration.ofMinutes( 1 ) );
+
+        Assertions.assertInstanceOf( CaffeineCache.class, cacheManager.getCache( USER_PERMISSIONS_CACHE ) );
+        Assertions.assertTrue( cacheManager.getCacheNames().contains( USER_PERMISSIONS_CACHE ) );
+    }
+
+    @Test
+    void cacheManagerBoundsUsersCacheByMaximumSize(){
+        final var cacheManager = new CacheConfig().cacheManager( 1, Duration.ofMinutes( 1 ) );
+        final var usersCache = (CaffeineCache) cacheManager.getCache( USERS_CACHE );
+
+        usersCache.put( "111", "Eminem" );
+        usersCache.put( "222", "The Rock" );
+        usersCache.put( "333", "Harley Quinn" );
+        usersCache.getNativeCache().cleanUp();
+
+        Assertions.assertTrue( usersCache.getNativeCache().estimatedSize() <= 1 );
+    }
+
+}
@@ -24,6 +24,7 @@ import java.util.List;
 import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
@@ -328,4 +329,44 @@ class AdminPermissionsControllerTest {
             .content(permissionsJson) )
             .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    @DisplayName("Resolving the permissions of many Entra groups")
+    @Test
+    void resolveAdminPermissions() throws Exception {
+
+        when(adminPermissionsService.resolvePermissions(List.of("adminEntraId", "supervisorEntraId"))).thenReturn(Set.of("permission1", "permission3"));
+
+        String responseBody = mockMvc.perform( get( "/internal/admin/permissions/resolve?entra_group_id=adminEntraId&entra_group_id=supervisorEntraId" )
+            .header("X-Request-Id", "theId123") )
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        final var readValue = new ObjectMapper().readValue(responseBody, new TypeReference<Set<String>>(){} );
+
+        Assertions.assertEquals( Set.of("permission1", "permission3"), readValue );
+    }
+
+    @DisplayName("Resolving the permissions of Entra groups - no Entra groups provided")
+    @Test
+    void resolveAdminPermissionsWithoutEntraGroupIds() throws Exception {
+
+         mockMvc.perform( get( "/internal/admin/permissions/resolve" )
+            .header("X-Request-Id", "theId123") )
+            .andExpect(status().isBadRequest());
+
+        Mockito.verify(adminPermissionsService, Mockito.never()).resolvePermissions(anyCollection());
+    }
+
+    @DisplayName("Resolving the permissions of Entra groups - blank Entra group provided")
+    @Test
+    void resolveAdminPermissionsWithBlankEntraGroupId() throws Exception {
+
+         mockMvc.perform( get( "/internal/admin/permissions/resolve?entra_group_id=adminEntraId&entra_group_id=" )
+            .header("X-Request-Id", "theId123") )
+            .andExpect(status().isBadRequest());
+
+        Mockito.verify(adminPermissionsService, Mockito.never()).resolvePermissions(anyCollection());
+    }
+}
@@ -0,0 +1,160 @@
+package uk.gov.companieshouse.accounts.user.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import uk.gov.companieshouse.accounts.user.configuration.InterceptorConfig;
+import uk.gov.companieshouse.accounts.user.dto.UsersExportFilter;
+import uk.gov.companieshouse.accounts.user.service.UsersExportService;
+import uk.gov.companieshouse.accounts.user.util.StaticPropertyUtil;
+import uk.gov.companieshouse.api.accounts.user.model.User;
+
+@Tag( "unit-test" )
+// Exports must outlive the default async request timeout, so it is kept short here.
+@WebMvcTest( controllers = ExportUsersController.class, properties = { "spring.mvc.async.request-timeout=100ms", "export.users.max-concurrent=1" } )
+class ExportUsersControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UsersExportService usersExportService;
+
+    @MockBean
+    private InterceptorConfig interceptorConfig;
+
+    @MockBean
+    private StaticPropertyUtil staticPropertyUtil;
+
+    private void exportEminemAndTheRock( final UsersExportFilter filter ){
+        Mockito.doAnswer( invocation -> {
+            final Consumer<User> consumer = invocation.getArgument( 1 );
+            consumer.accept( new User().userId( "111" ).email( "eminem@rap.com" ) );
+            consumer.accept( new User().userId( "222" ).email( "the.rock@wrestling.com" ) );
+            return null;
+        } ).when( usersExportService ).exportUsers( eq( filter ), any() );
+    }
+
+    private MockHttpServletResponse export( final MockHttpServletRequestBuilder request ) throws Exception {
+        final var asyncResult = mockMvc.perform( request.accept( MediaType.APPLICATION_NDJSON ).header( "X-Request-Id", "theId123" ) )
+                .andExpect( request().asyncStarted() )
+                .andReturn();
+
+        return mockMvc.perform( asyncDispatch( asyncResult ) )
+                .andExpect( status().isOk() )
+                .andExpect( header().string( "Vary", "Accept-Encoding" ) )
+                .andReturn()
+                .getResponse();
+    }
+
+    @Test
+    void exportUsersWritesOneUserPerLine() throws Exception {
+        exportEminemAndTheRock( new UsersExportFilter( null, null, null, null, null ) );
+
+        final var response = export( get( "/internal/users/export" ) );
+
+        final var lines = response.getContentAsString().split( "\n" );
+        Assertions.assertNull( response.getHeader( "Content-Encoding" ) );
+        Assertions.assertEquals( 2, lines.length );
+        Assertions.assertEquals( "111", new ObjectMapper().readValue( lines[ 0 ], User.class ).getUserId() );
+        Assertions.assertEquals( "222", new ObjectMapper().readValue( lines[ 1 ], User.class ).getUserId() );
+    }
+
+    @Test
+    void exportUsersPassesFilterToService() throws Exception {
+        final var filter = new UsersExportFilter( "supervisor", LocalDateTime.of( 2024, 1, 1, 0, 0 ), LocalDateTime.of( 2025, 1, 1, 0, 0 ), true, "111" );
+        exportEminemAndTheRock( filter );
+
+        final var response = export( get( "/internal/users/export?role=supervisor&created_from=2024-01-01T00:00:00&created_to=2025-01-01T00:00&private_beta_user=true&after=111" ) );
+
+        Assertions.assertEquals( 2, response.getContentAsString().split( "\n" ).length );
+    }
+
+    @Test
+    void exportUsersWithAcceptEncodingGzipCompressesBody() throws Exception {
+        exportEminemAndTheRock( new UsersExportFilter( null, null, null, null, null ) );
+
+        final var response = export( get( "/internal/users/export" ).header( "Accept-Encoding", "gzip, deflate" ) );
+
+        Assertions.assertEquals( "gzip", response.getHeader( "Content-Encoding" ) );
+        try ( final var gzip = new GZIPInputStream( new ByteArrayInputStream( response.getContentAsByteArray() ) ) ) {
+            final var lines = new String( gzip.readAllBytes(), StandardCharsets.UTF_8 ).split( "\n" );
+            Assertions.assertEquals( 2, lines.length );
+            Assertions.assertEquals( "222", new ObjectMapper().readValue( lines[ 1 ], User.class ).getUserId() );
+        }
+    }
+
+    @Test
+    void exportUsersKeepsStreamingPastDefaultAsyncRequestTimeout() throws Exception {
+        Mockito.doAnswer( invocation -> {
+            final Consumer<User> consumer = invocation.getArgument( 1 );
+            consumer.accept( new User().userId( "111" ).email( "eminem@rap.com" ) );
+            Thread.sleep( 500 );
+            consumer.accept( new User().userId( "222" ).email( "the.rock@wrestling.com" ) );
+            return null;
+        } ).when( usersExportService ).exportUsers( any(), any() );
+
+        final var response = export( get( "/internal/users/export" ) );
+
+        final var lines = response.getContentAsString().split( "\n" );
+        Assertions.assertEquals( 2, lines.length );
+        Assertions.assertEquals( "222", new ObjectMapper().readValue( lines[ 1 ], User.class ).getUserId() );
+    }
+
+    @Test
+    void exportUsersWithMalformedCreatedDateReturnsBadRequest() throws Exception {
+        mockMvc.perform( get( "/internal/users/export?created_from=yesterday" ).header( "X-Request-Id", "theId123" ) )
+                .andExpect( status().isBadRequest() );
+        Mockito.verifyNoInteractions( usersExportService );
+    }
+
+    @Test
+    void exportUsersWhileTooManyExportsAreRunningReturnsTooManyRequests() throws Exception {
+        final var started = new CountDownLatch( 1 );
+        final var finish = new CountDownLatch( 1 );
+        Mockito.doAnswer( invocation -> {
+            final Consumer<User> consumer = invocation.getArgument( 1 );
+            started.countDown();
+            finish.await();
+            consumer.accept( new User().userId( "111" ).email( "eminem@rap.com" ) );
+            return null;
+        } ).when( usersExportService ).exportUsers( any(), any() );
+
+        final var running = mockMvc.perform( get( "/internal/users/export" ).accept( MediaType.APPLICATION_NDJSON ).header( "X-Request-Id", "theId123" ) )
+                .andExpect( request().asyncStarted() )
+                .andReturn();
+        started.await();
+
+        mockMvc.perform( get( "/internal/users/export" ).accept( MediaType.APPLICATION_NDJSON ).header( "X-Request-Id", "theId456" ) )
+                .andExpect( status().isTooManyRequests() );
+
+        finish.countDown();
+        mockMvc.perform( asyncDispatch( running ) )
+                .andExpect( status().isOk() );
+        Mockito.verify( usersExportService ).exportUsers( any(), any() );
+    }
+
+}
@@ -12,6 +12,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
 import uk.gov.companieshouse.accounts.user.configuration.InterceptorConfig;
+import uk.gov.companieshouse.accounts.user.dto.VersionedUser;
 import uk.gov.companieshouse.accounts.user.service.UsersService;
 import uk.gov.companieshouse.accounts.user.util.StaticPropertyUtil;
 import uk.gov.companieshouse.api.accounts.user.model.RolesList;
@@ -95,7 +96,7 @@ class FindRolesBasedOnUserIDControllerTest {
 
     @Test
     void getUserRolesWithOneUserIdReturnsOneRole() throws Exception {
-        Mockito.doReturn( Optional.of( userEminem ) ).when( usersService ).fetchUser( any() );
+        Mockito.doReturn( Optional.of( new VersionedUser( userEminem, null ) ) ).when( usersService ).fetchVersionedUser( any() );
         final var responseBody =
                 mockMvc.perform( get( "/users/{user_id}/roles", "111" ).header("X-Request-Id", "theId123") )
                         .andExpect(status().isOk())
@@ -112,7 +113,7 @@ class FindRolesBasedOnUserIDControllerTest {
 
     @Test
     void getUserRolesWithOneUserIdReturnsMultipleRoles() throws Exception {
-        Mockito.doReturn( Optional.of( userTheRock ) ).when( usersService ).fetchUser( any() );
+        Mockito.doReturn( Optional.of( new VersionedUser( userTheRock, null ) ) ).when( usersService ).fetchVersionedUser( any() );
         final var responseBody =
                 mockMvc.perform( get( "/users/{user_id}/roles" , "222").header("X-Request-Id", "theId123") )
                         .andExpect(status().isOk()) .andReturn()
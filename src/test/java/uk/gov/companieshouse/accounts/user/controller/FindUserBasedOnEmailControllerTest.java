@@ -10,17 +10,26 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import uk.gov.companieshouse.accounts.user.configuration.InterceptorConfig;
 import uk.gov.companieshouse.accounts.user.service.UsersService;
+import uk.gov.companieshouse.accounts.user.util.UserFields;
 import uk.gov.companieshouse.accounts.user.util.StaticPropertyUtil;
 import uk.gov.companieshouse.api.accounts.user.model.RolesList;
 import uk.gov.companieshouse.api.accounts.user.model.User;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @Tag("unit-test")
@@ -151,4 +160,84 @@ class FindUserBasedOnEmailControllerTest {
         Assertions.assertTrue( users.stream().map( User::getDisplayName ).toList().containsAll( List.of( "Eminem", "The Rock" ) ) );
     }
 
+    @Test
+    void searchUserDetailsWithFieldsReturnsOnlyRequestedFields() throws Exception {
+        Mockito.doReturn( List.of( Map.of( "user_id", "111", "email", "eminem@rap.com" ) ) ).when( usersService ).fetchUsersFields( any(), any() );
+
+        final var responseBody =
+                mockMvc.perform( get( "/users/search?user_email=eminem@rap.com&fields=user_id,email" ).header( "X-Request-Id", "theId123" ) )
+                        .andExpect( status().isOk() )
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+
+        final var users = new ObjectMapper().readTree( responseBody );
+
+        Assertions.assertEquals( 1, users.size() );
+        Assertions.assertEquals( 2, users.get( 0 ).size() );
+        Assertions.assertEquals( "111", users.get( 0 ).get( "user_id" ).asText() );
+        Mockito.verify( usersService ).fetchUsersFields( List.of( "eminem@rap.com" ), new UserFields( EnumSet.of( UserFields.Field.USER_ID, UserFields.Field.EMAIL ) ) );
+        Mockito.verify( usersService, Mockito.never() ).fetchUsers( any() );
+    }
+
+    @Test
+    void searchUserDetailsWithFieldsAndNoMatchesReturnsNoContent() throws Exception {
+        Mockito.doReturn( List.of() ).when( usersService ).fetchUsersFields( any(), any() );
+
+        mockMvc.perform( get( "/users/search?user_email=nobody@nowhere.com&fields=email" ).header( "X-Request-Id", "theId123" ) ).andExpect( status().isNoContent() );
+    }
+
+    @Test
+    void searchUserDetailsWithUnknownFieldsReturnsBadRequest() throws Exception {
+        mockMvc.perform( get( "/users/search?user_email=eminem@rap.com&fields=one_login_data" ).header( "X-Request-Id", "theId123" ) ).andExpect( status().isBadRequest() );
+        Mockito.verifyNoInteractions( usersService );
+    }
+
+    @Test
+    void searchUserDetailsWithTooManyEmailsReturnsBadRequest() throws Exception {
+        final var emails = IntStream.rangeClosed( 1, 5001 ).mapToObj( index -> String.format( "user%d@test.com", index ) ).toArray( String[]::new );
+
+        mockMvc.perform( get( "/users/search" ).param( "user_email", emails ).header( "X-Request-Id", "theId123" ) ).andExpect( status().isBadRequest() );
+        mockMvc.perform( get( "/users/search" ).param( "user_email", emails ).param( "fields", "email" ).header( "X-Request-Id", "theId123" ) ).andExpect( status().isBadRequest() );
+        Mockito.verifyNoInteractions( usersService );
+    }
+
+    @Test
+    void streamUserDetailsWritesOneUserPerLine() throws Exception {
+        Mockito.doAnswer( invocation -> {
+            final Consumer<User> consumer = invocation.getArgument( 1 );
+            consumer.accept( userEminem );
+            consumer.accept( userTheRock );
+            return null;
+        } ).when( usersService ).streamUsers( eq( List.of( "eminem@rap.com", "the.rock@wrestling.com" ) ), any() );
+
+        final var asyncResult =
+                mockMvc.perform( get( "/users/search/stream" )
+                                .param( "user_email", "eminem@rap.com", "the.rock@wrestling.com" )
+                                .accept( MediaType.APPLICATION_NDJSON )
+                                .header( "X-Request-Id", "theId123" ) )
+                        .andExpect( request().asyncStarted() )
+                        .andReturn();
+
+        final var response = mockMvc.perform( asyncDispatch( asyncResult ) )
+                .andExpect( status().isOk() )
+                .andReturn()
+                .getResponse();
+
+        final var lines = response.getContentAsString().split( "\n" );
+        final var objectMapper = new ObjectMapper();
+
+        Assertions.assertTrue( response.getContentType().startsWith( MediaType.APPLICATION_NDJSON_VALUE ) );
+        Assertions.assertEquals( 2, lines.length );
+        Assertions.assertEquals( "Eminem", objectMapper.readValue( lines[ 0 ], User.class ).getDisplayName() );
+        Assertions.assertEquals( "The Rock", objectMapper.readValue( lines[ 1 ], User.class ).getDisplayName() );
+        Mockito.verify( usersService, Mockito.never() ).fetchUsers( any() );
+    }
+
+    @Test
+    void streamUserDetailsWithoutEmailsReturnsBadRequest() throws Exception {
+        mockMvc.perform( get( "/users/search/stream" ).header( "X-Request-Id", "theId123" ) ).andExpect( status().isBadRequest() );
+        Mockito.verifyNoInteractions( usersService );
+    }
+
 }
@@ -10,17 +10,25 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import uk.gov.companieshouse.accounts.user.configuration.InterceptorConfig;
+import uk.gov.companieshouse.accounts.user.dto.UsersPage;
 import uk.gov.companieshouse.accounts.user.service.UsersService;
 import uk.gov.companieshouse.accounts.user.util.StaticPropertyUtil;
 import uk.gov.companieshouse.api.accounts.user.model.RolesList;
 import uk.gov.companieshouse.api.accounts.user.model.User;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @Tag("unit-test")
@@ -138,6 +146,106 @@ class FindUserBasedOnPartialEmailControllerTest {
         void searchUsersDetailsPartialBadRequestEmpty() throws Exception {
              mockMvc.perform(get("/internal/users/search?partial_email").header("X-Request-Id", "theId123"))
                      .andExpect(status().isBadRequest());
-             }         
+             }
+
+    @Test
+    void searchUsersDetailsPageReturnsItemsAndNextCursor() throws Exception {
+
+        Mockito.doReturn(new UsersPage(List.of(harleyQuinn), "next")).when(usersService).fetchUsersPageUsingPartialEmail(eq("ha"), eq(1), isNull());
+
+        final var responseBody =
+                mockMvc.perform(get("/internal/users/search/page?partial_email=ha&page_size=1").header("X-Request-Id", "theId123"))
+                        .andExpect(status().isOk())
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+
+        final var page = new ObjectMapper().readTree(responseBody);
+
+        Assertions.assertEquals(1, page.get("items").size());
+        Assertions.assertEquals("Harley Quinn", page.get("items").get(0).get("display_name").asText());
+        Assertions.assertEquals("next", page.get("next_cursor").asText());
+    }
+
+    @Test
+    void searchUsersDetailsPageWithNoMoreUsersReturnsNoContent() throws Exception {
+
+        Mockito.doReturn(new UsersPage(List.of(), null)).when(usersService).fetchUsersPageUsingPartialEmail(eq("ha"), eq(50), eq("next"));
+
+        mockMvc.perform(get("/internal/users/search/page?partial_email=ha&cursor=next").header("X-Request-Id", "theId123"))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void searchUsersDetailsPageWithoutPartialEmailReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/internal/users/search/page").header("X-Request-Id", "theId123"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void searchUsersDetailsPageWithPageSizeOutOfRangeReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/internal/users/search/page?partial_email=ha&page_size=0").header("X-Request-Id", "theId123"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/internal/users/search/page?partial_email=ha&page_size=501").header("X-Request-Id", "theId123"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void searchUsersDetailsPartialEmailWithFieldsReturnsOnlyRequestedFields() throws Exception {
+        Mockito.doReturn( List.of( Map.of( "email", "harley.quinn@gotham.city" ), Map.of( "email", "harry.potter@under-the-stairs.com" ) ) )
+                .when( usersService ).fetchUsersFieldsUsingPartialEmail( eq( "ha" ), any() );
+
+        final var responseBody =
+                mockMvc.perform( get( "/internal/users/search?partial_email=ha&fields=email" ).header( "X-Request-Id", "theId123" ) )
+                        .andExpect( status().isOk() )
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+
+        final var users = new ObjectMapper().readTree( responseBody );
+
+        Assertions.assertEquals( 2, users.size() );
+        Assertions.assertEquals( 1, users.get( 0 ).size() );
+        Assertions.assertEquals( "harley.quinn@gotham.city", users.get( 0 ).get( "email" ).asText() );
+        Mockito.verify( usersService, Mockito.never() ).fetchUsersUsingPartialEmail( any() );
+    }
+
+    @Test
+    void searchUsersDetailsPartialEmailWithUnknownFieldsReturnsBadRequest() throws Exception {
+        mockMvc.perform( get( "/internal/users/search?partial_email=ha&fields=email,password" ).header( "X-Request-Id", "theId123" ) ).andExpect( status().isBadRequest() );
+        Mockito.verifyNoInteractions( usersService );
+    }
+
+    @Test
+    void streamUsersDetailsPartialEmailWritesOneUserPerLine() throws Exception {
+        Mockito.doAnswer( invocation -> {
+            final Consumer<User> consumer = invocation.getArgument( 1 );
+            consumer.accept( harleyQuinn );
+            consumer.accept( harryPotter );
+            return null;
+        } ).when( usersService ).streamUsersUsingPartialEmail( eq( "ha" ), any() );
+
+        final var asyncResult =
+                mockMvc.perform( get( "/internal/users/search/stream?partial_email=ha" ).accept( MediaType.APPLICATION_NDJSON ).header( "X-Request-Id", "theId123" ) )
+                        .andExpect( request().asyncStarted() )
+                        .andReturn();
+
+        final var lines = mockMvc.perform( asyncDispatch( asyncResult ) )
+                .andExpect( status().isOk() )
+                .andReturn()
+                .getResponse()
+                .getContentAsString()
+                .split( "\n" );
+
+        Assertions.assertEquals( 2, lines.length );
+        Assertions.assertEquals( harleyQuinn.getEmail(), new ObjectMapper().readValue( lines[ 0 ], User.class ).getEmail() );
+        Assertions.assertEquals( harryPotter.getEmail(), new ObjectMapper().readValue( lines[ 1 ], User.class ).getEmail() );
+    }
+
+    @Test
+    void streamUsersDetailsPartialEmailWithoutPartialEmailReturnsBadRequest() throws Exception {
+        mockMvc.perform( get( "/internal/users/search/stream" ).header( "X-Request-Id", "theId123" ) ).andExpect( status().isBadRequest() );
+        Mockito.verifyNoInteractions( usersService );
+    }
 
 }
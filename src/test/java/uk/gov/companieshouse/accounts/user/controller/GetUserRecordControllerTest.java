@@ -1,6 +1,7 @@
 package uk.gov.companieshouse.accounts.user.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
@@ -11,15 +12,27 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
 import uk.gov.companieshouse.accounts.user.configuration.InterceptorConfig;
+import uk.gov.companieshouse.accounts.user.dto.UserChange;
+import uk.gov.companieshouse.accounts.user.dto.UserChangesPage;
+import uk.gov.companieshouse.accounts.user.dto.UserLookup;
+import uk.gov.companieshouse.accounts.user.dto.VersionedUser;
 import uk.gov.companieshouse.accounts.user.service.UsersService;
+import uk.gov.companieshouse.accounts.user.util.UserFields;
 import uk.gov.companieshouse.accounts.user.util.StaticPropertyUtil;
 import uk.gov.companieshouse.api.accounts.user.model.RolesList;
 import uk.gov.companieshouse.api.accounts.user.model.User;
 
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -94,14 +107,14 @@ class GetUserRecordControllerTest {
 
     @Test
     void getUserDetailsWithNonexistentUserIdReturnsNotFound() throws Exception {
-        Mockito.doReturn( Optional.empty() ).when( usersService ).fetchUser( any() );
+        Mockito.doReturn( Optional.empty() ).when( usersService ).fetchVersionedUser( any() );
 
         mockMvc.perform( get( "/users/{user_id}", "999" ).header( "X-Request-Id", "theId123" ) ).andExpect( status().isNotFound() );
     }
 
     @Test
     void getUserDetailsFetchesUserDetails() throws Exception {
-        Mockito.doReturn( Optional.of( userHarleyQuinn ) ).when( usersService ).fetchUser( any() );
+        Mockito.doReturn( Optional.of( new VersionedUser( userHarleyQuinn, null ) ) ).when( usersService ).fetchVersionedUser( any() );
 
         final var responseBody =
                 mockMvc.perform( get( "/users/{user_id}", "333" ).header( "X-Request-Id", "theId123" ) )
@@ -116,4 +129,150 @@ class GetUserRecordControllerTest {
         Assertions.assertEquals( "Harley Quinn", user.getDisplayName() );
     }
 
+    @Test
+    void getUserDetailsSendsVersionOfUserItServes() throws Exception {
+        final var updated = LocalDateTime.of( 2024, 1, 1, 12, 0 );
+        Mockito.doReturn( Optional.of( new VersionedUser( userHarleyQuinn, updated ) ) ).when( usersService ).fetchVersionedUser( "333" );
+
+        final var response =
+                mockMvc.perform( get( "/users/{user_id}", "333" ).header( "X-Request-Id", "theId123" ) )
+                        .andExpect( status().isOk() )
+                        .andReturn()
+                        .getResponse();
+
+        Assertions.assertEquals( VersionedUser.eTag( "333", updated ), response.getHeader( "ETag" ) );
+        Assertions.assertEquals( updated.toInstant( ZoneOffset.UTC ).toEpochMilli(), response.getDateHeader( "Last-Modified" ) );
+
+        mockMvc.perform( get( "/users/{user_id}", "333" ).header( "X-Request-Id", "theId123" ).header( "If-None-Match", VersionedUser.eTag( "333", updated ) ) )
+                .andExpect( status().isNotModified() );
+    }
+
+    @Test
+    void getUsersDetailsReturnsUsersInRequestOrderWithNotFoundMarkers() throws Exception {
+        Mockito.doReturn( List.of( UserLookup.found( "333", userHarleyQuinn ), UserLookup.notFound( "999" ), UserLookup.found( "111", userEminem ) ) )
+                .when( usersService ).fetchUsersById( List.of( "333", "999", "111" ) );
+
+        final var responseBody =
+                mockMvc.perform( get( "/internal/users/bulk?user_id=333&user_id=999&user_id=111" ).header( "X-Request-Id", "theId123" ) )
+                        .andExpect( status().isOk() )
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+
+        final var users = new ObjectMapper().readTree( responseBody );
+
+        Assertions.assertEquals( 3, users.size() );
+        Assertions.assertEquals( "333", users.get( 0 ).get( "user_id" ).asText() );
+        Assertions.assertEquals( "Harley Quinn", users.get( 0 ).get( "user" ).get( "display_name" ).asText() );
+        Assertions.assertEquals( "999", users.get( 1 ).get( "user_id" ).asText() );
+        Assertions.assertFalse( users.get( 1 ).get( "found" ).asBoolean() );
+        Assertions.assertFalse( users.get( 1 ).has( "user" ) );
+        Assertions.assertEquals( "Eminem", users.get( 2 ).get( "user" ).get( "display_name" ).asText() );
+    }
+
+    @Test
+    void getUsersDetailsWithoutUserIdsReturnsBadRequest() throws Exception {
+        mockMvc.perform( get( "/internal/users/bulk" ).header( "X-Request-Id", "theId123" ) ).andExpect( status().isBadRequest() );
+        mockMvc.perform( get( "/internal/users/bulk?user_id=" ).header( "X-Request-Id", "theId123" ) ).andExpect( status().isBadRequest() );
+    }
+
+    @Test
+    void getUsersDetailsWithTooManyUserIdsReturnsBadRequest() throws Exception {
+        final var userIds = IntStream.rangeClosed( 1, 101 ).mapToObj( String::valueOf ).toArray( String[]::new );
+
+        mockMvc.perform( get( "/internal/users/bulk" ).param( "user_id", userIds ).header( "X-Request-Id", "theId123" ) ).andExpect( status().isBadRequest() );
+        Mockito.verify( usersService, Mockito.never() ).fetchUsersById( any() );
+    }
+
+    @Test
+    void getUserChangesReturnsChangesAndNextCursor() throws Exception {
+        final var updated = OffsetDateTime.parse( "2024-01-02T10:15:30Z" );
+        final var page = new UserChangesPage( List.of( new UserChange( userHarleyQuinn, updated, updated, "111" ) ), "next", true );
+        Mockito.doReturn( page ).when( usersService ).fetchUserChanges( LocalDateTime.of( 2024, 1, 1, 11, 0 ), 1, null );
+
+        final var responseBody =
+                mockMvc.perform( get( "/users/changes" ).param( "since", "2024-01-01T12:00:00+01:00" ).param( "page_size", "1" ).header( "X-Request-Id", "theId123" ) )
+                        .andExpect( status().isOk() )
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+
+        final var changes = new ObjectMapper().readTree( responseBody );
+
+        Assertions.assertEquals( "next", changes.get( "next_cursor" ).asText() );
+        Assertions.assertTrue( changes.get( "has_more" ).asBoolean() );
+        Assertions.assertEquals( "333", changes.get( "items" ).get( 0 ).get( "user" ).get( "user_id" ).asText() );
+        Assertions.assertEquals( "111", changes.get( "items" ).get( 0 ).get( "one_login_link_removed_by" ).asText() );
+        Assertions.assertEquals( updated, OffsetDateTime.parse( changes.get( "items" ).get( 0 ).get( "one_login_link_removed_at" ).asText() ) );
+    }
+
+    @Test
+    void getUserChangesWithCursorPassesCursorToService() throws Exception {
+        Mockito.doReturn( new UserChangesPage( List.of(), "abc", false ) ).when( usersService ).fetchUserChanges( null, 50, "abc" );
+
+        mockMvc.perform( get( "/users/changes?cursor=abc" ).header( "X-Request-Id", "theId123" ) ).andExpect( status().isOk() );
+    }
+
+    @Test
+    void getUserChangesWithMalformedSinceOrPageSizeReturnsBadRequest() throws Exception {
+        mockMvc.perform( get( "/users/changes?since=yesterday" ).header( "X-Request-Id", "theId123" ) ).andExpect( status().isBadRequest() );
+        mockMvc.perform( get( "/users/changes?page_size=0" ).header( "X-Request-Id", "theId123" ) ).andExpect( status().isBadRequest() );
+        mockMvc.perform( get( "/users/changes?page_size=501" ).header( "X-Request-Id", "theId123" ) ).andExpect( status().isBadRequest() );
+        Mockito.verifyNoInteractions( usersService );
+    }
+
+    @Test
+    void getUserDetailsWithFieldsReturnsOnlyRequestedFields() throws Exception {
+        Mockito.doReturn( Optional.of( Map.of( "user_id", "333", "display_name", "Harley Quinn" ) ) ).when( usersService ).fetchUserFields( eq( "333" ), any() );
+
+        final var responseBody =
+                mockMvc.perform( get( "/users/{user_id}?fields=user_id,display_name", "333" ).header( "X-Request-Id", "theId123" ) )
+                        .andExpect( status().isOk() )
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+
+        final var user = new ObjectMapper().readTree( responseBody );
+
+        Assertions.assertEquals( 2, user.size() );
+        Assertions.assertEquals( "Harley Quinn", user.get( "display_name" ).asText() );
+        Mockito.verify( usersService ).fetchUserFields( "333", new UserFields( EnumSet.of( UserFields.Field.USER_ID, UserFields.Field.DISPLAY_NAME ) ) );
+        Mockito.verify( usersService, Mockito.never() ).fetchVersionedUser( any() );
+    }
+
+    @Test
+    void getUserDetailsWithUnknownOrEmptyFieldsReturnsBadRequest() throws Exception {
+        mockMvc.perform( get( "/users/{user_id}?fields=user_id,password", "333" ).header( "X-Request-Id", "theId123" ) ).andExpect( status().isBadRequest() );
+        mockMvc.perform( get( "/users/{user_id}?fields=", "333" ).header( "X-Request-Id", "theId123" ) ).andExpect( status().isBadRequest() );
+        Mockito.verifyNoInteractions( usersService );
+    }
+
+    @Test
+    void getUserDetailsWithFieldsAndNonexistentUserIdReturnsNotFound() throws Exception {
+        Mockito.doReturn( Optional.empty() ).when( usersService ).fetchUserFields( any(), any() );
+
+        mockMvc.perform( get( "/users/{user_id}?fields=email", "999" ).header( "X-Request-Id", "theId123" ) ).andExpect( status().isNotFound() );
+    }
+
+    @Test
+    void everyFieldCanBeSelectedFromAFullUser() throws Exception {
+        final var objectMapper = new ObjectMapper().registerModule( new JavaTimeModule() );
+        final var user = new User()
+                .userId( "333" )
+                .forename( "Harleen" )
+                .surname( "Quinzel" )
+                .displayName( "Harley Quinn" )
+                .email( "harley.quinn@gotham.city" )
+                .roles( userHarleyQuinn.getRoles() )
+                .created( OffsetDateTime.now() )
+                .hasLinkedOneLogin( true )
+                .isPrivateBetaUser( false );
+
+        final var everyField = new UserFields( EnumSet.allOf( UserFields.Field.class ) ).select( user );
+        final var serialisedUser = objectMapper.readTree( objectMapper.writeValueAsString( user ) );
+
+        everyField.keySet().forEach( name -> Assertions.assertTrue( serialisedUser.has( name ), name ) );
+        Assertions.assertEquals( UserFields.Field.values().length, everyField.size() );
+    }
+
 }
@@ -47,7 +47,7 @@ class OneloginControllerTest {
         final var targetUserId = "CEOUSER003";
 
         Mockito.doReturn( true ).when( usersService ).userExists( requestingUserId );
-        Mockito.doReturn( Optional.of( testDataManager.fetchUserDtos( targetUserId ).getFirst() ) ).when( usersService ).fetchUser( targetUserId );
+        Mockito.doReturn( Optional.of( testDataManager.fetchUserDtos( targetUserId ).getFirst() ) ).when( usersService ).unlinkOnelogin( targetUserId, requestingUserId );
 
         mockMvc.perform( patch( String.format( "/internal/admin/users/%s", targetUserId ) )
                         .header( "X-Request-Id", "theId12345" )
@@ -59,19 +59,34 @@ class OneloginControllerTest {
                 .andExpect( status().isOk() );
 
         Mockito.verify( usersService ).unlinkOnelogin( targetUserId, requestingUserId );
+        Mockito.verify( usersService, Mockito.never() ).fetchUser( targetUserId );
     }
 
-    static Stream<Arguments> doNothingTestData(){
-        return Stream.of(
-                Arguments.of( "CEOUSER002", "true" ),
-                Arguments.of( "CEOUSER003", "false" )
-        );
+    @Test
+    void updateUserDetailsWithAnAlreadyUnlinkedUserReturnsUserUnchanged() throws Exception {
+        final var requestingUserId = "CEOUSER001";
+        final var targetUserId = "CEOUSER002";
+
+        Mockito.doReturn( true ).when( usersService ).userExists( requestingUserId );
+        Mockito.doReturn( Optional.empty() ).when( usersService ).unlinkOnelogin( targetUserId, requestingUserId );
+        Mockito.doReturn( Optional.of( testDataManager.fetchUserDtos( targetUserId ).getFirst() ) ).when( usersService ).fetchUser( targetUserId );
+
+        mockMvc.perform( patch( String.format( "/internal/admin/users/%s", targetUserId ) )
+                        .header( "X-Request-Id", "theId12345" )
+                        .header( "ERIC-Identity", requestingUserId )
+                        .header( "ERIC-Identity-Type", "oauth2" )
+                        .header( "ERIC-Authorised-Roles", "/admin/user/unlinkonelogin" )
+                        .content( "{ \"unlinkOneLogin\" : true }" )
+                        .contentType( MediaType.APPLICATION_JSON ) )
+                .andExpect( status().isOk() );
+
+        Mockito.verify( usersService ).fetchUser( targetUserId );
     }
 
-    @ParameterizedTest
-    @MethodSource( "doNothingTestData" )
-    void updateUserDetailsWithAnAlreadyUnlinkedUserOrUnlinkOneLoginSetToFalseDoesNothing( final String targetUserId, final String unlinkedOneLogin ) throws Exception {
+    @Test
+    void updateUserDetailsWithUnlinkOneLoginSetToFalseDoesNothing() throws Exception {
         final var requestingUserId = "CEOUSER001";
+        final var targetUserId = "CEOUSER003";
 
         Mockito.doReturn( true ).when( usersService ).userExists( requestingUserId );
         Mockito.doReturn( Optional.of( testDataManager.fetchUserDtos( targetUserId ).getFirst() ) ).when( usersService ).fetchUser( targetUserId );
@@ -81,7 +96,7 @@ class OneloginControllerTest {
                         .header( "ERIC-Identity", requestingUserId )
                         .header( "ERIC-Identity-Type", "oauth2" )
                         .header( "ERIC-Authorised-Roles", "/admin/user/unlinkonelogin" )
-                        .content( String.format( "{ \"unlinkOneLogin\" : %s }", unlinkedOneLogin ) )
+                        .content( "{ \"unlinkOneLogin\" : false }" )
                         .contentType( MediaType.APPLICATION_JSON ) )
                 .andExpect( status().isOk() );
 
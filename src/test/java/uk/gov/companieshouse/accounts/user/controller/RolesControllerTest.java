@@ -9,6 +9,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.junit.jupiter.api.Assertions;
@@ -26,10 +27,12 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import uk.gov.companieshouse.accounts.user.configuration.InterceptorConfig;
+import uk.gov.companieshouse.accounts.user.dto.RoleMembersPage;
 import uk.gov.companieshouse.accounts.user.models.UserRole;
 import uk.gov.companieshouse.accounts.user.service.RolesService;
 import uk.gov.companieshouse.accounts.user.service.UsersService;
 import uk.gov.companieshouse.accounts.user.util.StaticPropertyUtil;
+import uk.gov.companieshouse.accounts.user.util.UserFields;
 import uk.gov.companieshouse.api.accounts.user.model.PermissionsList;
 import uk.gov.companieshouse.api.accounts.user.model.Role;
 import uk.gov.companieshouse.api.accounts.user.model.Roles;
@@ -330,5 +333,59 @@ class RolesControllerTest {
             .contentType( "application/json" )
             .content(permissionsJson) )
             .andExpect(status().isBadRequest());
-    }      
-}
\ No newline at end of file
+    }
+
+    @DisplayName("Fetching the users with a role returns their ids by default")
+    @Test
+    void getRoleMembersReturnsUserIdsByDefault() throws Exception {
+        when(usersService.fetchRoleMembers(any(), any(), Mockito.anyInt(), any(), Mockito.anyBoolean()))
+                .thenReturn(new RoleMembersPage(List.of(Map.of("user_id", "111")), "next", null));
+
+        final var responseBody = mockMvc.perform( get( "/internal/admin/roles/supervisor/users" )
+            .header("X-Request-Id", "theId123") )
+            .andExpect( status().isOk() )
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        Assertions.assertEquals( "{\"items\":[{\"user_id\":\"111\"}],\"next_cursor\":\"next\"}", responseBody );
+        Mockito.verify(usersService).fetchRoleMembers("supervisor", UserFields.parse("user_id"), 50, null, false);
+    }
+
+    @DisplayName("Fetching the users with a role can project fields and count them")
+    @Test
+    void getRoleMembersWithFieldsAndCount() throws Exception {
+        when(usersService.fetchRoleMembers(any(), any(), Mockito.anyInt(), any(), Mockito.anyBoolean()))
+                .thenReturn(new RoleMembersPage(List.of(Map.of("user_id", "111", "email", "eminem@rap.com")), null, 1L));
+
+        final var responseBody = mockMvc.perform( get( "/internal/admin/roles/supervisor/users" )
+            .header("X-Request-Id", "theId123")
+            .param("fields", "user_id,email")
+            .param("page_size", "10")
+            .param("cursor", "abc")
+            .param("include_count", "true") )
+            .andExpect( status().isOk() )
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        Assertions.assertTrue( responseBody.contains( "\"total\":1" ) );
+        Mockito.verify(usersService).fetchRoleMembers("supervisor", UserFields.parse("user_id,email"), 10, "abc", true);
+    }
+
+    @DisplayName("Fetching the users with a role - malformed request")
+    @Test
+    void getRoleMembersWithBadPageSizeOrFieldsReturnsBadRequest() throws Exception {
+        mockMvc.perform( get( "/internal/admin/roles/supervisor/users" )
+            .header("X-Request-Id", "theId123")
+            .param("page_size", "0") )
+            .andExpect( status().isBadRequest() );
+
+        mockMvc.perform( get( "/internal/admin/roles/supervisor/users" )
+            .header("X-Request-Id", "theId123")
+            .param("fields", "password") )
+            .andExpect( status().isBadRequest() );
+
+        Mockito.verify(usersService, Mockito.never()).fetchRoleMembers(any(), any(), Mockito.anyInt(), any(), Mockito.anyBoolean());
+    }
+}
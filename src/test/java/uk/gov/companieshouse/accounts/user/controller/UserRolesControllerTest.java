@@ -12,6 +12,10 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
 import uk.gov.companieshouse.accounts.user.configuration.InterceptorConfig;
+import uk.gov.companieshouse.accounts.user.dto.PermissionCheck;
+import uk.gov.companieshouse.accounts.user.dto.UserRolesOperation;
+import uk.gov.companieshouse.accounts.user.dto.UserRolesResult;
+import uk.gov.companieshouse.accounts.user.dto.VersionedUser;
 import uk.gov.companieshouse.accounts.user.models.Users;
 import uk.gov.companieshouse.accounts.user.service.UsersService;
 import uk.gov.companieshouse.accounts.user.util.StaticPropertyUtil;
@@ -25,6 +29,8 @@ import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -118,7 +124,7 @@ public class UserRolesControllerTest {
 
     @Test
     void getUserRolesForValidUserDetails() throws Exception {
-        Mockito.doReturn( Optional.of( userTheRock ) ).when( usersService ).fetchUser( any() );
+        Mockito.doReturn( Optional.of( new VersionedUser( userTheRock, null ) ) ).when( usersService ).fetchVersionedUser( any() );
 
         final var responseBody =
                 mockMvc.perform( get( "/users/{user_id}/roles", "222" ).header( "X-Request-Id", "theId123" ) )
@@ -168,6 +174,7 @@ public class UserRolesControllerTest {
     @Test
     void setUserRolesWithNonexistentUserReturnsNotFound() throws Exception {
         Mockito.doReturn(Optional.empty()).when(usersService).fetchUser(any());
+        Mockito.doReturn( 0 ).when( usersService ).setRoles( any(), any() );
 
         final var objectMapper = new ObjectMapper();
         final var roles = objectMapper.writeValueAsString( List.of("support-member") );
@@ -181,7 +188,7 @@ public class UserRolesControllerTest {
 
     @Test
     void setUserRolesWithOneRoleSetsTheUsersRole() throws Exception {
-        Mockito.doReturn( true ).when(usersService ).userExists( any() );
+        Mockito.doReturn( 1 ).when( usersService ).setRoles( any(), any() );
 
         final var objectMapper = new ObjectMapper();
         final var roles = objectMapper.writeValueAsString( List.of("support-member") );
@@ -195,12 +202,13 @@ public class UserRolesControllerTest {
         RolesList rolesList = new RolesList();
         rolesList.add("support_member");
         Mockito.verify( usersService ).setRoles( "333", rolesList);
+        Mockito.verify( usersService, Mockito.never() ).userExists( any() );
     }
 
     @Test
     void setUserRolesWithMultipleRolesSetsTheUsersRoles() throws Exception {
         Mockito.doReturn( Optional.of( userHarleyQuinn ) ).when(usersService ).fetchUser( any() );
-        Mockito.doReturn( true ).when(usersService ).userExists( any() );
+        Mockito.doReturn( 1 ).when( usersService ).setRoles( any(), any() );
 
 
         final var objectMapper = new ObjectMapper();
@@ -220,7 +228,7 @@ public class UserRolesControllerTest {
 
     @Test
     void setUserRolesWithDuplicatesRolesSetsTheRoleOnce() throws Exception {
-        Mockito.doReturn( true ).when(usersService ).userExists( any() );
+        Mockito.doReturn( 1 ).when( usersService ).setRoles( any(), any() );
 
         final var objectMapper = new ObjectMapper();
         final var roles = objectMapper.writeValueAsString( List.of("support-member", "support-member" ) );
@@ -237,7 +245,7 @@ public class UserRolesControllerTest {
 
     @Test
     void setUserRolesCreatesNewRoleFieldWhenNotPresent() throws Exception {
-        Mockito.doReturn( true ).when(usersService ).userExists( any() );
+        Mockito.doReturn( 1 ).when( usersService ).setRoles( any(), any() );
 
         final var objectMapper = new ObjectMapper();
         final var roles = objectMapper.writeValueAsString( List.of("support-member") );
@@ -257,7 +265,7 @@ public class UserRolesControllerTest {
 
     @Test
     void setUserRolesReturnsInternalServerErrorWhenDatabaseFailsToUpdate() throws Exception {
-        Mockito.doReturn( true ).when(usersService ).userExists( any() );
+        Mockito.doReturn( 1 ).when( usersService ).setRoles( any(), any() );
         Mockito.doThrow( RuntimeException.class ).when( usersService ).setRoles( any(), any() );
 
         final var objectMapper = new ObjectMapper();
@@ -272,4 +280,191 @@ public class UserRolesControllerTest {
 
     }
 
+    @Test
+    void getUserPermissionsReturnsResolvedPermissions() throws Exception {
+        Mockito.doReturn( Optional.of( Set.of( "/admin/user/search", "/admin/roles" ) ) ).when( usersService ).fetchUserPermissions( "111" );
+
+        final var responseBody =
+                mockMvc.perform( get( "/users/{user_id}/permissions", "111" ).header( "X-Request-Id", "theId123" ) )
+                        .andExpect( status().isOk() )
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+
+        final var permissions = new ObjectMapper().readValue( responseBody, new TypeReference<Set<String>>(){} );
+        Assertions.assertEquals( Set.of( "/admin/user/search", "/admin/roles" ), permissions );
+    }
+
+    @Test
+    void getUserPermissionsWithNonexistentUserReturnsNotFound() throws Exception {
+        Mockito.doReturn( Optional.empty() ).when( usersService ).fetchUserPermissions( "999" );
+
+        mockMvc.perform( get( "/users/{user_id}/permissions", "999" ).header( "X-Request-Id", "theId123" ) )
+                .andExpect( status().isNotFound() );
+    }
+
+    @Test
+    void checkUserPermissionsReturnsResultForEachPermission() throws Exception {
+        Mockito.doReturn( Optional.of( List.of( new PermissionCheck( "/admin/roles", true ), new PermissionCheck( "/admin/bados", false ) ) ) )
+                .when( usersService ).checkUserPermissions( "111", List.of( "/admin/roles", "/admin/bados" ) );
+
+        final var responseBody =
+                mockMvc.perform( get( "/users/{user_id}/permissions/check", "111" )
+                                .header( "X-Request-Id", "theId123" )
+                                .param( "permission", "/admin/roles", "/admin/bados" ) )
+                        .andExpect( status().isOk() )
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+
+        Assertions.assertEquals( "[{\"permission\":\"/admin/roles\",\"granted\":true},{\"permission\":\"/admin/bados\",\"granted\":false}]", responseBody );
+    }
+
+    @Test
+    void checkUserPermissionsWithoutPermissionsReturnsBadRequest() throws Exception {
+        mockMvc.perform( get( "/users/{user_id}/permissions/check", "111" ).header( "X-Request-Id", "theId123" ) )
+                .andExpect( status().isBadRequest() );
+
+        Mockito.verify( usersService, Mockito.never() ).checkUserPermissions( any(), any() );
+    }
+
+    @Test
+    void checkUserPermissionsWithNonexistentUserReturnsNotFound() throws Exception {
+        Mockito.doReturn( Optional.empty() ).when( usersService ).checkUserPermissions( any(), any() );
+
+        mockMvc.perform( get( "/users/{user_id}/permissions/check", "999" )
+                        .header( "X-Request-Id", "theId123" )
+                        .param( "permission", "/admin/roles" ) )
+                .andExpect( status().isNotFound() );
+    }
+
+    @Test
+    void patchUserRolesAddsAndRemovesRoles() throws Exception {
+        Mockito.doReturn( 1 ).when( usersService ).patchRoles( any(), any(), any() );
+
+        mockMvc.perform( patch( "/users/{user_id}/roles", "333" )
+                        .header( "X-Request-Id", "theId123" )
+                        .contentType( "application/json" )
+                        .content( "{\"add\":[\"supervisor\",\"supervisor\"],\"remove\":[\"appeals_team\"]}" ) )
+                .andExpect( status().isOk() );
+
+        Mockito.verify( usersService ).patchRoles( "333", Set.of( "supervisor" ), Set.of( "appeals_team" ) );
+    }
+
+    @Test
+    void patchUserRolesWithOnlyRolesToRemoveRemovesRoles() throws Exception {
+        Mockito.doReturn( 1 ).when( usersService ).patchRoles( any(), any(), any() );
+
+        mockMvc.perform( patch( "/users/{user_id}/roles", "333" )
+                        .header( "X-Request-Id", "theId123" )
+                        .contentType( "application/json" )
+                        .content( "{\"remove\":[\"appeals_team\"]}" ) )
+                .andExpect( status().isOk() );
+
+        Mockito.verify( usersService ).patchRoles( "333", Set.of(), Set.of( "appeals_team" ) );
+    }
+
+    @Test
+    void patchUserRolesWithNonexistentUserReturnsNotFound() throws Exception {
+        Mockito.doReturn( 0 ).when( usersService ).patchRoles( any(), any(), any() );
+
+        mockMvc.perform( patch( "/users/{user_id}/roles", "999" )
+                        .header( "X-Request-Id", "theId123" )
+                        .contentType( "application/json" )
+                        .content( "{\"add\":[\"supervisor\"]}" ) )
+                .andExpect( status().isNotFound() );
+    }
+
+    @Test
+    void patchUserRolesWithoutRolesReturnsBadRequest() throws Exception {
+        mockMvc.perform( patch( "/users/{user_id}/roles", "333" )
+                        .header( "X-Request-Id", "theId123" )
+                        .contentType( "application/json" )
+                        .content( "{\"add\":[],\"remove\":[]}" ) )
+                .andExpect( status().isBadRequest() );
+
+        Mockito.verify( usersService, Mockito.never() ).patchRoles( any(), any(), any() );
+    }
+
+    @Test
+    void patchUserRolesWithNullRoleReturnsBadRequest() throws Exception {
+        mockMvc.perform( patch( "/users/{user_id}/roles", "333" )
+                        .header( "X-Request-Id", "theId123" )
+                        .contentType( "application/json" )
+                        .content( "{\"add\":[null]}" ) )
+                .andExpect( status().isBadRequest() );
+
+        Mockito.verify( usersService, Mockito.never() ).patchRoles( any(), any(), any() );
+    }
+
+    @Test
+    void patchUserRolesWithSameRoleToAddAndRemoveReturnsBadRequest() throws Exception {
+        mockMvc.perform( patch( "/users/{user_id}/roles", "333" )
+                        .header( "X-Request-Id", "theId123" )
+                        .contentType( "application/json" )
+                        .content( "{\"add\":[\"supervisor\"],\"remove\":[\"supervisor\"]}" ) )
+                .andExpect( status().isBadRequest() );
+
+        Mockito.verify( usersService, Mockito.never() ).patchRoles( any(), any(), any() );
+    }
+
+    @Test
+    void patchUsersRolesReturnsResultForEachUser() throws Exception {
+        Mockito.doReturn( List.of( new UserRolesResult( "111", UserRolesResult.Status.UPDATED ), new UserRolesResult( "999", UserRolesResult.Status.NOT_FOUND ) ) )
+                .when( usersService ).patchRolesInBulk( any() );
+
+        final var responseBody = mockMvc.perform( post( "/users/roles/bulk" )
+                        .header( "X-Request-Id", "theId123" )
+                        .contentType( "application/json" )
+                        .content( "[{\"user_id\":\"111\",\"add\":[\"supervisor\",\"supervisor\"]},{\"user_id\":\"999\",\"remove\":[\"appeals_team\"]}]" ) )
+                .andExpect( status().isOk() )
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        Assertions.assertEquals( "[{\"user_id\":\"111\",\"status\":\"updated\"},{\"user_id\":\"999\",\"status\":\"not_found\"}]", responseBody );
+        Mockito.verify( usersService ).patchRolesInBulk( List.of(
+                new UserRolesOperation( "111", List.of( "supervisor" ), List.of() ),
+                new UserRolesOperation( "999", List.of(), List.of( "appeals_team" ) ) ) );
+    }
+
+    @Test
+    void patchUsersRolesWithoutOperationsReturnsBadRequest() throws Exception {
+        mockMvc.perform( post( "/users/roles/bulk" )
+                        .header( "X-Request-Id", "theId123" )
+                        .contentType( "application/json" )
+                        .content( "[]" ) )
+                .andExpect( status().isBadRequest() );
+
+        Mockito.verify( usersService, Mockito.never() ).patchRolesInBulk( any() );
+    }
+
+    @Test
+    void patchUsersRolesWithRepeatedUserReturnsBadRequest() throws Exception {
+        mockMvc.perform( post( "/users/roles/bulk" )
+                        .header( "X-Request-Id", "theId123" )
+                        .contentType( "application/json" )
+                        .content( "[{\"user_id\":\"111\",\"add\":[\"supervisor\"]},{\"user_id\":\"111\",\"remove\":[\"supervisor\"]}]" ) )
+                .andExpect( status().isBadRequest() );
+
+        Mockito.verify( usersService, Mockito.never() ).patchRolesInBulk( any() );
+    }
+
+    @Test
+    void patchUsersRolesWithMissingUserOrRolesReturnsBadRequest() throws Exception {
+        mockMvc.perform( post( "/users/roles/bulk" )
+                        .header( "X-Request-Id", "theId123" )
+                        .contentType( "application/json" )
+                        .content( "[{\"add\":[\"supervisor\"]}]" ) )
+                .andExpect( status().isBadRequest() );
+
+        mockMvc.perform( post( "/users/roles/bulk" )
+                        .header( "X-Request-Id", "theId123" )
+                        .contentType( "application/json" )
+                        .content( "[{\"user_id\":\"111\"}]" ) )
+                .andExpect( status().isBadRequest() );
+
+        Mockito.verify( usersService, Mockito.never() ).patchRolesInBulk( any() );
+    }
+
 }
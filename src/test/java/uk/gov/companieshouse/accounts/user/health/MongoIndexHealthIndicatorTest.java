@@ -0,0 +1,132 @@
+package uk.gov.companieshouse.accounts.user.health;
+
+import java.util.List;
+import org.bson.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.UncategorizedMongoDbException;
+import uk.gov.companieshouse.accounts.user.health.MongoIndexHealthIndicator.IndexDrift;
+import uk.gov.companieshouse.accounts.user.models.AdminPermissions;
+import uk.gov.companieshouse.accounts.user.models.UserRole;
+import uk.gov.companieshouse.accounts.user.models.Users;
+
+@ExtendWith( MockitoExtension.class )
+@Tag( "unit-test" )
+class MongoIndexHealthIndicatorTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private IndexOperations usersIndexOps;
+
+    @Mock
+    private IndexOperations rolesIndexOps;
+
+    @Mock
+    private IndexOperations adminPermissionsIndexOps;
+
+    private MongoIndexHealthIndicator mongoIndexHealthIndicator;
+
+    private static IndexInfo index( final String name, final IndexField... fields ){
+        return new IndexInfo( List.of( fields ), name, false, false, null );
+    }
+
+    private static final IndexInfo ID_INDEX = index( "_id_", IndexField.create( "_id", Direction.ASC ) );
+    private static final IndexInfo EMAIL_ID_INDEX = index( "email_id", IndexField.create( "email", Direction.ASC ), IndexField.create( "_id", Direction.ASC ) );
+    private static final IndexInfo ID_UPDATED_INDEX = index( "id_updated", IndexField.create( "_id", Direction.ASC ), IndexField.create( "updated", Direction.ASC ) );
+    private static final IndexInfo UPDATED_ID_INDEX = index( "updated_id", IndexField.create( "updated", Direction.ASC ), IndexField.create( "_id", Direction.ASC ) );
+    // Mongo lists a collation with every setting filled in, not just the ones it was created with.
+    private static final IndexInfo EMAIL_CASE_INSENSITIVE_INDEX = IndexInfo.indexInfoOf( new Document( "name", "email_case_insensitive" )
+            .append( "key", new Document( "email", 1 ) )
+            .append( "collation", new Document( "locale", "en" ).append( "caseLevel", false ).append( "caseFirst", "off" ).append( "strength", 2 )
+                    .append( "numericOrdering", false ).append( "alternate", "non-ignorable" ).append( "maxVariable", "punct" )
+                    .append( "normalization", false ).append( "backwards", false ).append( "version", "57.1" ) ) );
+    private static final IndexInfo ROLES_ID_INDEX = index( "roles_id", IndexField.create( "roles", Direction.ASC ), IndexField.create( "_id", Direction.ASC ) );
+    private static final IndexInfo ENTRA_GROUP_ID_INDEX = index( "entra_group_id", IndexField.create( "entra_group_id", Direction.ASC ) );
+
+    @BeforeEach
+    void setup(){
+        mongoIndexHealthIndicator = new MongoIndexHealthIndicator( mongoTemplate, new MongoMappingContext() );
+    }
+
+    private void stubCollections(){
+        Mockito.doReturn( "users" ).when( mongoTemplate ).getCollectionName( Users.class );
+        Mockito.doReturn( "roles" ).when( mongoTemplate ).getCollectionName( UserRole.class );
+        Mockito.doReturn( "admin_permissions" ).when( mongoTemplate ).getCollectionName( AdminPermissions.class );
+        Mockito.doReturn( usersIndexOps ).when( mongoTemplate ).indexOps( "users" );
+        Mockito.doReturn( rolesIndexOps ).when( mongoTemplate ).indexOps( "roles" );
+        Mockito.doReturn( adminPermissionsIndexOps ).when( mongoTemplate ).indexOps( "admin_permissions" );
+        Mockito.doReturn( List.of( ID_INDEX ) ).when( rolesIndexOps ).getIndexInfo();
+        Mockito.doReturn( List.of( ID_INDEX, ENTRA_GROUP_ID_INDEX ) ).when( adminPermissionsIndexOps ).getIndexInfo();
+    }
+
+    @Test
+    void healthIsUpWhenEveryDeclaredIndexExists(){
+        stubCollections();
+        Mockito.doReturn( List.of( ID_INDEX, EMAIL_ID_INDEX, ID_UPDATED_INDEX, UPDATED_ID_INDEX, EMAIL_CASE_INSENSITIVE_INDEX, ROLES_ID_INDEX ) ).when( usersIndexOps ).getIndexInfo();
+
+        final var health = mongoIndexHealthIndicator.health();
+
+        Assertions.assertEquals( Status.UP, health.getStatus() );
+        Assertions.assertEquals( new IndexDrift( List.of(), List.of() ), health.getDetails().get( "users" ) );
+    }
+
+    @Test
+    void healthIsDownWhenDeclaredIndexIsMissing(){
+        stubCollections();
+        Mockito.doReturn( List.of( ID_INDEX, EMAIL_ID_INDEX, ID_UPDATED_INDEX, UPDATED_ID_INDEX, EMAIL_CASE_INSENSITIVE_INDEX ) ).when( usersIndexOps ).getIndexInfo();
+
+        final var health = mongoIndexHealthIndicator.health();
+
+        Assertions.assertEquals( Status.DOWN, health.getStatus() );
+        Assertions.assertEquals( new IndexDrift( List.of( "roles_id" ), List.of() ), health.getDetails().get( "users" ) );
+    }
+
+    @Test
+    void healthIsDownWhenDeclaredIndexExistsWithDifferentOptions(){
+        stubCollections();
+        final var caseSensitiveEmailIndex = index( "email_1", IndexField.create( "email", Direction.ASC ) );
+        final var uniqueRolesIdIndex = new IndexInfo( List.of( IndexField.create( "roles", Direction.ASC ), IndexField.create( "_id", Direction.ASC ) ), "roles_id", true, false, null );
+        Mockito.doReturn( List.of( ID_INDEX, EMAIL_ID_INDEX, ID_UPDATED_INDEX, UPDATED_ID_INDEX, caseSensitiveEmailIndex, uniqueRolesIdIndex ) ).when( usersIndexOps ).getIndexInfo();
+
+        final var health = mongoIndexHealthIndicator.health();
+
+        Assertions.assertEquals( Status.DOWN, health.getStatus() );
+        Assertions.assertEquals( new IndexDrift( List.of( "email_case_insensitive", "roles_id" ), List.of( "email_1", "roles_id" ) ), health.getDetails().get( "users" ) );
+    }
+
+    @Test
+    void healthReportsUndeclaredIndexesWithoutGoingDown(){
+        stubCollections();
+        final var reversedEmailIdIndex = index( "id_email", IndexField.create( "_id", Direction.ASC ), IndexField.create( "email", Direction.ASC ) );
+        Mockito.doReturn( List.of( ID_INDEX, EMAIL_ID_INDEX, ID_UPDATED_INDEX, UPDATED_ID_INDEX, EMAIL_CASE_INSENSITIVE_INDEX, ROLES_ID_INDEX, reversedEmailIdIndex ) ).when( usersIndexOps ).getIndexInfo();
+
+        final var health = mongoIndexHealthIndicator.health();
+
+        Assertions.assertEquals( Status.UP, health.getStatus() );
+        Assertions.assertEquals( new IndexDrift( List.of(), List.of( "id_email" ) ), health.getDetails().get( "users" ) );
+    }
+
+    @Test
+    void healthIsDownWhenIndexesCannotBeRead(){
+        Mockito.doReturn( "users" ).when( mongoTemplate ).getCollectionName( Users.class );
+        Mockito.doThrow( new UncategorizedMongoDbException( "Something went wrong", null ) ).when( mongoTemplate ).indexOps( "users" );
+
+        Assertions.assertEquals( Status.DOWN, mongoIndexHealthIndicator.health().getStatus() );
+    }
+
+}
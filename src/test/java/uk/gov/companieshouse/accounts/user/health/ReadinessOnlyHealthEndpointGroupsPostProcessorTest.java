@@ -0,0 +1,36 @@
+package uk.gov.companieshouse.accounts.user.health;
+
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.HealthEndpointGroup;
+import org.springframework.boot.actuate.health.HealthEndpointGroups;
+
+@ExtendWith( MockitoExtension.class )
+@Tag( "unit-test" )
+class ReadinessOnlyHealthEndpointGroupsPostProcessorTest {
+
+    @Mock
+    private HealthEndpointGroup primary;
+
+    @Mock
+    private HealthEndpointGroup readiness;
+
+    @Test
+    void postProcessHealthEndpointGroupsLeavesMongoIndexesOutOfRootCheckOnly(){
+        Mockito.doReturn( true ).when( primary ).isMember( "mongo" );
+        final var groups = new ReadinessOnlyHealthEndpointGroupsPostProcessor()
+                .postProcessHealthEndpointGroups( HealthEndpointGroups.of( primary, Map.of( "readiness", readiness ) ) );
+
+        Assertions.assertFalse( groups.getPrimary().isMember( MongoIndexHealthIndicator.NAME ) );
+        Assertions.assertTrue( groups.getPrimary().isMember( "mongo" ) );
+        Assertions.assertSame( readiness, groups.get( "readiness" ) );
+        Mockito.verify( primary, Mockito.never() ).isMember( MongoIndexHealthIndicator.NAME );
+    }
+
+}
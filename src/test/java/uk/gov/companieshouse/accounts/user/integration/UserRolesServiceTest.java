@@ -17,6 +17,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.mongodb.core.MongoTemplate;
 
+import uk.gov.companieshouse.accounts.user.cache.RolesSnapshotCache;
 import uk.gov.companieshouse.accounts.user.mapper.RolesDtoDaoMapper;
 import uk.gov.companieshouse.accounts.user.models.UserRole;
 import uk.gov.companieshouse.accounts.user.repositories.RolesRepository;
@@ -42,6 +43,9 @@ class UserRolesServiceTest extends BaseMongoIntegration {
     @Autowired
     RolesService rolesService;
 
+    @Autowired
+    RolesSnapshotCache rolesSnapshotCache;
+
     private UserRole admin = new UserRole();
     private UserRole supervisor = new UserRole();
     @BeforeEach
@@ -52,7 +56,7 @@ class UserRolesServiceTest extends BaseMongoIntegration {
         supervisor.setId("supervisor");
         supervisor.setPermissions(List.of("permission3","permission4"));        
 
-        rolesService = new RolesService(userRolesRepository, rolesDtoDaoMapper);
+        rolesService = new RolesService(userRolesRepository, rolesDtoDaoMapper, rolesSnapshotCache);
 
         userRolesRepository.insert(List.of( admin,supervisor));
     }
@@ -8,7 +8,6 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.mongodb.UncategorizedMongoDbException;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import uk.gov.companieshouse.accounts.user.exceptions.BadRequestRuntimeException;
-import uk.gov.companieshouse.accounts.user.exceptions.InternalServerErrorRuntimeException;
 import uk.gov.companieshouse.accounts.user.models.OneLoginDataDao;
 import uk.gov.companieshouse.accounts.user.models.UserRole;
 import uk.gov.companieshouse.accounts.user.models.Users;
@@ -192,6 +191,15 @@ class UsersServiceTest extends BaseMongoIntegration {
         Assertions.assertEquals( List.of( "support_member"), usersRepository.findUsersById( "444" ).get().getRoles() );
     }
 
+    @Test
+    void setRolesReturnsNumberOfUsersUpdatedEvenWhenRolesAreUnchanged(){
+        var rolesList = new RolesList();
+        rolesList.add("supervisor");
+        Assertions.assertEquals( 1, usersService.setRoles( "333", rolesList ) );
+        Assertions.assertEquals( 1, usersService.setRoles( "333", rolesList ) );
+        Assertions.assertEquals( 0, usersService.setRoles( "999", rolesList ) );
+    }
+
     @Test
     void setRolesWithNullRolesThrowsNullPointerException(){
         Assertions.assertThrows( NullPointerException.class, () -> usersService.setRoles( "333", null ) );
@@ -231,14 +239,14 @@ class UsersServiceTest extends BaseMongoIntegration {
     }
 
     @Test
-    void unlinkOneloginWithMalformedOrNonexistentTargetUserIdThrowsInternalServerErrorRuntimeException(){
-        Assertions.assertThrows( InternalServerErrorRuntimeException.class, () -> usersService.unlinkOnelogin( "£££", "111" ) );
-        Assertions.assertThrows( InternalServerErrorRuntimeException.class, () -> usersService.unlinkOnelogin( "000", "111" ) );
+    void unlinkOneloginWithMalformedOrNonexistentTargetUserIdReturnsEmptyOptional(){
+        Assertions.assertTrue( usersService.unlinkOnelogin( "£££", "111" ).isEmpty() );
+        Assertions.assertTrue( usersService.unlinkOnelogin( "000", "111" ).isEmpty() );
     }
 
     @Test
     void unlinkOneloginUpdatesUserRecord(){
-        final var updatedUserDto = usersService.unlinkOnelogin( "333", "111" );
+        final var updatedUserDto = usersService.unlinkOnelogin( "333", "111" ).orElseThrow();
         final var updatedUserDao = usersRepository.findById( "333" ).get();
 
         Assertions.assertEquals( "333", updatedUserDto.getUserId() );
@@ -248,6 +256,15 @@ class UsersServiceTest extends BaseMongoIntegration {
         Assertions.assertNotNull( updatedUserDao.getOneLoginLinkRemovedAt() );
     }
 
+    @Test
+    void unlinkOneloginWithAlreadyUnlinkedUserChangesNothing(){
+        usersService.unlinkOnelogin( "333", "111" );
+        final var firstUnlink = usersRepository.findById( "333" ).get();
+
+        Assertions.assertTrue( usersService.unlinkOnelogin( "333", "222" ).isEmpty() );
+        Assertions.assertEquals( firstUnlink.getOneLoginLinkRemovedBy(), usersRepository.findById( "333" ).get().getOneLoginLinkRemovedBy() );
+    }
+
     @AfterEach
     public void after() {
         mongoTemplate.dropCollection(UserRole.class);
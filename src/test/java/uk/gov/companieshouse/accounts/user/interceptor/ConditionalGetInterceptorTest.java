@@ -0,0 +1,143 @@
+package uk.gov.companieshouse.accounts.user.interceptor;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.UncategorizedMongoDbException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+import uk.gov.companieshouse.accounts.user.dto.VersionedUser;
+import uk.gov.companieshouse.accounts.user.service.UsersService;
+
+@ExtendWith( MockitoExtension.class )
+@Tag( "unit-test" )
+class ConditionalGetInterceptorTest {
+
+    private static final LocalDateTime UPDATED = LocalDateTime.of( 2024, 1, 1, 12, 0 );
+
+    @Mock
+    private UsersService usersService;
+
+    private ConditionalGetInterceptor interceptor;
+
+    @BeforeEach
+    void setup(){
+        interceptor = new ConditionalGetInterceptor( usersService );
+    }
+
+    private static MockHttpServletRequest request( final String method, final String userId ){
+        final var request = new MockHttpServletRequest( method, String.format( "/users/%s", userId ) );
+        request.setAttribute( HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of( "user_id", userId ) );
+        request.addHeader( "X-Request-Id", "theId123" );
+        return request;
+    }
+
+    @Test
+    void preHandleLeavesUnconditionalRequestToController(){
+        final var response = new MockHttpServletResponse();
+
+        Assertions.assertTrue( interceptor.preHandle( request( "GET", "333" ), response, new Object() ) );
+        Assertions.assertEquals( 200, response.getStatus() );
+        Assertions.assertNull( response.getHeader( "ETag" ) );
+        Mockito.verifyNoInteractions( usersService );
+    }
+
+    @Test
+    void preHandleWithMatchingIfNoneMatchRespondsNotModified(){
+        Mockito.doReturn( Optional.of( UPDATED ) ).when( usersService ).fetchUserLastUpdated( "333" );
+        final var request = request( "GET", "333" );
+        request.addHeader( "If-None-Match", VersionedUser.eTag( "333", UPDATED ) );
+        final var response = new MockHttpServletResponse();
+
+        Assertions.assertFalse( interceptor.preHandle( request, response, new Object() ) );
+        Assertions.assertEquals( 304, response.getStatus() );
+        Assertions.assertEquals( VersionedUser.eTag( "333", UPDATED ), response.getHeader( "ETag" ) );
+        Assertions.assertEquals( UPDATED.toInstant( ZoneOffset.UTC ).toEpochMilli(), response.getDateHeader( "Last-Modified" ) );
+    }
+
+    @Test
+    void preHandleLeavesRequestForProjectionToController(){
+        final var request = request( "GET", "333" );
+        request.setParameter( "fields", "display_name" );
+        request.addHeader( "If-None-Match", VersionedUser.eTag( "333", UPDATED ) );
+        final var response = new MockHttpServletResponse();
+
+        Assertions.assertTrue( interceptor.preHandle( request, response, new Object() ) );
+        Assertions.assertEquals( 200, response.getStatus() );
+        Assertions.assertNull( response.getHeader( "ETag" ) );
+        Mockito.verifyNoInteractions( usersService );
+    }
+
+    @Test
+    void preHandleWithStaleIfNoneMatchContinues(){
+        Mockito.doReturn( Optional.of( UPDATED ) ).when( usersService ).fetchUserLastUpdated( "333" );
+        final var request = request( "GET", "333" );
+        request.addHeader( "If-None-Match", VersionedUser.eTag( "333", UPDATED.minusDays( 1 ) ) );
+        final var response = new MockHttpServletResponse();
+
+        Assertions.assertTrue( interceptor.preHandle( request, response, new Object() ) );
+        Assertions.assertEquals( 200, response.getStatus() );
+        // The controller sends the ETag of the copy of the user it serves.
+        Assertions.assertNull( response.getHeader( "ETag" ) );
+    }
+
+    @Test
+    void preHandleWithIfModifiedSinceRespondsNotModifiedOnlyWhenUnchanged(){
+        Mockito.doReturn( Optional.of( UPDATED ) ).when( usersService ).fetchUserLastUpdated( "333" );
+
+        final var unchanged = request( "GET", "333" );
+        unchanged.addHeader( "If-Modified-Since", DateTimeFormatter.RFC_1123_DATE_TIME.format( UPDATED.atOffset( ZoneOffset.UTC ) ) );
+        final var unchangedResponse = new MockHttpServletResponse();
+        Assertions.assertFalse( interceptor.preHandle( unchanged, unchangedResponse, new Object() ) );
+        Assertions.assertEquals( 304, unchangedResponse.getStatus() );
+
+        final var changed = request( "GET", "333" );
+        changed.addHeader( "If-Modified-Since", DateTimeFormatter.RFC_1123_DATE_TIME.format( UPDATED.minusHours( 1 ).atOffset( ZoneOffset.UTC ) ) );
+        final var changedResponse = new MockHttpServletResponse();
+        Assertions.assertTrue( interceptor.preHandle( changed, changedResponse, new Object() ) );
+        Assertions.assertEquals( 200, changedResponse.getStatus() );
+    }
+
+    @Test
+    void preHandleWithUserWithoutUpdatedTimestampContinuesWithoutETag(){
+        Mockito.doReturn( Optional.empty() ).when( usersService ).fetchUserLastUpdated( "999" );
+        final var request = request( "GET", "999" );
+        request.addHeader( "If-None-Match", VersionedUser.eTag( "999", UPDATED ) );
+        final var response = new MockHttpServletResponse();
+
+        Assertions.assertTrue( interceptor.preHandle( request, response, new Object() ) );
+        Assertions.assertNull( response.getHeader( "ETag" ) );
+    }
+
+    @Test
+    void preHandleWhenProjectionQueryFailsContinuesWithoutETag(){
+        Mockito.doThrow( new UncategorizedMongoDbException( "hint provided does not correspond to an existing index", null ) ).when( usersService ).fetchUserLastUpdated( "333" );
+        final var request = request( "GET", "333" );
+        request.addHeader( "If-None-Match", VersionedUser.eTag( "333", UPDATED ) );
+        final var response = new MockHttpServletResponse();
+
+        Assertions.assertTrue( interceptor.preHandle( request, response, new Object() ) );
+        Assertions.assertNull( response.getHeader( "ETag" ) );
+    }
+
+    @Test
+    void preHandleIgnoresOtherMethods(){
+        final var request = request( "PUT", "333" );
+        request.addHeader( "If-None-Match", VersionedUser.eTag( "333", UPDATED ) );
+
+        Assertions.assertTrue( interceptor.preHandle( request, new MockHttpServletResponse(), new Object() ) );
+        Mockito.verifyNoInteractions( usersService );
+    }
+
+}
@@ -1,7 +1,9 @@
 package uk.gov.companieshouse.accounts.user.interceptor;
 
 import static org.junit.Assert.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.time.LocalDateTime;
@@ -184,6 +186,48 @@ class InterceptorTests extends uk.gov.companieshouse.accounts.user.integration.B
 
     }
 
+    @Test
+    void internalUserExportWithSearchPermissionOnlyIsRejected() throws Exception {
+        final var status =
+        mockMvc.perform(
+                    get( "/internal/users/export" )
+                        .header("X-Request-Id", "theId123")
+                        .header("ERIC-Identity", "123")
+                        .header("ERIC-Identity-Type", "oauth2")
+                        .header("ERIC-Authorised-Roles", "/admin/user/search")
+                    )
+                        .andReturn()
+                        .getResponse()
+                        .getStatus();
+
+        Assertions.assertNotEquals( HttpServletResponse.SC_OK, status );
+    }
+
+    @Test
+    void internalUserExportCorrectPrivileges() throws Exception {
+        final var asyncResult =
+        mockMvc.perform(
+                    get( "/internal/users/export?role=supervisor" )
+                        .header("X-Request-Id", "theId123")
+                        .header("ERIC-Identity", "123")
+                        .header("ERIC-Identity-Type", "oauth2")
+                        .header("ERIC-Authorised-Roles", "/admin/user/export")
+                    )
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+
+        final var responseBody = mockMvc.perform( asyncDispatch( asyncResult ) )
+                        .andExpect(status().isOk())
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+
+        final var objectMapper = JsonMapper.builder().addModule(new JavaTimeModule()).build();
+        final var lines = responseBody.split( "\n" );
+        Assertions.assertEquals( 1, lines.length );
+        Assertions.assertEquals( "Eminem", objectMapper.readValue( lines[0], User.class ).getDisplayName() );
+    }
+
     @AfterEach
     public void after() {
         mongoTemplate.dropCollection( Users.class );
@@ -6,18 +6,26 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.mongodb.UncategorizedMongoDbException;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
 import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
 import uk.gov.companieshouse.accounts.user.models.OneLoginDataDao;
 import uk.gov.companieshouse.accounts.user.models.Users;
 
 import static org.junit.Assert.assertEquals;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @SpringBootTest
 @ExtendWith(MockitoExtension.class)
@@ -130,6 +138,146 @@ class UsersRepositoryTest extends uk.gov.companieshouse.accounts.user.integratio
         Assertions.assertEquals("333",usersRepository.findUsersById( "333" ).get().getOneLoginData().getOneLoginUserId());
     }
 
+    @Test
+    void findUpdatedByIdReturnsOnlyTheUpdatedTimestamp(){
+        // The collection is dropped after each test, which also drops the index that the query is hinted to use.
+        mongoTemplate.indexOps( Users.class ).ensureIndex( new Index().on( "_id", Direction.ASC ).on( "updated", Direction.ASC ).named( "id_updated" ) );
+
+        final var harleyQuinn = usersRepository.findUpdatedById( "333" ).get();
+
+        Assertions.assertEquals( "333", harleyQuinn.getId() );
+        Assertions.assertNotNull( harleyQuinn.getUpdated() );
+        Assertions.assertNull( harleyQuinn.getEmail() );
+        Assertions.assertNull( harleyQuinn.getOneLoginData() );
+        Assertions.assertFalse( usersRepository.findUpdatedById( "999" ).isPresent() );
+    }
+
+    @Test
+    void fetchUsersIgnoresCaseOfEmails(){
+        final var users = usersRepository.fetchUsers( List.of( "Harley.Quinn@Gotham.City", "EMINEM@RAP.COM" ) );
+
+        Assertions.assertEquals( 2, users.size() );
+        Assertions.assertTrue( users.stream().map( Users::getId ).toList().containsAll( List.of( "111", "333" ) ) );
+    }
+
+    @Test
+    void fetchUsersWithFieldsIgnoresCaseOfEmails(){
+        final var users = usersRepository.fetchUsersWithFields( List.of( "Harley.Quinn@Gotham.City" ), List.of( "email" ) );
+
+        Assertions.assertEquals( 1, users.size() );
+        Assertions.assertEquals( "harley.quinn@gotham.city", users.getFirst().getEmail() );
+        Assertions.assertNull( users.getFirst().getDisplayName() );
+    }
+
+    @Test
+    void streamUsersByEmailsStreamsMatchingUsers(){
+        try ( final var users = usersRepository.streamUsersByEmails( List.of( "Eminem@Rap.com", "the.rock@wrestling.com", "nobody@nowhere.com" ), 1 ) ) {
+            Assertions.assertEquals( Set.of( "111", "222" ), users.map( Users::getId ).collect( Collectors.toSet() ) );
+        }
+    }
+
+    @Test
+    void streamUsersAppliesLimitInIdOrder(){
+        try ( final var users = usersRepository.streamUsers( where( "email" ).regex( Pattern.quote( "ha" ) ), 1, 1 ) ) {
+            Assertions.assertEquals( List.of( "333" ), users.map( Users::getId ).toList() );
+        }
+    }
+
+    @Test
+    void streamUsersOrderedByIdResumesAfterLastUserId(){
+        try ( final var users = usersRepository.streamUsersOrderedById( where( "id" ).gt( "222" ), 1 ) ) {
+            Assertions.assertEquals( List.of( "333", "444" ), users.map( Users::getId ).toList() );
+        }
+    }
+
+    @Test
+    void findUsersUpdatedAfterPagesThroughChangesInUpdatedOrder(){
+        final var epoch = LocalDateTime.of( 1970, 1, 1, 0, 0 );
+        final var later = LocalDateTime.now().plusMinutes( 1 );
+        final var sort = Sort.by( "updated", "id" );
+
+        final var firstPage = usersRepository.findUsersUpdatedAfter( epoch, "", later, sort, Limit.of( 2 ) );
+        Assertions.assertEquals( 2, firstPage.size() );
+
+        final var last = firstPage.getLast();
+        final var secondPage = usersRepository.findUsersUpdatedAfter( last.getUpdated(), last.getId(), later, sort, Limit.of( 10 ) );
+        Assertions.assertEquals( 2, secondPage.size() );
+        Assertions.assertFalse( secondPage.getFirst().getUpdated().isBefore( last.getUpdated() ) );
+
+        final var everyone = new ArrayList<>( firstPage );
+        everyone.addAll( secondPage );
+        Assertions.assertEquals( Set.of( "111", "222", "333", "444" ), everyone.stream().map( Users::getId ).collect( Collectors.toSet() ) );
+    }
+
+    @Test
+    void findUsersUpdatedAfterLeavesOutUsersUpdatedAfterUpperBound(){
+        final var epoch = LocalDateTime.of( 1970, 1, 1, 0, 0 );
+        Assertions.assertEquals( List.of(), usersRepository.findUsersUpdatedAfter( epoch, "", epoch.plusDays( 1 ), Sort.by( "updated", "id" ), Limit.of( 10 ) ) );
+    }
+
+    @Test
+    void updateUserCountingMatchesCountsUsersThatWereAlreadyUpToDate(){
+        final var update = new Update().set( "roles", List.of( "appeals_team" ) );
+
+        Assertions.assertEquals( 1, usersRepository.updateUserCountingMatches( "333", update ) );
+        Assertions.assertEquals( 1, usersRepository.updateUserCountingMatches( "333", update ) );
+        Assertions.assertEquals( 0, usersRepository.updateUserCountingMatches( "999", update ) );
+    }
+
+    @Test
+    void updateUsersInBulkAppliesEveryUpdateAndCountsMatches(){
+        final var result = usersRepository.updateUsersInBulk( List.of(
+                Pair.of( "333", new Update().addToSet( "roles" ).each( "supervisor" ) ),
+                Pair.of( "111", new Update().pullAll( "roles", new Object[]{ "restricted_word" } ) ),
+                Pair.of( "999", new Update().addToSet( "roles" ).each( "supervisor" ) ) ) );
+
+        Assertions.assertEquals( 2, result.matchedCount() );
+        Assertions.assertEquals( Set.of(), result.failedIndexes() );
+        Assertions.assertEquals( Set.of( "appeals_team", "supervisor" ), Set.copyOf( usersRepository.findUsersById( "333" ).get().getRoles() ) );
+        Assertions.assertEquals( List.of( "supervisor" ), usersRepository.findUsersById( "111" ).get().getRoles() );
+    }
+
+    @Test
+    void updateUsersInBulkCarriesOnPastFailedUpdates(){
+        final var result = usersRepository.updateUsersInBulk( List.of(
+                Pair.of( "333", new Update().addToSet( "email" ).each( "supervisor" ) ),
+                Pair.of( "222", new Update().addToSet( "roles" ).each( "supervisor" ) ) ) );
+
+        Assertions.assertEquals( 1, result.matchedCount() );
+        Assertions.assertEquals( Set.of( 0 ), result.failedIndexes() );
+        Assertions.assertTrue( usersRepository.findUsersById( "222" ).get().getRoles().contains( "supervisor" ) );
+    }
+
+    @Test
+    void findUsersWithFieldsOrderedByIdPagesThroughUsersWithRole(){
+        final var firstPage = usersRepository.findUsersWithFieldsOrderedById( where( "roles" ).is( "restricted_word" ), List.of( "_id" ), 1 );
+        final var secondPage = usersRepository.findUsersWithFieldsOrderedById( where( "roles" ).is( "restricted_word" ).and( "id" ).gt( "111" ), List.of( "_id" ), 1 );
+
+        Assertions.assertEquals( List.of( "111" ), firstPage.stream().map( Users::getId ).toList() );
+        Assertions.assertEquals( List.of( "222" ), secondPage.stream().map( Users::getId ).toList() );
+        Assertions.assertNull( secondPage.getFirst().getEmail() );
+    }
+
+    @Test
+    void countUsersWithRoleCountsOnlyUsersWithThatRole(){
+        Assertions.assertEquals( 2, usersRepository.countUsersWithRole( "restricted_word" ) );
+        Assertions.assertEquals( 0, usersRepository.countUsersWithRole( "nonexistent" ) );
+    }
+
+    @Test
+    void findUsersWithFieldsReadsOnlyRequestedFields(){
+        final var users = usersRepository.findUsersWithFields( where( "email" ).in( List.of( "harley.quinn@gotham.city", "eminem@rap.com" ) ), List.of( "email", "display_name" ), 0 );
+
+        Assertions.assertEquals( 2, users.size() );
+        Assertions.assertTrue( users.stream().allMatch( user -> Objects.nonNull( user.getId() ) && Objects.nonNull( user.getEmail() ) && Objects.nonNull( user.getDisplayName() ) ) );
+        Assertions.assertTrue( users.stream().allMatch( user -> Objects.isNull( user.getRoles() ) && Objects.isNull( user.getOneLoginData() ) && Objects.isNull( user.getForename() ) ) );
+    }
+
+    @Test
+    void findUsersWithFieldsAppliesLimit(){
+        Assertions.assertEquals( 1, usersRepository.findUsersWithFields( where( "email" ).regex( Pattern.quote( "ha" ) ), List.of( "email" ), 1 ).size() );
+    }
+
     @AfterEach
     public void after() {
         mongoTemplate.dropCollection( Users.class );
@@ -172,8 +320,8 @@ class UsersRepositoryTest extends uk.gov.companieshouse.accounts.user.integratio
 
     @Test
     void fetchUsersUsingPartialEmail(){
-        final var oneUser = usersRepository.findUsersByEmailLike("city", Limit.of(50));
-        final var multipleUsers = usersRepository.findUsersByEmailLike("ha",  Limit.of(50)); Limit.of(50);
+        final var oneUser = usersRepository.findUsersByEmailLike("city", Sort.by("id"), Limit.of(50));
+        final var multipleUsers = usersRepository.findUsersByEmailLike("ha", Sort.by("id"), Limit.of(50));
 
         Assertions.assertEquals(1, oneUser.size());
         Assertions.assertEquals("Harley Quinn", oneUser.get(0).getDisplayName());
@@ -184,6 +332,22 @@ class UsersRepositoryTest extends uk.gov.companieshouse.accounts.user.integratio
                                              .map(Users::getDisplayName).allMatch(user -> (user.equals("Harry Potter")) || (user.equals("Harley Quinn"))));
     }
 
+    @Test
+    void findUsersByEmailMatchingAfterPagesThroughMatchesInEmailOrder(){
+        final var sort = Sort.by( "email", "id" );
+
+        final var firstPage = usersRepository.findUsersByEmailMatchingAfter( Pattern.quote( "ha" ), "", "", sort, Limit.of( 1 ) );
+        Assertions.assertEquals( 1, firstPage.size() );
+        Assertions.assertEquals( "333", firstPage.getFirst().getId() );
+
+        final var secondPage = usersRepository.findUsersByEmailMatchingAfter( Pattern.quote( "ha" ), firstPage.getFirst().getEmail(), firstPage.getFirst().getId(), sort, Limit.of( 1 ) );
+        Assertions.assertEquals( 1, secondPage.size() );
+        Assertions.assertEquals( "444", secondPage.getFirst().getId() );
+
+        final var lastPage = usersRepository.findUsersByEmailMatchingAfter( Pattern.quote( "ha" ), secondPage.getFirst().getEmail(), secondPage.getFirst().getId(), sort, Limit.of( 1 ) );
+        Assertions.assertTrue( lastPage.isEmpty() );
+    }
+
     @Test
     void findUsersWithRole(){
         List<Users> roles = usersRepository.findUsersByRolesContaining("restricted_word");
@@ -0,0 +1,200 @@
+package uk.gov.companieshouse.accounts.user.search;
+
+import static uk.gov.companieshouse.accounts.user.cache.CollectionChangedEvent.ROLES_COLLECTION;
+import static uk.gov.companieshouse.accounts.user.cache.CollectionChangedEvent.USERS_COLLECTION;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.companieshouse.accounts.user.cache.CollectionChangedEvent;
+import uk.gov.companieshouse.accounts.user.cache.CollectionChangedEvent.DocumentChange;
+import uk.gov.companieshouse.accounts.user.models.Users;
+import uk.gov.companieshouse.accounts.user.repositories.UsersRepository;
+
+@ExtendWith( MockitoExtension.class )
+@Tag( "unit-test" )
+class EmailTrigramIndexTest {
+
+    @Mock
+    private UsersRepository usersRepository;
+
+    private EmailTrigramIndex emailTrigramIndex;
+
+    private static Users user( final String id, final String email ){
+        final var user = new Users();
+        user.setId( id );
+        user.setEmail( email );
+        return user;
+    }
+
+    @BeforeEach
+    void setup(){
+        emailTrigramIndex = new EmailTrigramIndex( usersRepository, true, true );
+    }
+
+    private void build(){
+        Mockito.doReturn( Stream.of(
+                user( "111", "eminem@rap.com" ),
+                user( "222", "the.rock@wrestling.com" ),
+                user( "333", "harley.quinn@gotham.city" ),
+                user( "444", "harry.potter@under-the-stairs.com" ) ) ).when( usersRepository ).streamAllEmails();
+        emailTrigramIndex.rebuild();
+    }
+
+    @Test
+    void searchBeforeIndexIsBuiltReturnsEmptyOptional(){
+        Assertions.assertFalse( emailTrigramIndex.isReady() );
+        Assertions.assertTrue( emailTrigramIndex.search( "harley", 50 ).isEmpty() );
+    }
+
+    @Test
+    void searchWithTermShorterThanTrigramOrWithWildcardReturnsEmptyOptional(){
+        build();
+
+        Assertions.assertTrue( emailTrigramIndex.search( null, 50 ).isEmpty() );
+        Assertions.assertTrue( emailTrigramIndex.search( "ha", 50 ).isEmpty() );
+        Assertions.assertTrue( emailTrigramIndex.search( "har*", 50 ).isEmpty() );
+    }
+
+    @Test
+    void searchReturnsUsersWhoseEmailContainsTerm(){
+        build();
+
+        Assertions.assertTrue( emailTrigramIndex.isReady() );
+        Assertions.assertEquals( List.of( "333", "444" ), emailTrigramIndex.search( "har", 50 ).get() );
+        Assertions.assertEquals( List.of( "333" ), emailTrigramIndex.search( "quinn@gotham", 50 ).get() );
+        Assertions.assertEquals( List.of( "111", "222", "444" ), emailTrigramIndex.search( ".com", 50 ).get() );
+        Assertions.assertEquals( List.of(), emailTrigramIndex.search( "batman", 50 ).get() );
+    }
+
+    @Test
+    void searchOnlyReturnsCandidatesThatContainTheWholeTerm(){
+        Mockito.doReturn( Stream.of( user( "555", "abc-bcd@example.com" ) ) ).when( usersRepository ).streamAllEmails();
+        emailTrigramIndex.rebuild();
+
+        // both trigrams of "abcd" occur in the email, but not next to each other
+        Assertions.assertEquals( List.of(), emailTrigramIndex.search( "abcd", 50 ).get() );
+        Assertions.assertEquals( List.of( "555" ), emailTrigramIndex.search( "c-bcd", 50 ).get() );
+    }
+
+    @Test
+    void searchIsCaseSensitiveLikeTheRegexQuery(){
+        build();
+
+        Assertions.assertEquals( List.of(), emailTrigramIndex.search( "HARLEY", 50 ).get() );
+    }
+
+    @Test
+    void searchAppliesLimit(){
+        build();
+
+        Assertions.assertEquals( List.of( "111" ), emailTrigramIndex.search( ".com", 1 ).get() );
+    }
+
+    @Test
+    void searchReturnsLowestUserIdsFirstLikeTheRegexQuery(){
+        build();
+        final var change = new DocumentChange( new BsonDocument( "email", new BsonString( "harvey.dent@gotham.city" ) ), false, Set.of() );
+
+        emailTrigramIndex.onCollectionChanged( new CollectionChangedEvent( USERS_COLLECTION, "111", change ) );
+
+        Assertions.assertEquals( List.of( "111", "333", "444" ), emailTrigramIndex.search( "har", 50 ).get() );
+        Assertions.assertEquals( List.of( "111" ), emailTrigramIndex.search( "har", 1 ).get() );
+    }
+
+    @Test
+    void onCollectionChangedReindexesChangedUser(){
+        build();
+        Mockito.doReturn( Optional.of( user( "333", "dr.quinzel@arkham.asylum" ) ) ).when( usersRepository ).findEmailById( "333" );
+
+        emailTrigramIndex.onCollectionChanged( new CollectionChangedEvent( USERS_COLLECTION, "333" ) );
+
+        Assertions.assertEquals( List.of( "444" ), emailTrigramIndex.search( "har", 50 ).get() );
+        Assertions.assertEquals( List.of( "333" ), emailTrigramIndex.search( "arkham", 50 ).get() );
+    }
+
+    @Test
+    void onCollectionChangedRemovesDeletedUser(){
+        build();
+        Mockito.doReturn( Optional.empty() ).when( usersRepository ).findEmailById( "444" );
+
+        emailTrigramIndex.onCollectionChanged( new CollectionChangedEvent( USERS_COLLECTION, "444" ) );
+
+        Assertions.assertEquals( List.of( "333" ), emailTrigramIndex.search( "har", 50 ).get() );
+    }
+
+    @Test
+    void onCollectionChangedTakesNewEmailFromChangeWithoutReadingUser(){
+        build();
+        final var change = new DocumentChange( new BsonDocument( "email", new BsonString( "dr.quinzel@arkham.asylum" ) ), false, Set.of() );
+
+        emailTrigramIndex.onCollectionChanged( new CollectionChangedEvent( USERS_COLLECTION, "333", change ) );
+
+        Assertions.assertEquals( List.of( "444" ), emailTrigramIndex.search( "har", 50 ).get() );
+        Assertions.assertEquals( List.of( "333" ), emailTrigramIndex.search( "arkham", 50 ).get() );
+        Mockito.verify( usersRepository, Mockito.never() ).findEmailById( Mockito.any() );
+    }
+
+    @Test
+    void onCollectionChangedIgnoresChangesThatLeaveEmailAlone(){
+        build();
+        final var change = new DocumentChange( new BsonDocument( "roles", new BsonString( "supervisor" ) ), false, Set.of( "display_name" ) );
+
+        emailTrigramIndex.onCollectionChanged( new CollectionChangedEvent( USERS_COLLECTION, "333", change ) );
+
+        Assertions.assertEquals( List.of( "333", "444" ), emailTrigramIndex.search( "har", 50 ).get() );
+        Mockito.verify( usersRepository, Mockito.never() ).findEmailById( Mockito.any() );
+    }
+
+    @Test
+    void onCollectionChangedRemovesUserWhoseDeletionIsInChange(){
+        build();
+
+        emailTrigramIndex.onCollectionChanged( new CollectionChangedEvent( USERS_COLLECTION, "444", DocumentChange.deleted() ) );
+
+        Assertions.assertEquals( List.of( "333" ), emailTrigramIndex.search( "har", 50 ).get() );
+        Mockito.verify( usersRepository, Mockito.never() ).findEmailById( Mockito.any() );
+    }
+
+    @Test
+    void onCollectionChangedIgnoresOtherCollections(){
+        build();
+
+        emailTrigramIndex.onCollectionChanged( new CollectionChangedEvent( ROLES_COLLECTION, "333" ) );
+
+        Mockito.verify( usersRepository, Mockito.never() ).findEmailById( Mockito.any() );
+    }
+
+    @Test
+    void rebuildWhenDisabledDoesNothing(){
+        final var disabledIndex = new EmailTrigramIndex( usersRepository, false, true );
+
+        disabledIndex.rebuild();
+
+        Assertions.assertFalse( disabledIndex.isReady() );
+        Mockito.verifyNoInteractions( usersRepository );
+    }
+
+    @Test
+    void rebuildWithoutChangeStreamDoesNothing(){
+        final var indexWithoutChangeStream = new EmailTrigramIndex( usersRepository, true, false );
+
+        indexWithoutChangeStream.rebuild();
+
+        Assertions.assertFalse( indexWithoutChangeStream.isReady() );
+        Assertions.assertTrue( indexWithoutChangeStream.search( "harley", 50 ).isEmpty() );
+        Mockito.verifyNoInteractions( usersRepository );
+    }
+
+}
@@ -5,16 +5,18 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.companieshouse.accounts.user.cache.AdminPermissionsSnapshotCache;
 import uk.gov.companieshouse.accounts.user.mapper.AdminPermissionsDtoDaoMapper;
 import uk.gov.companieshouse.accounts.user.models.AdminPermissions;
 import uk.gov.companieshouse.accounts.user.repositories.AdminPermissionsRepository;
 import uk.gov.companieshouse.api.accounts.user.model.AdminPermissionsGroup;
 import uk.gov.companieshouse.api.accounts.user.model.AdminPermissionsGroups;
 import uk.gov.companieshouse.api.accounts.user.model.PermissionsList;
+import java.time.Duration;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
@@ -33,7 +35,6 @@ public class AdminPermissionsServiceTest {
     @Mock
     AdminPermissionsDtoDaoMapper adminPermissionsDtoDaoMapper;
 
-    @InjectMocks
     AdminPermissionsService adminPermissionsService;
 
     private AdminPermissions admin = new AdminPermissions();
@@ -42,6 +43,8 @@ public class AdminPermissionsServiceTest {
 
     @BeforeEach
     void setup(){
+        adminPermissionsService = new AdminPermissionsService(adminPermissionsRepository, adminPermissionsDtoDaoMapper, new AdminPermissionsSnapshotCache(adminPermissionsRepository, Duration.ofMinutes(10)));
+
         admin.setId("admin");
         admin.setEntraGroupId("adminEntraId");
         admin.setGroupName("adminGroupName");
@@ -164,4 +167,48 @@ public class AdminPermissionsServiceTest {
         adminPermissionsService.deleteAdminPermissions(admin.getId());
         verify(adminPermissionsRepository,times(0)).deleteById(admin.getId());
     }
+
+    @Test
+    @DisplayName("Admin Permissions are read from the snapshot once")
+    void getAdminGroupReadsSnapshot(){
+        when(adminPermissionsRepository.findAll()).thenReturn(adminPermissionsList);
+
+        adminPermissionsService.getAdminGroup();
+        adminPermissionsService.getAdminGroup();
+
+        verify(adminPermissionsRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("Resolving permissions returns the union of the permissions of the known Entra groups")
+    void resolvePermissionsReturnsUnionOfKnownGroups(){
+        when(adminPermissionsRepository.findAll()).thenReturn(adminPermissionsList);
+
+        var permissions = adminPermissionsService.resolvePermissions(List.of("adminEntraId", "supervisorEntraId", "unknownEntraId"));
+
+        assertEquals(Set.of("permission1","permission2","permission3","permission4"), permissions);
+        verify(adminPermissionsRepository, times(0)).findByEntraGroupId(any());
+    }
+
+    @Test
+    @DisplayName("Editing Admin Permissions refreshes the snapshot")
+    void editAdminPermissionsRefreshesSnapshot(){
+        PermissionsList permissions =  new PermissionsList();
+        permissions.add("permission88");
+
+        when(adminPermissionsRepository.findAll()).thenReturn(List.of(admin));
+        adminPermissionsService.resolvePermissions(List.of("adminEntraId"));
+
+        AdminPermissions editedAdmin = new AdminPermissions();
+        editedAdmin.setId("admin");
+        editedAdmin.setEntraGroupId("adminEntraId");
+        editedAdmin.setPermissions(List.of("permission88"));
+        when(adminPermissionsRepository.findAll()).thenReturn(List.of(editedAdmin));
+        when(adminPermissionsRepository.existsById("admin")).thenReturn(true);
+        when(adminPermissionsRepository.updateRole(any(),any())).thenReturn(1);
+
+        adminPermissionsService.editAdminPermissions("admin", permissions);
+
+        assertEquals(Set.of("permission88"), adminPermissionsService.resolvePermissions(List.of("adminEntraId")));
+    }
 }
@@ -6,6 +6,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -17,6 +18,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import uk.gov.companieshouse.accounts.user.cache.RolesSnapshotCache;
 import uk.gov.companieshouse.accounts.user.mapper.RolesDtoDaoMapper;
 import uk.gov.companieshouse.accounts.user.models.UserRole;
 import uk.gov.companieshouse.accounts.user.repositories.RolesRepository;
@@ -49,7 +51,7 @@ public class RolesServiceTest {
         supervisor.setPermissions(List.of("permission3","permission4"));        
         userRoles.add(supervisor);
 
-        rolesService = new RolesService(userRolesRepository, rolesDtoDaoMapper);
+        rolesService = new RolesService(userRolesRepository, rolesDtoDaoMapper, new RolesSnapshotCache(userRolesRepository, Duration.ofMinutes(10)));
     }
 
     @Test
@@ -74,7 +76,7 @@ public class RolesServiceTest {
         when(rolesDtoDaoMapper.daoToDto(admin)).thenReturn(adminRole);
         when(rolesDtoDaoMapper.daoToDto(supervisor)).thenReturn(supervisorRole);
 
-        RolesService rolesService = new RolesService(userRolesRepository, rolesDtoDaoMapper);
+        RolesService rolesService = new RolesService(userRolesRepository, rolesDtoDaoMapper, new RolesSnapshotCache(userRolesRepository, Duration.ofMinutes(10)));
 
         Roles roles = rolesService.getRoles();
 
@@ -151,5 +153,33 @@ public class RolesServiceTest {
         when(userRolesRepository.existsById(admin.getId())).thenReturn(false);
         rolesService.deleteRole(admin.getId());
         verify(userRolesRepository,times(0)).deleteById(admin.getId());
-    }    
+    }
+
+    @Test
+    @DisplayName("Roles are listed from the snapshot without querying the database again")
+    void getRolesReadsSnapshot(){
+        when(userRolesRepository.findAll()).thenReturn(userRoles);
+        when(rolesDtoDaoMapper.daoToDto(any())).thenReturn(new Role());
+
+        rolesService.getRoles();
+        rolesService.getRoles();
+
+        verify(userRolesRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("Editing a role refreshes the snapshot")
+    void editRoleRefreshesSnapshot(){
+        when(userRolesRepository.findAll()).thenReturn(userRoles);
+        when(userRolesRepository.existsById(any())).thenReturn(true);
+        when(rolesDtoDaoMapper.daoToDto(any())).thenReturn(new Role());
+
+        rolesService.getRoles();
+        PermissionsList permissions =  new PermissionsList();
+        permissions.add("permission88");
+        rolesService.editRole(admin.getId(), permissions);
+        rolesService.getRoles();
+
+        verify(userRolesRepository, times(2)).findAll();
+    }
 }
@@ -0,0 +1,98 @@
+package uk.gov.companieshouse.accounts.user.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import org.bson.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.companieshouse.accounts.user.dto.UsersExportFilter;
+import uk.gov.companieshouse.accounts.user.mapper.UsersDtoDaoMapper;
+import uk.gov.companieshouse.accounts.user.models.Users;
+import uk.gov.companieshouse.accounts.user.repositories.UsersRepository;
+import uk.gov.companieshouse.accounts.user.util.RateLimiter;
+import uk.gov.companieshouse.api.accounts.user.model.User;
+
+@ExtendWith( MockitoExtension.class )
+@Tag( "unit-test" )
+class UsersExportServiceTest {
+
+    private static final UsersExportFilter EVERYONE = new UsersExportFilter( null, null, null, null, null );
+
+    @Mock
+    private UsersRepository usersRepository;
+
+    @Mock
+    private UsersDtoDaoMapper usersDtoDaoMapper;
+
+    @Mock
+    private RateLimiter rateLimiter;
+
+    private UsersExportService usersExportService;
+
+    @BeforeEach
+    void setup(){
+        usersExportService = new UsersExportService( usersRepository, usersDtoDaoMapper, rateLimiter, 500 );
+    }
+
+    private static Users users( final String userId ){
+        final var users = new Users();
+        users.setId( userId );
+        return users;
+    }
+
+    @Test
+    void exportUsersPassesEachUserToConsumerWaitingForRateLimiterAndClosesCursor(){
+        final var eminem = users( "111" );
+        final var theRock = users( "222" );
+        final var closed = new AtomicBoolean();
+        Mockito.doReturn( Stream.of( eminem, theRock ).onClose( () -> closed.set( true ) ) ).when( usersRepository ).streamUsersOrderedById( any(), eq( 500 ) );
+        Mockito.doReturn( new User().userId( "111" ) ).when( usersDtoDaoMapper ).daoToDto( eminem );
+        Mockito.doReturn( new User().userId( "222" ) ).when( usersDtoDaoMapper ).daoToDto( theRock );
+
+        final var exported = new ArrayList<User>();
+        usersExportService.exportUsers( EVERYONE, exported::add );
+
+        Assertions.assertEquals( List.of( "111", "222" ), exported.stream().map( User::getUserId ).toList() );
+        Mockito.verify( rateLimiter, Mockito.times( 2 ) ).acquire();
+        Assertions.assertTrue( closed.get() );
+    }
+
+    @Test
+    void criteriaWithoutFilterMatchesEveryUser(){
+        Assertions.assertEquals( new Document(), UsersExportService.criteria( EVERYONE ).getCriteriaObject() );
+    }
+
+    @Test
+    void criteriaCombinesEveryFilter(){
+        final var from = LocalDateTime.of( 2024, 1, 1, 0, 0 );
+        final var to = LocalDateTime.of( 2025, 1, 1, 0, 0 );
+
+        final var criteria = UsersExportService.criteria( new UsersExportFilter( "supervisor", from, to, true, "111" ) ).getCriteriaObject();
+
+        Assertions.assertEquals( new Document( "$gt", "111" ), criteria.get( "id" ) );
+        Assertions.assertEquals( "supervisor", criteria.get( "roles" ) );
+        Assertions.assertEquals( new Document( Map.of( "$gte", from, "$lt", to ) ), criteria.get( "created" ) );
+        Assertions.assertEquals( true, criteria.get( "private_beta_user" ) );
+    }
+
+    @Test
+    void criteriaForUsersOutsidePrivateBetaIncludesUsersWithoutTheFlag(){
+        final var criteria = UsersExportService.criteria( new UsersExportFilter( null, null, null, false, null ) ).getCriteriaObject();
+
+        Assertions.assertEquals( new Document( "$ne", true ), criteria.get( "private_beta_user" ) );
+    }
+
+}
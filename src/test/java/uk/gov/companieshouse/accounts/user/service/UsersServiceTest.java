@@ -1,5 +1,6 @@
 package uk.gov.companieshouse.accounts.user.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.bson.Document;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,26 +11,53 @@ import org.mockito.ArgumentMatcher;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.internal.verification.AtMost;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.UncategorizedMongoDbException;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
 import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
 import org.springframework.test.util.ReflectionTestUtils;
+import uk.gov.companieshouse.accounts.user.cache.RequestCoalescer;
+import uk.gov.companieshouse.accounts.user.cache.RolesSnapshot;
+import uk.gov.companieshouse.accounts.user.cache.RolesSnapshotCache;
+import uk.gov.companieshouse.accounts.user.cache.UserBatchLoader;
+import uk.gov.companieshouse.accounts.user.dto.PermissionCheck;
+import uk.gov.companieshouse.accounts.user.dto.UserChange;
+import uk.gov.companieshouse.accounts.user.dto.UserLookup;
+import uk.gov.companieshouse.accounts.user.dto.UserRolesOperation;
+import uk.gov.companieshouse.accounts.user.dto.UserRolesResult;
+import uk.gov.companieshouse.accounts.user.dto.VersionedUser;
 import uk.gov.companieshouse.accounts.user.exceptions.BadRequestRuntimeException;
-import uk.gov.companieshouse.accounts.user.exceptions.InternalServerErrorRuntimeException;
 import uk.gov.companieshouse.accounts.user.mapper.UsersDtoDaoMapper;
+import uk.gov.companieshouse.accounts.user.models.UserRole;
 import uk.gov.companieshouse.accounts.user.models.Users;
-import uk.gov.companieshouse.accounts.user.repositories.RolesRepository;
 import uk.gov.companieshouse.accounts.user.repositories.UsersRepository;
+import uk.gov.companieshouse.accounts.user.repositories.UsersRepositoryCustom.BulkUpdateResult;
+import uk.gov.companieshouse.accounts.user.search.EmailTrigramIndex;
+import uk.gov.companieshouse.accounts.user.util.KeysetCursor;
+import uk.gov.companieshouse.accounts.user.util.UserFields;
 import uk.gov.companieshouse.api.accounts.user.model.RolesList;
 import uk.gov.companieshouse.api.accounts.user.model.User;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
@@ -45,7 +73,19 @@ public class UsersServiceTest {
     UsersRepository usersRepository;
 
     @Mock
-    RolesRepository userRolesRepository;
+    RolesSnapshotCache rolesSnapshotCache;
+
+    @Mock
+    EmailTrigramIndex emailTrigramIndex;
+
+    @Mock
+    UserBatchLoader userBatchLoader;
+
+    @Mock
+    CacheManager cacheManager;
+
+    @Spy
+    RequestCoalescer requestCoalescer = new RequestCoalescer( new SimpleMeterRegistry() );
 
     @InjectMocks
     UsersService usersService;
@@ -59,8 +99,24 @@ public class UsersServiceTest {
     private Users usersHarryPotter;
     private User userHarryPotter;
 
+    private static RolesSnapshot rolesSnapshot( final String... roleIds ){
+        final var roles = new ArrayList<UserRole>();
+        for ( final String roleId: roleIds ){
+            final var role = new UserRole();
+            role.setId( roleId );
+            role.setPermissions( List.of() );
+            roles.add( role );
+        }
+        return new RolesSnapshot( 1, Instant.now(), roles );
+    }
+
     @BeforeEach
     void setup(){
+        ReflectionTestUtils.setField( usersService, "emailChunkSize", 100 );
+        ReflectionTestUtils.setField( usersService, "emailChunkConcurrency", 4 );
+        ReflectionTestUtils.setField( usersService, "streamBatchSize", 100 );
+        ReflectionTestUtils.setField( usersService, "changesSettleTime", Duration.ofSeconds( 5 ) );
+
         usersEminem = new Users();
         usersEminem.setId( "111" );
         usersEminem.setLocale( "GB_en" );
@@ -190,9 +246,132 @@ public class UsersServiceTest {
     }
 
 
+    @Test
+    void fetchUsersTrimsEmailsAndLeavesCaseToTheCollation(){
+        Mockito.doReturn( List.of( usersHarleyQuinn ) ).when( usersRepository ).fetchUsers( List.of( "Harley.Quinn@Gotham.City" ) );
+        Mockito.doReturn( userHarleyQuinn ).when( usersDtoDaoMapper ).daoToDto( usersHarleyQuinn );
+
+        Assertions.assertEquals( List.of( userHarleyQuinn ), usersService.fetchUsers( List.of( "  Harley.Quinn@Gotham.City " ) ) );
+    }
+
+    @Test
+    void fetchUsersRemovesDuplicateEmailsIgnoringCase(){
+        Mockito.doReturn( List.of( usersEminem ) ).when( usersRepository ).fetchUsers( List.of( "eminem@rap.com" ) );
+        Mockito.doReturn( userEminem ).when( usersDtoDaoMapper ).daoToDto( usersEminem );
+
+        Assertions.assertEquals( List.of( userEminem ), usersService.fetchUsers( List.of( "eminem@rap.com", "EMINEM@rap.com", " eminem@rap.com" ) ) );
+    }
+
+    @Test
+    void fetchUsersSplitsLargeEmailListsIntoChunksAndKeepsInputOrder(){
+        ReflectionTestUtils.setField( usersService, "emailChunkSize", 2 );
+        Mockito.doReturn( List.of( usersTheRock, usersHarleyQuinn ) ).when( usersRepository ).fetchUsers( List.of( "harley.quinn@gotham.city", "the.rock@wrestling.com" ) );
+        Mockito.doReturn( List.of( usersEminem ) ).when( usersRepository ).fetchUsers( List.of( "nobody@nowhere.com", "eminem@rap.com" ) );
+        Mockito.doReturn( List.of( usersHarryPotter ) ).when( usersRepository ).fetchUsers( List.of( "harry.potter@under-the-stairs.com" ) );
+        Mockito.doReturn( userEminem ).when( usersDtoDaoMapper ).daoToDto( usersEminem );
+        Mockito.doReturn( userTheRock ).when( usersDtoDaoMapper ).daoToDto( usersTheRock );
+        Mockito.doReturn( userHarleyQuinn ).when( usersDtoDaoMapper ).daoToDto( usersHarleyQuinn );
+        Mockito.doReturn( userHarryPotter ).when( usersDtoDaoMapper ).daoToDto( usersHarryPotter );
+
+        final var users = usersService.fetchUsers( List.of( "harley.quinn@gotham.city", "the.rock@wrestling.com", "nobody@nowhere.com", "eminem@rap.com", "harry.potter@under-the-stairs.com" ) );
+
+        Assertions.assertEquals( List.of( userHarleyQuinn, userTheRock, userEminem, userHarryPotter ), users );
+        Mockito.verify( usersRepository, Mockito.times( 3 ) ).fetchUsers( any() );
+    }
+
+    @Test
+    void fetchUsersRethrowsChunkFailure(){
+        ReflectionTestUtils.setField( usersService, "emailChunkSize", 1 );
+        Mockito.doReturn( List.of( usersEminem ) ).when( usersRepository ).fetchUsers( List.of( "eminem@rap.com" ) );
+        Mockito.doThrow( new UncategorizedMongoDbException( "msg", new Exception() ) ).when( usersRepository ).fetchUsers( List.of( "the.rock@wrestling.com" ) );
+
+        Assertions.assertThrows( UncategorizedMongoDbException.class, () -> usersService.fetchUsers( List.of( "eminem@rap.com", "the.rock@wrestling.com" ) ) );
+    }
+
+    @Test
+    void fetchUserChangesSinceReturnsChangesAndCursorAfterLastChange(){
+        final var since = LocalDateTime.of( 2024, 1, 1, 0, 0 );
+        usersHarleyQuinn.setOneLoginLinkRemovedAt( since.plusDays( 1 ) );
+        usersHarleyQuinn.setOneLoginLinkRemovedBy( "111" );
+        Mockito.doReturn( List.of( usersHarleyQuinn, usersHarryPotter ) ).when( usersRepository )
+                .findUsersUpdatedAfter( eq( since ), eq( "" ), any( LocalDateTime.class ), eq( Sort.by( "updated", "id" ) ), eq( Limit.of( 2 ) ) );
+        Mockito.doReturn( userHarleyQuinn ).when( usersDtoDaoMapper ).daoToDto( usersHarleyQuinn );
+
+        final var page = usersService.fetchUserChanges( since, 1, null );
+
+        Assertions.assertEquals( List.of( new UserChange( userHarleyQuinn, usersHarleyQuinn.getUpdated().atOffset( ZoneOffset.UTC ), since.plusDays( 1 ).atOffset( ZoneOffset.UTC ), "111" ) ), page.items() );
+        Assertions.assertTrue( page.hasMore() );
+        Assertions.assertEquals( new KeysetCursor( usersHarleyQuinn.getUpdated().toString(), "333" ), KeysetCursor.decode( page.nextCursor() ) );
+    }
+
+    @Test
+    void fetchUserChangesHoldsBackChangesWithinSettleTime(){
+        final var cursor = new KeysetCursor( "2024-01-01T00:00", "333" ).encode();
+        final var before = LocalDateTime.now().minusSeconds( 5 );
+
+        usersService.fetchUserChanges( null, 1, cursor );
+
+        Mockito.verify( usersRepository ).findUsersUpdatedAfter( eq( LocalDateTime.of( 2024, 1, 1, 0, 0 ) ), eq( "333" ),
+                argThat( updatedBefore -> !updatedBefore.isBefore( before ) && updatedBefore.isBefore( LocalDateTime.now() ) ), any(), any() );
+    }
+
+    @Test
+    void fetchUserChangesWithNoNewChangesReturnsSameCursor(){
+        final var cursor = new KeysetCursor( "2024-01-01T00:00", "333" ).encode();
+        Mockito.doReturn( List.of() ).when( usersRepository ).findUsersUpdatedAfter( any(), any(), any(), any(), any() );
+
+        final var page = usersService.fetchUserChanges( LocalDateTime.of( 2025, 1, 1, 0, 0 ), 1, cursor );
+
+        Assertions.assertEquals( List.of(), page.items() );
+        Assertions.assertFalse( page.hasMore() );
+        Assertions.assertEquals( cursor, page.nextCursor() );
+    }
+
+    @Test
+    void fetchUserChangesWithMalformedCursorThrowsBadRequestRuntimeException(){
+        final var cursor = new KeysetCursor( "yesterday", "333" ).encode();
+        Assertions.assertThrows( BadRequestRuntimeException.class, () -> usersService.fetchUserChanges( null, 1, cursor ) );
+        Assertions.assertThrows( BadRequestRuntimeException.class, () -> usersService.fetchUserChanges( null, 1, "not a cursor!" ) );
+    }
+
+    @Test
+    void streamUsersPassesEachUserToConsumerAndClosesCursor(){
+        final var closed = new AtomicBoolean();
+        Mockito.doReturn( Stream.of( usersEminem, usersTheRock ).onClose( () -> closed.set( true ) ) )
+                .when( usersRepository ).streamUsersByEmails( List.of( "eminem@rap.com", "the.rock@wrestling.com" ), 100 );
+        Mockito.doReturn( userEminem ).when( usersDtoDaoMapper ).daoToDto( usersEminem );
+        Mockito.doReturn( userTheRock ).when( usersDtoDaoMapper ).daoToDto( usersTheRock );
+
+        final var streamed = new ArrayList<User>();
+        usersService.streamUsers( List.of( " eminem@rap.com", "the.rock@wrestling.com", "EMINEM@rap.com" ), streamed::add );
+
+        Assertions.assertEquals( List.of( userEminem, userTheRock ), streamed );
+        Assertions.assertTrue( closed.get() );
+    }
+
+    @Test
+    void streamUsersUsingPartialEmailWithoutTrigramIndexStreamsRegexMatches(){
+        ReflectionTestUtils.setField( usersService, "limit", 50 );
+        Mockito.doReturn( Optional.empty() ).when( emailTrigramIndex ).search( "ha", 50 );
+        Mockito.doReturn( Stream.of( usersHarleyQuinn ) ).when( usersRepository ).streamUsers( any(), eq( 50 ), eq( 100 ) );
+        Mockito.doReturn( userHarleyQuinn ).when( usersDtoDaoMapper ).daoToDto( usersHarleyQuinn );
+
+        final var streamed = new ArrayList<User>();
+        usersService.streamUsersUsingPartialEmail( "ha", streamed::add );
+
+        Assertions.assertEquals( List.of( userHarleyQuinn ), streamed );
+    }
+
+    @Test
+    void fetchUsersFieldsTrimsEmails(){
+        Mockito.doReturn( List.of() ).when( usersRepository ).fetchUsersWithFields( List.of( "eminem@rap.com" ), Set.of( "email" ) );
+
+        Assertions.assertEquals( List.of(), usersService.fetchUsersFields( List.of( " eminem@rap.com" ), UserFields.parse( "email" ) ) );
+    }
+
     @Test
     void fetchUserWithMalformedInputOrNonexistentUserIdReturnsEmptyOptional(){
-        Mockito.doReturn( Optional.empty() ).when( usersRepository ).findUsersById( any() );
+        Mockito.doReturn( Optional.empty() ).when( userBatchLoader ).load( any() );
 
         Assertions.assertFalse( usersService.fetchUser( null ).isPresent() );
         Assertions.assertFalse( usersService.fetchUser( "" ).isPresent() );
@@ -202,17 +381,119 @@ public class UsersServiceTest {
 
     @Test
     void fetchUserFetchesUser(){
-        Mockito.doReturn( Optional.of( usersHarleyQuinn ) ).when( usersRepository ).findUsersById( any() );
+        Mockito.doReturn( Optional.of( usersHarleyQuinn ) ).when( userBatchLoader ).load( any() );
         Mockito.doReturn( userHarleyQuinn ).when( usersDtoDaoMapper ).daoToDto( usersHarleyQuinn );
 
         Assertions.assertEquals( "Harley Quinn", usersService.fetchUser( "333" ).get().getDisplayName() );
     }
 
+    @Test
+    void fetchVersionedUserCachesUserWithUpdatedTimestampOfItsDocument(){
+        final var updated = LocalDateTime.of( 2024, 1, 1, 12, 0 );
+        usersHarleyQuinn.setUpdated( updated );
+        final var usersCache = new ConcurrentMapCache( "users" );
+        Mockito.doReturn( usersCache ).when( cacheManager ).getCache( "users" );
+        Mockito.doReturn( Optional.of( usersHarleyQuinn ) ).when( userBatchLoader ).load( "333" );
+        Mockito.doReturn( userHarleyQuinn ).when( usersDtoDaoMapper ).daoToDto( usersHarleyQuinn );
+
+        final var first = usersService.fetchVersionedUser( "333" );
+        final var second = usersService.fetchVersionedUser( "333" );
+
+        Assertions.assertEquals( Optional.of( new VersionedUser( userHarleyQuinn, updated ) ), first );
+        Assertions.assertEquals( first, second );
+        Assertions.assertEquals( userHarleyQuinn, usersService.fetchUser( "333" ).get() );
+        Mockito.verify( userBatchLoader, Mockito.times( 1 ) ).load( "333" );
+    }
+
+    @Test
+    void fetchVersionedUserDoesNotCacheNonexistentUser(){
+        final var usersCache = new ConcurrentMapCache( "users" );
+        Mockito.doReturn( usersCache ).when( cacheManager ).getCache( "users" );
+        Mockito.doReturn( Optional.empty() ).when( userBatchLoader ).load( "999" );
+
+        Assertions.assertTrue( usersService.fetchVersionedUser( "999" ).isEmpty() );
+        Assertions.assertNull( usersCache.get( "999" ) );
+    }
+
+    @Test
+    void fetchUserLastUpdatedReturnsUpdatedTimestampFromProjection(){
+        final var updated = LocalDateTime.of( 2024, 1, 1, 12, 0 );
+        final var projection = new Users();
+        projection.setId( "333" );
+        projection.setUpdated( updated );
+        Mockito.doReturn( Optional.of( projection ) ).when( usersRepository ).findUpdatedById( "333" );
+
+        Assertions.assertEquals( Optional.of( updated ), usersService.fetchUserLastUpdated( "333" ) );
+        Mockito.verify( usersRepository, Mockito.never() ).findUsersById( any() );
+    }
+
+    @Test
+    void fetchUserLastUpdatedWithNonexistentUserReturnsEmptyOptional(){
+        Mockito.doReturn( Optional.empty() ).when( usersRepository ).findUpdatedById( "999" );
+
+        Assertions.assertTrue( usersService.fetchUserLastUpdated( "999" ).isEmpty() );
+    }
+
+    @Test
+    void fetchUserFieldsProjectsAndSelectsOnlyRequestedFields(){
+        final var fields = UserFields.parse( "user_id,display_name" );
+        final var projection = new Users();
+        projection.setId( "333" );
+        projection.setDisplayName( "Harley Quinn" );
+        Mockito.doReturn( List.of( projection ) ).when( usersRepository ).findUsersWithFields( any(), eq( Set.of( "_id", "display_name" ) ), eq( 1 ) );
+        Mockito.doReturn( new User().userId( "333" ).displayName( "Harley Quinn" ).hasLinkedOneLogin( false ) ).when( usersDtoDaoMapper ).daoToDto( projection );
+
+        Assertions.assertEquals( Optional.of( Map.of( "user_id", "333", "display_name", "Harley Quinn" ) ), usersService.fetchUserFields( "333", fields ) );
+    }
+
+    @Test
+    void fetchUserFieldsWithNonexistentUserReturnsEmptyOptional(){
+        Mockito.doReturn( List.of() ).when( usersRepository ).findUsersWithFields( any(), any(), eq( 1 ) );
+
+        Assertions.assertTrue( usersService.fetchUserFields( "999", UserFields.parse( "email" ) ).isEmpty() );
+    }
+
+    @Test
+    void fetchUsersFieldsUsingPartialEmailReadsTrigramIndexCandidatesInIdOrder(){
+        ReflectionTestUtils.setField( usersService, "limit", 50 );
+        final var harleyQuinn = new Users();
+        harleyQuinn.setId( "333" );
+        final var harryPotter = new Users();
+        harryPotter.setId( "444" );
+        Mockito.doReturn( Optional.of( List.of( "333", "444" ) ) ).when( emailTrigramIndex ).search( "ha", 50 );
+        Mockito.doReturn( List.of( harleyQuinn, harryPotter ) ).when( usersRepository ).findUsersWithFieldsOrderedById( any(), eq( Set.of( "_id" ) ), eq( 50 ) );
+        Mockito.doReturn( new User().userId( "333" ) ).when( usersDtoDaoMapper ).daoToDto( harleyQuinn );
+        Mockito.doReturn( new User().userId( "444" ) ).when( usersDtoDaoMapper ).daoToDto( harryPotter );
+
+        final var users = usersService.fetchUsersFieldsUsingPartialEmail( "ha", UserFields.parse( "user_id" ) );
+
+        Assertions.assertEquals( List.of( Map.of( "user_id", "333" ), Map.of( "user_id", "444" ) ), users );
+        Mockito.verify( usersRepository, Mockito.never() ).findAllById( any() );
+    }
+
+    @Test
+    void fetchUsersFieldsUsingPartialEmailWithoutTrigramIndexUsesRegex(){
+        ReflectionTestUtils.setField( usersService, "limit", 50 );
+        Mockito.doReturn( Optional.empty() ).when( emailTrigramIndex ).search( "ha", 50 );
+        Mockito.doReturn( List.of() ).when( usersRepository ).findUsersWithFieldsOrderedById( any(), any(), eq( 50 ) );
+
+        Assertions.assertEquals( List.of(), usersService.fetchUsersFieldsUsingPartialEmail( "ha", UserFields.parse( "email" ) ) );
+        Mockito.verify( usersRepository, Mockito.never() ).findUsersByEmailLike( any(), any(), any() );
+    }
+
+    @Test
+    void userExistsUsesBatchLoader(){
+        Mockito.doReturn( true ).when( userBatchLoader ).exists( "333" );
+
+        Assertions.assertTrue( usersService.userExists( "333" ) );
+        Mockito.verify( usersRepository, Mockito.never() ).existsById( any() );
+    }
+
     private ArgumentMatcher<Update> setRolesUpdateParameterMatches( Set<String> expectedRoles ) {
         return update -> {
             final var document = update.getUpdateObject().get("$set", Document.class);
             final var roles = document.getOrDefault("roles", null );
-            return roles.equals( expectedRoles );
+            return roles.equals( expectedRoles ) && document.get( "updated" ) instanceof LocalDateTime;
         };
     }
 
@@ -220,31 +501,31 @@ public class UsersServiceTest {
     void setRolesWithNullOrMalformedOrNonexistentUserIdUserRunsQuery(){
         final var support = new RolesList();
         support.add( "support_member" );
-        Mockito.doReturn( 0 ).when( usersRepository ).updateUser( any(), any() );
-        Mockito.doReturn( true ).when( userRolesRepository ).existsById( "support_member" );
+        Mockito.doReturn( 0 ).when( usersRepository ).updateUserCountingMatches( any(), any() );
+        Mockito.doReturn( rolesSnapshot( "support_member" ) ).when( rolesSnapshotCache ).current();
 
         usersService.setRoles( null, support);
-        Mockito.verify( usersRepository ).updateUser( isNull(), argThat(setRolesUpdateParameterMatches( Set.of( "support_member" ) ) ) );
+        Mockito.verify( usersRepository ).updateUserCountingMatches( isNull(), argThat(setRolesUpdateParameterMatches( Set.of( "support_member" ) ) ) );
 
         usersService.setRoles( "", support);
-        Mockito.verify( usersRepository ).updateUser( eq(""), argThat(setRolesUpdateParameterMatches( Set.of( "support_member" ) ) ) );
+        Mockito.verify( usersRepository ).updateUserCountingMatches( eq(""), argThat(setRolesUpdateParameterMatches( Set.of( "support_member" ) ) ) );
 
         usersService.setRoles( "$", support );
-        Mockito.verify( usersRepository ).updateUser( eq("$"), argThat(setRolesUpdateParameterMatches( Set.of( "support_member") ) ) );
+        Mockito.verify( usersRepository ).updateUserCountingMatches( eq("$"), argThat(setRolesUpdateParameterMatches( Set.of( "support_member") ) ) );
 
         usersService.setRoles( "999", support );
-        Mockito.verify( usersRepository ).updateUser( eq("999"), argThat(setRolesUpdateParameterMatches( Set.of( "support_member" ) ) ) );
+        Mockito.verify( usersRepository ).updateUserCountingMatches( eq("999"), argThat(setRolesUpdateParameterMatches( Set.of( "support_member" ) ) ) );
     }
 
     @Test
     void setRolesInsertsRolesFieldIfNotPresentRunsQuery(){
         final var support = new RolesList();
         support.add( "support-member" );
-        Mockito.doReturn( 1 ).when( usersRepository ).updateUser( any(), any() );
-        Mockito.doReturn( true ).when( userRolesRepository ).existsById( "support-member" );
+        Mockito.doReturn( 1 ).when( usersRepository ).updateUserCountingMatches( any(), any() );
+        Mockito.doReturn( rolesSnapshot( "support-member" ) ).when( rolesSnapshotCache ).current();
 
         usersService.setRoles( "444", support );
-        Mockito.verify( usersRepository, new AtMost(1)).updateUser( eq("444"), argThat(setRolesUpdateParameterMatches( Set.of( "support_member" ) ) ) );
+        Mockito.verify( usersRepository, new AtMost(1)).updateUserCountingMatches( eq("444"), argThat(setRolesUpdateParameterMatches( Set.of( "support_member" ) ) ) );
     }
 
     @Test
@@ -254,35 +535,239 @@ public class UsersServiceTest {
 
     @Test
     void setRolesUpdatesRolesRunsQuery(){
-        Mockito.doReturn( 1 ).when( usersRepository ).updateUser( any(), any() );
-        Mockito.doReturn( true ).when( userRolesRepository ).existsById( "support_member" );
-        Mockito.doReturn( true ).when( userRolesRepository ).existsById( "csi_support" );
+        Mockito.doReturn( 1 ).when( usersRepository ).updateUserCountingMatches( any(), any() );
+        Mockito.doReturn( rolesSnapshot( "support_member", "csi_support" ) ).when( rolesSnapshotCache ).current();
 
         usersService.setRoles( "333", new RolesList() );
-        Mockito.verify( usersRepository ).updateUser( eq("333"), argThat(setRolesUpdateParameterMatches( Set.of(  ) ) ) );
+        Mockito.verify( usersRepository ).updateUserCountingMatches( eq("333"), argThat(setRolesUpdateParameterMatches( Set.of(  ) ) ) );
         final var support = new RolesList();
         support.add( "support_member" );
         usersService.setRoles( "333", support);
-        Mockito.verify( usersRepository, new AtMost(1) ).updateUser( eq("333"), argThat(setRolesUpdateParameterMatches( Set.of( "support_member") ) ) );
+        Mockito.verify( usersRepository, new AtMost(1) ).updateUserCountingMatches( eq("333"), argThat(setRolesUpdateParameterMatches( Set.of( "support_member") ) ) );
 
         support.add( "csi_support" );
 
         usersService.setRoles( "333", support);
-        Mockito.verify( usersRepository, new AtMost(1) ).updateUser( eq("333"), argThat(setRolesUpdateParameterMatches( Set.of( "support_member", "csi_support") ) ) );
+        Mockito.verify( usersRepository, new AtMost(1) ).updateUserCountingMatches( eq("333"), argThat(setRolesUpdateParameterMatches( Set.of( "support_member", "csi_support") ) ) );
     }
 
     @Test
     void setRolesWithDummyRolesThrowsBadRequestException(){
         var rolesList = new RolesList();
         rolesList.add("dummy");
-        when(userRolesRepository.existsById("dummy")).thenReturn(false);
+        when(rolesSnapshotCache.current()).thenReturn(rolesSnapshot("support_member"));
         Assertions.assertThrows( BadRequestRuntimeException.class, () -> usersService.setRoles( "333", rolesList) );
     }
 
+    private ArgumentMatcher<UpdateDefinition> patchRolesUpdateMatches( final List<String> rolesToAdd, final List<String> rolesToRemove ) {
+        final var currentRoles = new Document( "$ifNull", List.of( "$roles", List.of() ) );
+        final var keptRoles = new Document( "$setDifference", List.of( currentRoles, new Document( "$literal", rolesToRemove ) ) );
+        final var expectedRoles = new Document( "$setUnion", List.of( keptRoles, new Document( "$literal", rolesToAdd ) ) );
+        return update -> {
+            final var pipeline = ( (AggregationUpdate) update ).toPipeline( Aggregation.DEFAULT_CONTEXT );
+            final var document = pipeline.getFirst().get( "$set", Document.class );
+            return pipeline.size() == 1 && document.get( "roles" ).equals( expectedRoles ) && document.get( "updated" ) instanceof LocalDateTime;
+        };
+    }
+
+    @Test
+    void patchRolesWithOnlyRolesToAddAddsThemToTheSet(){
+        Mockito.doReturn( 1 ).when( usersRepository ).updateUserCountingMatches( any(), any() );
+        Mockito.doReturn( rolesSnapshot( "supervisor" ) ).when( rolesSnapshotCache ).current();
+
+        Assertions.assertEquals( 1, usersService.patchRoles( "333", Set.of( "supervisor" ), Set.of() ) );
+
+        Mockito.verify( usersRepository ).updateUserCountingMatches( eq( "333" ), argThat( patchRolesUpdateMatches( List.of( "supervisor" ), List.of() ) ) );
+    }
+
+    @Test
+    void patchRolesWithOnlyRolesToRemoveRemovesThemWithoutValidatingThem(){
+        Mockito.doReturn( 1 ).when( usersRepository ).updateUserCountingMatches( any(), any() );
+        Mockito.doReturn( rolesSnapshot( "supervisor" ) ).when( rolesSnapshotCache ).current();
+
+        Assertions.assertEquals( 1, usersService.patchRoles( "333", Set.of(), Set.of( "retired_role" ) ) );
+
+        Mockito.verify( usersRepository ).updateUserCountingMatches( eq( "333" ), argThat( patchRolesUpdateMatches( List.of(), List.of( "retired_role" ) ) ) );
+    }
+
+    @Test
+    void patchRolesWithRolesToAddAndRemoveRunsOneUpdate(){
+        Mockito.doReturn( 1 ).when( usersRepository ).updateUserCountingMatches( any(), any() );
+        Mockito.doReturn( rolesSnapshot( "supervisor" ) ).when( rolesSnapshotCache ).current();
+
+        Assertions.assertEquals( 1, usersService.patchRoles( "333", Set.of( "supervisor" ), Set.of( "appeals_team" ) ) );
+
+        Mockito.verify( usersRepository ).updateUserCountingMatches( eq( "333" ), argThat( patchRolesUpdateMatches( List.of( "supervisor" ), List.of( "appeals_team" ) ) ) );
+    }
+
+    @Test
+    void patchRolesWithNonexistentUserReturnsZero(){
+        Mockito.doReturn( 0 ).when( usersRepository ).updateUserCountingMatches( any(), any() );
+        Mockito.doReturn( rolesSnapshot( "supervisor" ) ).when( rolesSnapshotCache ).current();
+
+        Assertions.assertEquals( 0, usersService.patchRoles( "999", Set.of( "supervisor" ), Set.of( "appeals_team" ) ) );
+
+        Mockito.verify( usersRepository ).updateUserCountingMatches( eq( "999" ), any() );
+    }
+
+    @Test
+    void patchRolesWithDummyRoleToAddThrowsBadRequestException(){
+        Mockito.doReturn( rolesSnapshot( "supervisor" ) ).when( rolesSnapshotCache ).current();
+
+        Assertions.assertThrows( BadRequestRuntimeException.class, () -> usersService.patchRoles( "333", Set.of( "dummy" ), Set.of() ) );
+        Mockito.verify( usersRepository, Mockito.never() ).updateUserCountingMatches( any(), any() );
+    }
+
+    @Test
+    void patchRolesInBulkRunsOneBulkWriteAndEvictsEveryUser(){
+        final var usersCache = Mockito.mock( Cache.class );
+        final var permissionsCache = Mockito.mock( Cache.class );
+        Mockito.doReturn( usersCache ).when( cacheManager ).getCache( "users" );
+        Mockito.doReturn( permissionsCache ).when( cacheManager ).getCache( "user_permissions" );
+        Mockito.doReturn( rolesSnapshot( "supervisor" ) ).when( rolesSnapshotCache ).current();
+        Mockito.doReturn( new BulkUpdateResult( 2, Set.of() ) ).when( usersRepository ).updateUsersInBulk( any() );
+
+        final var results = usersService.patchRolesInBulk( List.of(
+                new UserRolesOperation( "111", List.of( "supervisor" ), List.of() ),
+                new UserRolesOperation( "222", List.of( "supervisor" ), List.of( "bados_user" ) ) ) );
+
+        Assertions.assertEquals( List.of( new UserRolesResult( "111", UserRolesResult.Status.UPDATED ), new UserRolesResult( "222", UserRolesResult.Status.UPDATED ) ), results );
+        Mockito.verify( usersRepository ).updateUsersInBulk( argThat( updates -> updates.size() == 2 ) );
+        Mockito.verify( usersRepository, Mockito.never() ).findUsersWithFields( any(), any(), anyInt() );
+        Mockito.verify( usersCache ).evict( "111" );
+        Mockito.verify( usersCache ).evict( "222" );
+        Mockito.verify( permissionsCache ).evict( "111" );
+        Mockito.verify( permissionsCache ).evict( "222" );
+    }
+
+    @Test
+    void patchRolesInBulkReportsUsersThatWereNotFoundOrFailed(){
+        Mockito.doReturn( rolesSnapshot( "supervisor" ) ).when( rolesSnapshotCache ).current();
+        Mockito.doReturn( new BulkUpdateResult( 1, Set.of( 2 ) ) ).when( usersRepository ).updateUsersInBulk( any() );
+        Mockito.doReturn( List.of( usersEminem, usersHarleyQuinn ) ).when( usersRepository ).findUsersWithFields( any(), eq( List.of( "_id" ) ), eq( 0 ) );
+
+        final var results = usersService.patchRolesInBulk( List.of(
+                new UserRolesOperation( "111", List.of( "supervisor" ), List.of() ),
+                new UserRolesOperation( "999", List.of( "supervisor" ), List.of() ),
+                new UserRolesOperation( "333", List.of( "supervisor" ), List.of() ) ) );
+
+        Assertions.assertEquals( List.of( new UserRolesResult( "111", UserRolesResult.Status.UPDATED ),
+                new UserRolesResult( "999", UserRolesResult.Status.NOT_FOUND ),
+                new UserRolesResult( "333", UserRolesResult.Status.FAILED ) ), results );
+    }
+
+    @Test
+    void patchRolesInBulkWithDummyRoleToAddThrowsBadRequestException(){
+        Mockito.doReturn( rolesSnapshot( "supervisor" ) ).when( rolesSnapshotCache ).current();
+        final var operations = List.of( new UserRolesOperation( "111", List.of( "supervisor" ), List.of() ), new UserRolesOperation( "222", List.of( "dummy" ), List.of() ) );
+
+        Assertions.assertThrows( BadRequestRuntimeException.class, () -> usersService.patchRolesInBulk( operations ) );
+        Mockito.verify( usersRepository, Mockito.never() ).updateUsersInBulk( any() );
+    }
+
+    private static RolesSnapshot rolesSnapshotWithPermissions( final long version ){
+        final var supervisor = new UserRole();
+        supervisor.setId( "supervisor" );
+        supervisor.setPermissions( List.of( "/admin/user/search", "/admin/roles" ) );
+        final var restrictedWord = new UserRole();
+        restrictedWord.setId( "restricted_word" );
+        restrictedWord.setPermissions( List.of( "/admin/user/search", "/admin/restricted-word" ) );
+        return new RolesSnapshot( version, Instant.now(), List.of( supervisor, restrictedWord ) );
+    }
+
+    @Test
+    void fetchUserPermissionsResolvesRolesOnceAndCachesResult(){
+        usersEminem.setRoles( List.of( "supervisor", "restricted_word", "retired_role" ) );
+        Mockito.doReturn( new ConcurrentMapCache( "user_permissions" ) ).when( cacheManager ).getCache( "user_permissions" );
+        Mockito.doReturn( rolesSnapshotWithPermissions( 1 ) ).when( rolesSnapshotCache ).current();
+        Mockito.doReturn( List.of( usersEminem ) ).when( usersRepository ).findUsersWithFields( any(), eq( List.of( "roles" ) ), eq( 1 ) );
+
+        final var expected = Set.of( "/admin/user/search", "/admin/roles", "/admin/restricted-word" );
+        Assertions.assertEquals( Optional.of( expected ), usersService.fetchUserPermissions( "111" ) );
+        Assertions.assertEquals( Optional.of( expected ), usersService.fetchUserPermissions( "111" ) );
+        Mockito.verify( usersRepository ).findUsersWithFields( any(), any(), anyInt() );
+    }
+
+    @Test
+    void fetchUserPermissionsResolvesAgainWhenRolesChange(){
+        Mockito.doReturn( new ConcurrentMapCache( "user_permissions" ) ).when( cacheManager ).getCache( "user_permissions" );
+        Mockito.doReturn( rolesSnapshotWithPermissions( 1 ), rolesSnapshotWithPermissions( 2 ) ).when( rolesSnapshotCache ).current();
+        Mockito.doReturn( List.of( usersEminem ) ).when( usersRepository ).findUsersWithFields( any(), eq( List.of( "roles" ) ), eq( 1 ) );
+
+        usersService.fetchUserPermissions( "111" );
+        usersService.fetchUserPermissions( "111" );
+
+        Mockito.verify( usersRepository, Mockito.times( 2 ) ).findUsersWithFields( any(), any(), anyInt() );
+    }
+
+    @Test
+    void checkUserPermissionsChecksEachPermissionAgainstCachedPermissions(){
+        usersEminem.setRoles( List.of( "supervisor" ) );
+        Mockito.doReturn( new ConcurrentMapCache( "user_permissions" ) ).when( cacheManager ).getCache( "user_permissions" );
+        Mockito.doReturn( rolesSnapshotWithPermissions( 1 ) ).when( rolesSnapshotCache ).current();
+        Mockito.doReturn( List.of( usersEminem ) ).when( usersRepository ).findUsersWithFields( any(), eq( List.of( "roles" ) ), eq( 1 ) );
+
+        final var expected = List.of( new PermissionCheck( "/admin/roles", true ), new PermissionCheck( "/admin/restricted-word", false ), new PermissionCheck( "/admin/unknown", false ) );
+        Assertions.assertEquals( Optional.of( expected ), usersService.checkUserPermissions( "111", List.of( "/admin/roles", "/admin/restricted-word", "/admin/unknown" ) ) );
+        Assertions.assertEquals( Optional.of( List.of( new PermissionCheck( "/admin/user/search", true ) ) ), usersService.checkUserPermissions( "111", List.of( "/admin/user/search" ) ) );
+        Mockito.verify( usersRepository ).findUsersWithFields( any(), any(), anyInt() );
+    }
+
+    @Test
+    void checkUserPermissionsWithNonexistentUserReturnsEmptyOptional(){
+        Mockito.doReturn( rolesSnapshotWithPermissions( 1 ) ).when( rolesSnapshotCache ).current();
+        Mockito.doReturn( List.of() ).when( usersRepository ).findUsersWithFields( any(), any(), anyInt() );
+
+        Assertions.assertEquals( Optional.empty(), usersService.checkUserPermissions( "999", List.of( "/admin/roles" ) ) );
+    }
+
+    @Test
+    void fetchUserPermissionsWithNonexistentUserReturnsEmptyOptional(){
+        Mockito.doReturn( rolesSnapshotWithPermissions( 1 ) ).when( rolesSnapshotCache ).current();
+        Mockito.doReturn( List.of() ).when( usersRepository ).findUsersWithFields( any(), any(), anyInt() );
+
+        Assertions.assertEquals( Optional.empty(), usersService.fetchUserPermissions( "999" ) );
+    }
+
+    @Test
+    void fetchRoleMembersReturnsRequestedFieldsAndCursorAfterLastUser(){
+        Mockito.doReturn( List.of( usersEminem, usersTheRock ) ).when( usersRepository )
+                .findUsersWithFieldsOrderedById( argThat( criteria -> criteria.getCriteriaObject().equals( new Document( "roles", "supervisor" ) ) ), eq( Set.of( "_id" ) ), eq( 2 ) );
+        Mockito.doReturn( userEminem ).when( usersDtoDaoMapper ).daoToDto( usersEminem );
+
+        final var page = usersService.fetchRoleMembers( "supervisor", UserFields.parse( "user_id" ), 1, null, false );
+
+        Assertions.assertEquals( List.of( Map.of( "user_id", "111" ) ), page.items() );
+        Assertions.assertEquals( new KeysetCursor( "supervisor", "111" ), KeysetCursor.decode( page.nextCursor() ) );
+        Assertions.assertNull( page.total() );
+        Mockito.verify( usersRepository, Mockito.never() ).countUsersWithRole( any() );
+    }
+
+    @Test
+    void fetchRoleMembersWithCursorStartsAfterItAndCountsUsers(){
+        final var cursor = new KeysetCursor( "supervisor", "111" ).encode();
+        Mockito.doReturn( List.of() ).when( usersRepository ).findUsersWithFieldsOrderedById( any(), any(), anyInt() );
+        Mockito.doReturn( 1L ).when( usersRepository ).countUsersWithRole( "supervisor" );
+
+        final var page = usersService.fetchRoleMembers( "supervisor", UserFields.parse( "user_id" ), 1, cursor, true );
+
+        Assertions.assertEquals( List.of(), page.items() );
+        Assertions.assertNull( page.nextCursor() );
+        Assertions.assertEquals( 1L, page.total() );
+        Mockito.verify( usersRepository ).findUsersWithFieldsOrderedById(
+                argThat( criteria -> criteria.getCriteriaObject().equals( new Document( "roles", "supervisor" ).append( "id", new Document( "$gt", "111" ) ) ) ), any(), eq( 2 ) );
+    }
+
+    @Test
+    void fetchRoleMembersWithCursorForAnotherRoleThrowsBadRequestRuntimeException(){
+        final var cursor = new KeysetCursor( "appeals_team", "111" ).encode();
+        Assertions.assertThrows( BadRequestRuntimeException.class, () -> usersService.fetchRoleMembers( "supervisor", UserFields.parse( "user_id" ), 1, cursor, false ) );
+    }
+
     @Test
     void fetchUsersUsingPartialEmail(){
         ReflectionTestUtils.setField(usersService, "limit", 50);
-        Mockito.doReturn(List.of(usersHarleyQuinn, usersHarryPotter)).when(usersRepository).findUsersByEmailLike("har", Limit.of(50));
+        Mockito.doReturn(List.of(usersHarleyQuinn, usersHarryPotter)).when(usersRepository).findUsersByEmailLike("har", Sort.by("id"), Limit.of(50));
         Mockito.doReturn(userHarleyQuinn).when(usersDtoDaoMapper).daoToDto(usersHarleyQuinn);
         Mockito.doReturn(userHarryPotter).when(usersDtoDaoMapper).daoToDto(usersHarryPotter);
 
@@ -293,6 +778,81 @@ public class UsersServiceTest {
                 .map(User::getDisplayName).allMatch(user -> (user.equals("Harry Potter")) || (user.equals("Harley Quinn"))));
     }
 
+    @Test
+    void fetchUsersUsingPartialEmailUsesTrigramIndexWhenItCanAnswer(){
+        ReflectionTestUtils.setField(usersService, "limit", 50);
+        Mockito.doReturn(Optional.of(List.of("444", "333"))).when(emailTrigramIndex).search("har", 50);
+        Mockito.doReturn(List.of(usersHarleyQuinn, usersHarryPotter)).when(usersRepository).findAllById(List.of("444", "333"));
+        Mockito.doReturn(userHarleyQuinn).when(usersDtoDaoMapper).daoToDto(usersHarleyQuinn);
+        Mockito.doReturn(userHarryPotter).when(usersDtoDaoMapper).daoToDto(usersHarryPotter);
+
+        final var multipleUsers = usersService.fetchUsersUsingPartialEmail("har");
+
+        Assertions.assertEquals(List.of("Harry Potter", "Harley Quinn"), multipleUsers.stream().map(User::getDisplayName).toList());
+        Mockito.verify(usersRepository, Mockito.never()).findUsersByEmailLike(any(), any(), any());
+    }
+
+    @Test
+    void fetchUsersUsingPartialEmailDropsIndexedUsersWhoseEmailNoLongerMatches(){
+        ReflectionTestUtils.setField(usersService, "limit", 50);
+        Mockito.doReturn(Optional.of(List.of("333", "111"))).when(emailTrigramIndex).search("har", 50);
+        Mockito.doReturn(List.of(usersHarleyQuinn, usersEminem)).when(usersRepository).findAllById(List.of("333", "111"));
+        Mockito.doReturn(userHarleyQuinn).when(usersDtoDaoMapper).daoToDto(usersHarleyQuinn);
+
+        final var users = usersService.fetchUsersUsingPartialEmail("har");
+
+        Assertions.assertEquals(1, users.size());
+        Assertions.assertEquals("Harley Quinn", users.getFirst().getDisplayName());
+    }
+
+    @Test
+    void fetchUsersPageUsingPartialEmailReturnsCursorForNextPage(){
+        Mockito.doReturn(List.of(usersHarleyQuinn, usersHarryPotter)).when(usersRepository).findUsersByEmailMatchingAfter("ha", "", "", Sort.by("email", "id"), Limit.of(2));
+        Mockito.doReturn(userHarleyQuinn).when(usersDtoDaoMapper).daoToDto(usersHarleyQuinn);
+
+        final var page = usersService.fetchUsersPageUsingPartialEmail("ha", 1, null);
+
+        Assertions.assertEquals(List.of(userHarleyQuinn), page.items());
+        Assertions.assertEquals(new KeysetCursor("harley.quinn@gotham.city", "333"), KeysetCursor.decode(page.nextCursor()));
+    }
+
+    @Test
+    void fetchUsersPageUsingPartialEmailOnLastPageReturnsNoCursor(){
+        final var cursor = new KeysetCursor("harley.quinn@gotham.city", "333").encode();
+        Mockito.doReturn(List.of(usersHarryPotter)).when(usersRepository).findUsersByEmailMatchingAfter("ha", "harley.quinn@gotham.city", "333", Sort.by("email", "id"), Limit.of(2));
+        Mockito.doReturn(userHarryPotter).when(usersDtoDaoMapper).daoToDto(usersHarryPotter);
+
+        final var page = usersService.fetchUsersPageUsingPartialEmail("ha", 1, cursor);
+
+        Assertions.assertEquals(List.of(userHarryPotter), page.items());
+        Assertions.assertNull(page.nextCursor());
+    }
+
+    @Test
+    void fetchUsersPageUsingPartialEmailTreatsLeadingAndTrailingStarsAsWildcardsLikeSearch(){
+        Mockito.doReturn(List.of()).when(usersRepository).findUsersByEmailMatchingAfter(".*\\Q.city\\E", "", "", Sort.by("email", "id"), Limit.of(2));
+
+        Assertions.assertEquals(List.of(), usersService.fetchUsersPageUsingPartialEmail("*.city", 1, null).items());
+    }
+
+    @Test
+    void fetchUsersPageUsingPartialEmailWithMalformedCursorThrowsBadRequestRuntimeException(){
+        Assertions.assertThrows(BadRequestRuntimeException.class, () -> usersService.fetchUsersPageUsingPartialEmail("ha", 1, "not a cursor!"));
+    }
+
+    @Test
+    void fetchUsersByIdRunsOneQueryAndReturnsUsersInRequestOrder(){
+        Mockito.doReturn(List.of(usersEminem, usersHarleyQuinn)).when(usersRepository).findAllById(Set.of("333", "999", "111"));
+        Mockito.doReturn(userEminem).when(usersDtoDaoMapper).daoToDto(usersEminem);
+        Mockito.doReturn(userHarleyQuinn).when(usersDtoDaoMapper).daoToDto(usersHarleyQuinn);
+
+        final var users = usersService.fetchUsersById(List.of("333", "999", "111", "333"));
+
+        Assertions.assertEquals(List.of(UserLookup.found("333", userHarleyQuinn), UserLookup.notFound("999"),
+                UserLookup.found("111", userEminem), UserLookup.found("333", userHarleyQuinn)), users);
+        Mockito.verify(usersRepository).findAllById(any());
+    }
+
     @Test
     void unlinkOneloginWithNullInputsThrowsIllegalArgumentException(){
         Assertions.assertThrows( IllegalArgumentException.class, () -> usersService.unlinkOnelogin( null, "111" ) );
@@ -300,29 +860,26 @@ public class UsersServiceTest {
     }
 
     @Test
-    void unlinkOneloginWithMalformedOrNonexistentTargetUserIdThrowsInternalServerErrorRuntimeException(){
-        Assertions.assertThrows( InternalServerErrorRuntimeException.class, () -> usersService.unlinkOnelogin( "£££", "111" ) );
-        Assertions.assertThrows( InternalServerErrorRuntimeException.class, () -> usersService.unlinkOnelogin( "000", "111" ) );
+    void unlinkOneloginWithNonexistentOrAlreadyUnlinkedTargetUserReturnsEmptyOptional(){
+        Mockito.doReturn( Optional.empty() ).when( usersRepository ).updateUserIfLinkedToOneLogin( eq( "000" ), any( Update.class ) );
+
+        Assertions.assertTrue( usersService.unlinkOnelogin( "000", "111" ).isEmpty() );
+        Mockito.verify( usersDtoDaoMapper, Mockito.never() ).daoToDto( any() );
     }
 
     @Test
-    void unlinkOneloginReturnsUpdatedUserRecord(){
-        Mockito.doReturn( 1 ).when( usersRepository ).updateUser( eq( "333" ), any( Update.class ) );
-        Mockito.doReturn( Optional.of( usersHarleyQuinn ) ).when( usersRepository ).findUsersById( "333" );
+    void unlinkOneloginReturnsUpdatedUserRecordFromSingleFindAndModify(){
+        Mockito.doReturn( Optional.of( usersHarleyQuinn ) ).when( usersRepository ).updateUserIfLinkedToOneLogin( eq( "333" ), argThat( update ->
+                update.getUpdateObject().get( "$unset", Document.class ).containsKey( "one_login_data" )
+                && "111".equals( update.getUpdateObject().get( "$set", Document.class ).get( "one_login_link_removed_by" ) ) ) );
         Mockito.doReturn( userHarleyQuinn ).when( usersDtoDaoMapper ).daoToDto( usersHarleyQuinn );
 
-        final var updatedUserDto = usersService.unlinkOnelogin( "333", "111" );
+        final var updatedUserDto = usersService.unlinkOnelogin( "333", "111" ).orElseThrow();
 
         Assertions.assertEquals( "333", updatedUserDto.getUserId() );
         Assertions.assertFalse( updatedUserDto.getHasLinkedOneLogin() );
-    }
-
-    @Test
-    void unlinkOneloginReturnsInternalServerErrorRuntimeExceptionWhenUpdatedUserRecordsCannotBeRetrieved(){
-        Mockito.doReturn( 1 ).when( usersRepository ).updateUser( eq( "333" ), any( Update.class ) );
-        Mockito.doReturn( Optional.empty() ).when( usersRepository ).findUsersById( "333" );
-
-        Assertions.assertThrows( InternalServerErrorRuntimeException.class, () -> usersService.unlinkOnelogin( "333", "111" ) );
+        Mockito.verify( usersRepository, Mockito.never() ).findUsersById( any() );
+        Mockito.verify( usersRepository, Mockito.never() ).updateUser( any(), any() );
     }
 
 }
@@ -0,0 +1,69 @@
+package uk.gov.companieshouse.accounts.user.util;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag( "unit-test" )
+class RateLimiterTest {
+
+    @Test
+    void acquireNeverHandsOutPermitsFasterThanTheRate(){
+        final var start = System.nanoTime();
+        final var rateLimiter = new RateLimiter( 20 );
+
+        for ( int permit = 0; permit < 5; permit++ ){
+            rateLimiter.acquire();
+        }
+
+        Assertions.assertTrue( System.nanoTime() - start >= Duration.ofMillis( 200 ).toNanos() );
+    }
+
+    @Test
+    void acquireWithoutLimitReturnsImmediately(){
+        final var rateLimiter = new RateLimiter( 0 );
+
+        Assertions.assertTimeout( Duration.ofSeconds( 1 ), () -> {
+            for ( int permit = 0; permit < 1000; permit++ ){
+                rateLimiter.acquire();
+            }
+        } );
+    }
+
+    @Test
+    void acquireOnInterruptedThreadThrowsCancellationException(){
+        final var rateLimiter = new RateLimiter( 0 );
+
+        Thread.currentThread().interrupt();
+        try {
+            Assertions.assertThrows( CancellationException.class, rateLimiter::acquire );
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    void interruptingWaitingCallerStopsItWaiting() throws Exception {
+        final var rateLimiter = new RateLimiter( 0.1 );
+        rateLimiter.acquire();
+
+        final var thrown = new CompletableFuture<Throwable>();
+        final var waiter = Thread.ofVirtual().start( () -> {
+            try {
+                rateLimiter.acquire();
+                thrown.complete( null );
+            } catch ( RuntimeException exception ) {
+                thrown.complete( exception );
+            }
+        } );
+        Thread.sleep( 100 );
+        waiter.interrupt();
+
+        Assertions.assertInstanceOf( CancellationException.class, thrown.get( 1, TimeUnit.SECONDS ) );
+    }
+
+}